@@ -0,0 +1,68 @@
+package com.cursordemo.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler and prints a one-line summary
+ * per benchmark: throughput, allocation rate and bytes allocated per operation.
+ * 
+ * Configured through system properties, which the {@code benchmark} Maven
+ * profile fills from {@code -Dbenchmark.include}, {@code -Dbenchmark.catalogSizes}
+ * and {@code -Dbenchmark.storages}:
+ * 
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark.catalogSizes=10000,1000000 -Dbenchmark.storages=jpa,inmemory
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = System.getProperty("books.benchmark.include", BookServiceBenchmark.class.getSimpleName());
+        String[] catalogSizes = System.getProperty("books.benchmark.catalog-sizes", "10000").split(",");
+        String[] storages = System.getProperty("books.benchmark.storages", "jpa,inmemory").split(",");
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .param("catalogSize", catalogSizes)
+                .param("storage", storages)
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        System.out.println();
+        System.out.printf("%-72s %10s %10s %14s %14s %12s%n",
+                "Benchmark", "Catalog", "Storage", "ops/s", "alloc MB/s", "alloc B/op");
+        for (RunResult result : results) {
+            System.out.printf("%-72s %10s %10s %14.1f %14.1f %12.0f%n",
+                    result.getParams().getBenchmark(),
+                    result.getParams().getParam("catalogSize"),
+                    result.getParams().getParam("storage"),
+                    result.getPrimaryResult().getScore(),
+                    score(result, "gc.alloc.rate"),
+                    score(result, "gc.alloc.rate.norm"));
+        }
+    }
+
+    private static double score(RunResult result, String label) {
+        // Older JMH versions prefix profiler labels with a middle dot
+        for (String name : List.of(label, "·" + label)) {
+            Result<?> score = result.getSecondaryResults().get(name);
+            if (score != null) {
+                return score.getScore();
+            }
+        }
+        return Double.NaN;
+    }
+}
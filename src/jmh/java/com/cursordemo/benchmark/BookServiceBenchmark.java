@@ -0,0 +1,333 @@
+package com.cursordemo.benchmark;
+
+import com.cursordemo.CursorDemoApplication;
+import com.cursordemo.dto.BookBulkResultDTO;
+import com.cursordemo.dto.BookQueryDTO;
+import com.cursordemo.dto.BookRequestDTO;
+import com.cursordemo.dto.BookResponseDTO;
+import com.cursordemo.dto.SuggestionDTO;
+import com.cursordemo.entity.Book;
+import com.cursordemo.index.BookIndexManager;
+import com.cursordemo.repository.BookRepository;
+import com.cursordemo.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the BookService read and write paths against an embedded H2
+ * catalog of {@code catalogSize} books.
+ * 
+ * The application context is started once per fork with web, SQL logging and
+ * request logging disabled, the catalog is bulk-inserted over JDBC, and the
+ * in-memory indexes are rebuilt before measuring. Lookups pick a random
+ * existing book per invocation so the caches see a realistic key spread.
+ * 
+ * {@code storage} selects the repository behind the service: {@code jpa} for
+ * Hibernate over H2, {@code inmemory} for the in-memory store of the
+ * {@code inmemory} profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookServiceBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final int AUTHORS = 1_000;
+    private static final int CREATE_BATCH_SIZE = 500;
+
+    @Param({"10000"})
+    private int catalogSize;
+
+    @Param({"jpa", "inmemory"})
+    private String storage;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private BookRepository bookRepository;
+    private ObjectMapper objectMapper;
+    private Book sampleBook;
+    private AtomicLong nextIsbn;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        SpringApplication application = new SpringApplication(CursorDemoApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        // Passed as arguments so they override application.yml
+        context = application.run(
+                "--spring.profiles.active=" + (storage.equals("inmemory") ? "inmemory" : "default"),
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.cursordemo=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=OFF",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF");
+
+        seedCatalog(context.getBean(JdbcTemplate.class));
+        context.getBean(BookIndexManager.class).rebuild();
+
+        bookService = context.getBean(BookService.class);
+        bookRepository = context.getBean(BookRepository.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        sampleBook = bookRepository.findById(1L).orElseThrow();
+        nextIsbn = new AtomicLong(9_790_000_000_000L);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookResponseDTO getBookById() {
+        return bookService.getBookById(randomId());
+    }
+
+    @Benchmark
+    public BookResponseDTO getBookByIsbn() {
+        return bookService.getBookByIsbn(isbnOf(randomId()));
+    }
+
+    @Benchmark
+    public BookResponseDTO createBook() {
+        long isbn = nextIsbn.incrementAndGet();
+        return bookService.createBook(new BookRequestDTO("Created " + isbn, "Benchmark Author",
+                String.valueOf(isbn), new BigDecimal("19.99")));
+    }
+
+    /**
+     * {@link BookService#createBooks(List)} with batches of
+     * {@value #CREATE_BATCH_SIZE} books, reported per book so the score
+     * compares directly with {@link #createBook()}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CREATE_BATCH_SIZE)
+    public List<BookBulkResultDTO> createBooks() {
+        List<BookRequestDTO> batch = new ArrayList<>(CREATE_BATCH_SIZE);
+        for (int i = 0; i < CREATE_BATCH_SIZE; i++) {
+            long isbn = nextIsbn.incrementAndGet();
+            batch.add(new BookRequestDTO("Created " + isbn, "Benchmark Author",
+                    String.valueOf(isbn), new BigDecimal("19.99")));
+        }
+        return bookService.createBooks(batch);
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> getAllBooks() {
+        return bookService.getAllBooks();
+    }
+
+    /**
+     * {@link #getAllBooks()} plus writing the JSON response body, to include
+     * the cost of serializing prices and timestamps.
+     */
+    @Benchmark
+    public void getAllBooksAsJson() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), bookService.getAllBooks());
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> searchBooksByTitle() {
+        return bookService.searchBooksByTitle("title 4242", null);
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> searchBooksByAuthor() {
+        return bookService.searchBooksByAuthor("author 427", null);
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> searchBooksByTitleOrAuthor() {
+        return bookService.searchBooksByTitleOrAuthor("title 4242", "author 427", null);
+    }
+
+    /**
+     * Queries the same fields as {@link #searchBooksByTitleOrAuthor} with
+     * LIKE scans, as the full-text search is compared against.
+     */
+    @Benchmark
+    public List<Book> searchBooksByTitleOrAuthorLike() {
+        return bookRepository.findByTitleOrAuthorContaining("4242", "author 427");
+    }
+
+    /**
+     * Ranks the books matching two rare words.
+     */
+    @Benchmark
+    public List<BookResponseDTO> searchBooksFullText() {
+        return bookService.searchBooksFullText("4242 427", 10, null);
+    }
+
+    /**
+     * Ranks every book, since every title contains "benchmark".
+     */
+    @Benchmark
+    public List<BookResponseDTO> searchBooksFullTextCommonWord() {
+        return bookService.searchBooksFullText("benchmark 4242", 10, null);
+    }
+
+    /**
+     * Finds the books of one author from a misspelled name.
+     */
+    @Benchmark
+    public List<BookResponseDTO> searchBooksByAuthorFuzzy() {
+        return bookService.searchBooksByAuthorFuzzy("athor 427", 10, null);
+    }
+
+    /**
+     * Matches every book, one edit away, so the time budget bounds the search.
+     */
+    @Benchmark
+    public List<BookResponseDTO> searchBooksByAuthorFuzzyCommonWord() {
+        return bookService.searchBooksByAuthorFuzzy("athor", 10, null);
+    }
+
+    /**
+     * Combines an author narrowed down by the trigram index with a price range
+     * that a tenth of the catalog falls in.
+     */
+    @Benchmark
+    public List<BookResponseDTO> queryBooksByAuthorAndPrice() {
+        BookQueryDTO query = new BookQueryDTO();
+        query.setAuthor("author 427");
+        query.setMinPrice(new BigDecimal("10.00"));
+        query.setMaxPrice(new BigDecimal("20.00"));
+        query.setSort("price");
+        query.setLimit(10);
+        return bookService.queryBooks(query);
+    }
+
+    /**
+     * Filters by ISBN prefix, which no in-memory index covers, most expensive first.
+     */
+    @Benchmark
+    public List<BookResponseDTO> queryBooksByIsbnPrefix() {
+        BookQueryDTO query = new BookQueryDTO();
+        query.setIsbnPrefix("9780000042");
+        query.setSort("-price");
+        query.setLimit(10);
+        return bookService.queryBooks(query);
+    }
+
+    /**
+     * Completes a single word that every title contains.
+     */
+    @Benchmark
+    public List<SuggestionDTO> suggestWord() {
+        return bookService.suggest("bench", 10);
+    }
+
+    /**
+     * Completes the last word of a phrase, as typed into a search box.
+     */
+    @Benchmark
+    public List<SuggestionDTO> suggestPhrase() {
+        return bookService.suggest("author 42", 10);
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> searchBooksByPriceRange() {
+        return bookService.searchBooksByPriceRange(new BigDecimal("10.00"), new BigDecimal("10.50"), 0, 50, null);
+    }
+
+    /**
+     * Reads only three columns of the books {@link #searchBooksByPriceRange} finds.
+     */
+    @Benchmark
+    public List<BookResponseDTO> searchBooksByPriceRangeSparse() {
+        return bookService.searchBooksByPriceRange(new BigDecimal("10.00"), new BigDecimal("10.50"), 0, 50,
+                "id,title,price");
+    }
+
+    /**
+     * Reads a page of 100 books after a random ID and writes it as JSON.
+     */
+    @Benchmark
+    public void getBooksPageAsJson() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(),
+                bookService.getBooksAfter(randomId(), 100, null).getBooks());
+    }
+
+    /**
+     * Reads and writes only the ID and title of the books of {@link #getBooksPageAsJson}.
+     */
+    @Benchmark
+    public void getBooksPageAsJsonSparse() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(),
+                bookService.getBooksAfter(randomId(), 100, "id,title").getBooks());
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> searchBooksByMaxPrice() {
+        return bookService.searchBooksByMaxPrice(new BigDecimal("5.00"), 0, 50, null);
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> searchBooksByMinPrice() {
+        return bookService.searchBooksByMinPrice(new BigDecimal("95.00"), 0, 50, null);
+    }
+
+    @Benchmark
+    public BookResponseDTO convertToResponseDTO() {
+        return bookService.convertToResponseDTO(sampleBook);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, catalogSize + 1);
+    }
+
+    private static String isbnOf(long id) {
+        return String.format("978%010d", id);
+    }
+
+    /**
+     * Replace the sample data with a generated catalog of ids 1..catalogSize.
+     */
+    private void seedCatalog(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM books");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (long id = 1; id <= catalogSize; id++) {
+            BigDecimal price = BigDecimal.valueOf(100 + id % 9_900, 2);
+            batch.add(new Object[]{id, "Benchmark Title " + id, "Author " + (id % AUTHORS), isbnOf(id), price, now, now});
+            if (batch.size() == SEED_BATCH_SIZE || id == catalogSize) {
+                jdbcTemplate.batchUpdate("INSERT INTO books (id, title, author, isbn, price, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE books_seq RESTART WITH " + (catalogSize + Book.ID_ALLOCATION_SIZE));
+    }
+}
@@ -0,0 +1,79 @@
+package com.cursordemo.benchmark;
+
+import com.cursordemo.dto.BookResponseDTO;
+import com.cursordemo.entity.Book;
+import com.cursordemo.index.BookIndex;
+import com.cursordemo.repository.memory.InMemoryBookStore;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures with JOL how much heap books take in the forms the application
+ * holds many of at once: the in-memory store of the {@code inmemory} profile
+ * and a list of response DTOs, as returned by {@code getAllBooks}.
+ * 
+ * Every book gets its own title, author, ISBN, price and timestamp objects,
+ * as when loaded from the database. Strings are reported separately because
+ * all forms share them with the entities they were built from. Footprint
+ * grows linearly with the number of books, so the default 100,000 books are
+ * scaled up to a million; JOL itself needs several times the measured heap.
+ * 
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark.main=com.cursordemo.benchmark.FootprintRunner
+ * </pre>
+ */
+public final class FootprintRunner {
+
+    private FootprintRunner() {
+    }
+
+    public static void main(String[] args) {
+        // Unsafe refuses field offsets of records; let JOL find them itself
+        System.setProperty("jol.magicFieldOffset", "true");
+        int count = Integer.parseInt(System.getProperty("books.footprint.books", "100000"));
+        List<Book> books = new ArrayList<>(count);
+        List<String> strings = new ArrayList<>(count * 3);
+        long start = LocalDateTime.of(2024, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        for (int id = 1; id <= count; id++) {
+            Book book = new Book("Title " + id, "Author " + id % 1_000, String.format("978%010d", id),
+                    BigDecimal.valueOf(100 + id % 9_900, 2));
+            book.setId((long) id);
+            book.setVersion(0L);
+            book.setCreatedAt(LocalDateTime.ofEpochSecond(start + id, 123_456_000, ZoneOffset.UTC));
+            book.setUpdatedAt(LocalDateTime.ofEpochSecond(start + id, 654_321_000, ZoneOffset.UTC));
+            books.add(book);
+            strings.add(book.getTitle());
+            strings.add(book.getAuthor());
+            strings.add(book.getIsbn());
+        }
+        GraphLayout stringLayout = GraphLayout.parseInstance(strings.toArray());
+
+        InMemoryBookStore store = new InMemoryBookStore();
+        BookIndex.Loader loader = store.beginRebuild(count);
+        books.forEach(loader::add);
+        loader.publish();
+
+        List<BookResponseDTO> responses = new ArrayList<>(count);
+        for (Book book : books) {
+            responses.add(new BookResponseDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(),
+                    book.getPrice(), book.getCreatedAt(), book.getUpdatedAt()));
+        }
+
+        System.out.printf("%,d books, strings (shared by all forms): %,d bytes%n%n", count, stringLayout.totalSize());
+        report("In-memory store", GraphLayout.parseInstance(store).subtract(stringLayout), count);
+        report("List<BookResponseDTO>", GraphLayout.parseInstance(responses).subtract(stringLayout), count);
+    }
+
+    private static void report(String name, GraphLayout layout, int count) {
+        System.out.println(name + " without strings:");
+        System.out.println(layout.toFootprint());
+        double perBook = (double) layout.totalSize() / count;
+        System.out.printf("%s: %,d bytes, %.1f bytes per book, %.0f MB per million books%n%n",
+                name, layout.totalSize(), perBook, perBook);
+    }
+}
@@ -0,0 +1,222 @@
+package com.cursordemo.benchmark;
+
+import com.cursordemo.CursorDemoApplication;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test of request execution on Tomcat's thread pool.
+ * 
+ * For every client count the application is started in a child JVM
+ * (the same Java binary as this runner), so the server has its own file
+ * descriptor limit and heap. Each simulated client sends one request at a time
+ * and sends the next as soon as the response arrives. Requests are issued
+ * asynchronously, so thousands of clients need no client threads. After a
+ * warmup of a third of the run, throughput, p50/p99 latency and errors are
+ * measured.
+ * 
+ * Run with:
+ * 
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark.main=com.cursordemo.benchmark.LoadTestRunner \
+ *     -Dloadtest.clients=1000,10000 -Dloadtest.seconds=30
+ * </pre>
+ */
+public final class LoadTestRunner {
+
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder()
+            .encodeToString("admin:admin123".getBytes(StandardCharsets.UTF_8));
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] clientCounts = System.getProperty("books.loadtest.clients", "1000,10000").split(",");
+        int seconds = Integer.parseInt(System.getProperty("books.loadtest.seconds", "30"));
+        String path = System.getProperty("books.loadtest.path", "/api/v1/books?limit=20");
+
+        List<String> rows = new ArrayList<>();
+        for (String clients : clientCounts) {
+            Result result = run(Integer.parseInt(clients.trim()), seconds, path);
+            rows.add(String.format("%8s %12.1f %10.1f %10.1f %10d",
+                    clients.trim(), result.throughput, result.p50Millis, result.p99Millis, result.errors));
+        }
+
+        System.out.println();
+        System.out.println("GET " + path + ", " + seconds + "s per run");
+        System.out.printf("%8s %12s %10s %10s %10s%n", "Clients", "req/s", "p50 ms", "p99 ms", "errors");
+        rows.forEach(System.out::println);
+    }
+
+    private static Result run(int clients, int seconds, String path) throws Exception {
+        int port = freePort();
+        Process server = startServer(port);
+        try {
+            URI uri = URI.create("http://localhost:" + port + path);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            awaitReady(client, port);
+            System.out.printf("Running %d clients for %ds%n", clients, seconds);
+
+            long start = System.nanoTime();
+            long measureFrom = start + Duration.ofSeconds(seconds).toNanos() / 3;
+            long end = start + Duration.ofSeconds(seconds).toNanos();
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Authorization", AUTHORIZATION)
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+
+            AtomicLong errors = new AtomicLong();
+            List<Client> loops = new ArrayList<>(clients);
+            List<CompletableFuture<Void>> done = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                Client loop = new Client(client, request, measureFrom, end, errors);
+                loops.add(loop);
+                done.add(loop.start());
+            }
+            CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).join();
+
+            long count = 0;
+            for (Client loop : loops) {
+                count += loop.count;
+            }
+            long[] latencies = new long[Math.toIntExact(count)];
+            int offset = 0;
+            for (Client loop : loops) {
+                System.arraycopy(loop.latencies, 0, latencies, offset, loop.count);
+                offset += loop.count;
+            }
+            Arrays.sort(latencies);
+            double measuredSeconds = (end - measureFrom) / 1e9;
+            return new Result(count / measuredSeconds, percentile(latencies, 0.50), percentile(latencies, 0.99), errors.get());
+        } finally {
+            server.destroy();
+            server.waitFor();
+        }
+    }
+
+    private static Process startServer(int port) throws IOException {
+        String java = ProcessHandle.current().info().command()
+                .orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        List<String> command = new ArrayList<>(List.of(java, "-Xmx2g",
+                "-cp", System.getProperty("java.class.path"),
+                CursorDemoApplication.class.getName(),
+                "--server.port=" + port,
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=1000",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.cursordemo=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=OFF",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"));
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    private static void awaitReady(HttpClient client, int port) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .header("Authorization", AUTHORIZATION)
+                .build();
+        for (int attempt = 0; attempt < 240; attempt++) {
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Application did not start on port " + port);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * One simulated client: a chain of requests with one in flight at a time,
+     * so its latencies are only ever written by one callback at a time.
+     */
+    private static final class Client {
+
+        private final HttpClient httpClient;
+        private final HttpRequest request;
+        private final long measureFrom;
+        private final long end;
+        private final AtomicLong errors;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        long[] latencies = new long[256];
+        int count;
+
+        Client(HttpClient httpClient, HttpRequest request, long measureFrom, long end, AtomicLong errors) {
+            this.httpClient = httpClient;
+            this.request = request;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.errors = errors;
+        }
+
+        CompletableFuture<Void> start() {
+            next();
+            return done;
+        }
+
+        private void next() {
+            long sent = System.nanoTime();
+            if (sent >= end) {
+                done.complete(null);
+                return;
+            }
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long received = System.nanoTime();
+                        if (sent >= measureFrom) {
+                            if (failure != null || response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            } else {
+                                record(received - sent);
+                            }
+                        }
+                        next();
+                    });
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, long errors) {
+    }
+}
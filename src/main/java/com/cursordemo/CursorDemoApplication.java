@@ -2,6 +2,7 @@ package com.cursordemo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Main Spring Boot application class for Cursor Demo API.
@@ -10,6 +11,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * authentication, and comprehensive documentation.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class CursorDemoApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,54 @@
+package com.cursordemo.cache;
+
+import com.cursordemo.config.BookProperties;
+import com.cursordemo.event.BookChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Function;
+
+/**
+ * Bounded cache of serialized single-book responses, keyed by book ID.
+ * 
+ * Entries are dropped once a change to the book commits. A load that read the
+ * book before the commit cannot outlive it: Caffeine makes the invalidation
+ * wait for an in-flight load of the same key and then removes its result.
+ */
+@Component
+public class BookResponseCache {
+
+    private final Cache<Long, SerializedBook> cache;
+
+    @Autowired
+    public BookResponseCache(BookProperties bookProperties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(bookProperties.getResponseCache().getMaxEntries())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "book-responses");
+    }
+
+    /**
+     * Get the serialized response of a book, serializing it on a miss.
+     * 
+     * @param bookId the book ID
+     * @param loader serializes the book; may throw to signal that it does not exist
+     * @return the cached or freshly serialized response
+     */
+    public SerializedBook get(Long bookId, Function<Long, SerializedBook> loader) {
+        return cache.get(bookId, loader);
+    }
+
+    /**
+     * Drop the cached response of a book once its change has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        cache.invalidate(event.getBookId());
+    }
+}
@@ -0,0 +1,84 @@
+package com.cursordemo.cache;
+
+import com.cursordemo.config.BookProperties;
+import com.cursordemo.event.BookChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Version validators for conditional GETs.
+ * 
+ * Each book's strong ETag is derived from its ID and {@code updatedAt}, and
+ * the latest one is cached so an If-None-Match check can be answered without
+ * loading the row. Collection responses share a weak catalog ETag made of the
+ * boot time and a counter bumped on every committed change, so a restart
+ * never reuses an ETag from an earlier catalog.
+ */
+@Component
+public class BookVersionCache {
+
+    private final Cache<Long, String> etags;
+    private final long bootEpoch = System.currentTimeMillis();
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    @Autowired
+    public BookVersionCache(BookProperties bookProperties, MeterRegistry meterRegistry) {
+        this.etags = Caffeine.newBuilder()
+                .maximumSize(bookProperties.getResponseCache().getMaxVersions())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, etags, "book-versions");
+    }
+
+    /**
+     * Build the strong ETag of a book version.
+     * 
+     * {@code updatedAt} is taken to the microsecond, the precision the database
+     * stores, so the ETag of a just-saved book matches the one of the reloaded row.
+     * 
+     * @param bookId the book ID
+     * @param updatedAt the book's last modification time
+     * @return the quoted ETag
+     */
+    public static String etagOf(Long bookId, LocalDateTime updatedAt) {
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return "\"" + bookId + "-" + micros + "\"";
+    }
+
+    /**
+     * Get the current ETag of a book, loading it on a miss.
+     * 
+     * @param bookId the book ID
+     * @param loader computes the ETag; may throw to signal that the book does not exist
+     * @return the quoted strong ETag
+     */
+    public String getEtag(Long bookId, Function<Long, String> loader) {
+        return etags.get(bookId, loader);
+    }
+
+    /**
+     * The weak ETag of every collection response at the current catalog version.
+     */
+    public String getCatalogEtag() {
+        return "W/\"" + bootEpoch + "-" + catalogVersion.get() + "\"";
+    }
+
+    /**
+     * Drop the book's ETag and move the catalog to a new version once a change commits.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        etags.invalidate(event.getBookId());
+        catalogVersion.incrementAndGet();
+    }
+}
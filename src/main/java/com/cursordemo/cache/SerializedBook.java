@@ -0,0 +1,32 @@
+package com.cursordemo.cache;
+
+/**
+ * A book response that has already been serialized to JSON.
+ * 
+ * Holds the UTF-8 bytes exactly as they are written to the client together
+ * with the strong ETag of the book version they were serialized from.
+ */
+public final class SerializedBook {
+
+    private final byte[] json;
+    private final String etag;
+
+    public SerializedBook(byte[] json, String etag) {
+        this.json = json;
+        this.etag = etag;
+    }
+
+    /**
+     * The serialized response body. Callers must not modify the array.
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * The quoted strong ETag of the body.
+     */
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,27 @@
+package com.cursordemo.coalescing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read method whose concurrent identical calls may share one execution.
+ * 
+ * Calls are identical when they target the same method with equal arguments.
+ * Decimal arguments are compared by value, so 10 and 10.00 share a call.
+ * 
+ * @see CoalescingAspect
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+
+    /**
+     * Whether String arguments are compared ignoring case. Only set this on
+     * methods whose result does not depend on the case of their arguments.
+     */
+    boolean ignoreCase() default false;
+}
@@ -0,0 +1,207 @@
+package com.cursordemo.coalescing;
+
+import com.cursordemo.config.BookProperties;
+import com.cursordemo.dto.BookResponseDTO;
+import com.cursordemo.event.BookChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight execution of {@link Coalesced} methods.
+ * 
+ * The first caller for a key runs the method; callers arriving with the same
+ * key while it is running wait for it and receive a copy of its result, or of
+ * its exception, instead of running their own query. Book DTOs and lists are
+ * copied per waiter, so no caller can change what another one returns; other
+ * results must be immutable. Once the call finishes the key is released, so
+ * results are never reused after the fact.
+ * 
+ * Every call carries the generation of the data it may read. A book change
+ * moves to a new generation both before its transaction commits and after,
+ * so a caller arriving after the commit never joins a call that started
+ * before it and may have read the old data. The aspect runs outside the
+ * transaction advice, so waiting callers hold no database connection.
+ * 
+ * Calls are counted in {@code books.service.coalescing}, tagged with the method
+ * and whether the call was executed or shared; shared / (executed + shared) is
+ * the fraction of calls that were saved.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class CoalescingAspect {
+
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Key, Flight> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public CoalescingAspect(BookProperties bookProperties, MeterRegistry meterRegistry) {
+        this.enabled = bookProperties.getCoalescing().isEnabled();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("books.service.coalescing.in.flight", inFlight, ConcurrentMap::size)
+                .description("Distinct coalesced calls currently running")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, Coalesced coalesced) throws Throwable {
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getName();
+        Key key = new Key(method, normalize(joinPoint.getArgs(), coalesced.ignoreCase()));
+
+        Flight call = new Flight(new CompletableFuture<>(), generation.get());
+        while (true) {
+            Flight running = inFlight.putIfAbsent(key, call);
+            if (running == null) {
+                break;
+            }
+            if (running.generation() >= call.generation()) {
+                counters.computeIfAbsent(method, this::newCounters).shared().increment();
+                try {
+                    return copyOf(running.result().join());
+                } catch (CompletionException ex) {
+                    throw copyOf(ex.getCause());
+                }
+            }
+            // The running call may have read data older than a change this caller must see
+            if (inFlight.replace(key, running, call)) {
+                break;
+            }
+        }
+
+        counters.computeIfAbsent(method, this::newCounters).executed().increment();
+        try {
+            Object result = joinPoint.proceed();
+            call.result().complete(result);
+            return result;
+        } catch (Throwable ex) {
+            call.result().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Stop sharing calls that start before a change commits, while it commits.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void beforeBookChangeCommits(BookChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Stop sharing calls that started before a change committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    private Counters newCounters(String method) {
+        return new Counters(counter(method, "executed"), counter(method, "shared"));
+    }
+
+    private Counter counter(String method, String result) {
+        return Counter.builder("books.service.coalescing")
+                .description("Calls to coalesced BookService methods")
+                .tag("method", method)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Copy a shared result for one waiter.
+     */
+    private static Object copyOf(Object result) {
+        if (result instanceof BookResponseDTO book) {
+            return new BookResponseDTO(book);
+        }
+        if (result instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object element : list) {
+                copy.add(copyOf(element));
+            }
+            return copy;
+        }
+        return result;
+    }
+
+    /**
+     * Copy a shared exception for one waiter, keeping its type and message so
+     * it is handled like the original. Falls back to the shared instance for
+     * exceptions without a message constructor.
+     */
+    private static Throwable copyOf(Throwable shared) {
+        try {
+            return shared.getClass().getConstructor(String.class, Throwable.class)
+                    .newInstance(shared.getMessage(), shared.getCause());
+        } catch (NoSuchMethodException ex) {
+            try {
+                return shared.getClass().getConstructor(String.class).newInstance(shared.getMessage());
+            } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
+                     | InvocationTargetException inner) {
+                return shared;
+            }
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+            return shared;
+        }
+    }
+
+    private static List<Object> normalize(Object[] args, boolean ignoreCase) {
+        Object[] normalized = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg instanceof BigDecimal decimal) {
+                normalized[i] = decimal.stripTrailingZeros();
+            } else if (ignoreCase && arg instanceof String text) {
+                normalized[i] = text.toLowerCase(Locale.ROOT);
+            } else {
+                normalized[i] = arg;
+            }
+        }
+        return Arrays.asList(normalized);
+    }
+
+    private record Key(String method, List<Object> args) {
+    }
+
+    /**
+     * The call counters of one method, registered on its first call.
+     */
+    private record Counters(Counter executed, Counter shared) {
+    }
+
+    /**
+     * A running call and the generation it started in.
+     */
+    private record Flight(CompletableFuture<Object> result, long generation) {
+    }
+}
@@ -0,0 +1,535 @@
+package com.cursordemo.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for the Book API.
+ * 
+ * Bound from the {@code books.*} section of application.yml.
+ */
+@ConfigurationProperties(prefix = "books")
+@Validated
+public class BookProperties {
+
+    private final Pagination pagination = new Pagination();
+
+    @Valid
+    private final Export export = new Export();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Cache cache = new Cache();
+
+    private final ResponseCache responseCache = new ResponseCache();
+
+    private final AuthCache authCache = new AuthCache();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    private final RequestSummary requestSummary = new RequestSummary();
+
+    private final Persistence persistence = new Persistence();
+
+    private final Index index = new Index();
+
+    private final Suggest suggest = new Suggest();
+
+    private final Fuzzy fuzzy = new Fuzzy();
+
+    private final Query query = new Query();
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public AuthCache getAuthCache() {
+        return authCache;
+    }
+
+    public Coalescing getCoalescing() {
+        return coalescing;
+    }
+
+    public RequestSummary getRequestSummary() {
+        return requestSummary;
+    }
+
+    public Persistence getPersistence() {
+        return persistence;
+    }
+
+    public Index getIndex() {
+        return index;
+    }
+
+    public Suggest getSuggest() {
+        return suggest;
+    }
+
+    public Fuzzy getFuzzy() {
+        return fuzzy;
+    }
+
+    public Query getQuery() {
+        return query;
+    }
+
+    /**
+     * Keyset pagination settings for collection endpoints.
+     */
+    public static class Pagination {
+
+        /**
+         * Page size used when the client does not send a limit.
+         */
+        private int defaultLimit = 50;
+
+        /**
+         * Largest page size a client may request.
+         */
+        private int maxLimit = 500;
+
+        public int getDefaultLimit() {
+            return defaultLimit;
+        }
+
+        public void setDefaultLimit(int defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+
+    /**
+     * Settings for the streaming catalog export.
+     */
+    public static class Export {
+
+        /**
+         * Number of rows fetched per database round trip, and written between
+         * flushes of the output stream and clears of the persistence context.
+         */
+        @Positive
+        private int batchSize = 500;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Settings for bulk creation and batch retrieval of books.
+     */
+    public static class Bulk {
+
+        /**
+         * Largest number of books accepted in one bulk create or batch get request.
+         */
+        private int maxItems = 1000;
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+    }
+
+    /**
+     * Sizing of the Hibernate second-level cache regions for books.
+     */
+    public static class Cache {
+
+        /**
+         * Largest number of entries kept on heap in each cache region.
+         */
+        private long maxEntries = 10_000;
+
+        /**
+         * How long an entry stays cached after it was written.
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    /**
+     * Sizing of the caches behind single-book responses.
+     */
+    public static class ResponseCache {
+
+        /**
+         * Largest number of serialized books kept in memory.
+         */
+        private long maxEntries = 10_000;
+
+        /**
+         * Largest number of book ETags kept for answering conditional GETs.
+         */
+        private long maxVersions = 100_000;
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getMaxVersions() {
+            return maxVersions;
+        }
+
+        public void setMaxVersions(long maxVersions) {
+            this.maxVersions = maxVersions;
+        }
+    }
+
+    /**
+     * Settings of the cache of verified credentials.
+     */
+    public static class AuthCache {
+
+        /**
+         * Largest number of verified credentials remembered at once.
+         */
+        private long maxEntries = 10_000;
+
+        /**
+         * How long a verified credential is trusted before BCrypt runs again.
+         */
+        private Duration timeToLive = Duration.ofMinutes(1);
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    /**
+     * Settings for sharing concurrent identical reads.
+     */
+    public static class Coalescing {
+
+        /**
+         * Whether concurrent identical reads share one database call.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Settings of the periodic per-endpoint request summary in the log.
+     */
+    public static class RequestSummary {
+
+        /**
+         * Whether the summary is logged.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Time between two summaries; each covers the requests since the previous one.
+         */
+        private Duration interval = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+
+    /**
+     * Settings of the snapshots and change log that keep the in-memory
+     * database across restarts.
+     */
+    public static class Persistence {
+
+        /**
+         * Whether changes are logged and the table is restored on startup.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory holding the snapshots and change log segments.
+         */
+        private Path directory = Path.of("data", "books");
+
+        /**
+         * Time between two snapshots; the change log only grows in between.
+         */
+        private Duration snapshotInterval = Duration.ofMinutes(10);
+
+        /**
+         * Whether every change is forced to the storage device before its
+         * transaction commits. Without it a change survives a process crash,
+         * but not necessarily a power loss.
+         */
+        private boolean syncOnWrite = false;
+
+        /**
+         * Whether a snapshot is written on shutdown, so the next start has no log to replay.
+         */
+        private boolean snapshotOnShutdown = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public Duration getSnapshotInterval() {
+            return snapshotInterval;
+        }
+
+        public void setSnapshotInterval(Duration snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+        }
+
+        public boolean isSyncOnWrite() {
+            return syncOnWrite;
+        }
+
+        public void setSyncOnWrite(boolean syncOnWrite) {
+            this.syncOnWrite = syncOnWrite;
+        }
+
+        public boolean isSnapshotOnShutdown() {
+            return snapshotOnShutdown;
+        }
+
+        public void setSnapshotOnShutdown(boolean snapshotOnShutdown) {
+            this.snapshotOnShutdown = snapshotOnShutdown;
+        }
+    }
+
+    /**
+     * Settings of the autocomplete endpoint.
+     */
+    public static class Suggest {
+
+        /**
+         * Number of suggestions returned when the client does not send a limit.
+         */
+        private int defaultLimit = 10;
+
+        /**
+         * Largest number of suggestions a client may request.
+         */
+        private int maxLimit = 50;
+
+        public int getDefaultLimit() {
+            return defaultLimit;
+        }
+
+        public void setDefaultLimit(int defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+
+    /**
+     * Limits of the typo-tolerant searches.
+     */
+    public static class Fuzzy {
+
+        /**
+         * Largest number of edits between a query word and the words it matches.
+         * The full-text index stores every word under all its variants with this
+         * many characters deleted, so raising it grows the index quickly.
+         */
+        private int maxDistance = 2;
+
+        /**
+         * Largest number of indexed words a query word is expanded to, closest first.
+         */
+        private int maxExpansions = 50;
+
+        /**
+         * Time after which a fuzzy search stops matching and returns the books found so far.
+         */
+        private Duration timeBudget = Duration.ofMillis(20);
+
+        public int getMaxDistance() {
+            return maxDistance;
+        }
+
+        public void setMaxDistance(int maxDistance) {
+            this.maxDistance = maxDistance;
+        }
+
+        public int getMaxExpansions() {
+            return maxExpansions;
+        }
+
+        public void setMaxExpansions(int maxExpansions) {
+            this.maxExpansions = maxExpansions;
+        }
+
+        public Duration getTimeBudget() {
+            return timeBudget;
+        }
+
+        public void setTimeBudget(Duration timeBudget) {
+            this.timeBudget = timeBudget;
+        }
+    }
+
+    /**
+     * Planning of combined book queries.
+     */
+    public static class Query {
+
+        /**
+         * Largest number of books the in-memory indexes may narrow a query to
+         * for the database to check by ID. Broader queries are filtered by the
+         * database indexes alone.
+         */
+        private int maxCandidates = 1000;
+
+        public int getMaxCandidates() {
+            return maxCandidates;
+        }
+
+        public void setMaxCandidates(int maxCandidates) {
+            this.maxCandidates = maxCandidates;
+        }
+    }
+
+    /**
+     * Settings for the in-memory book indexes.
+     */
+    public static class Index {
+
+        private final IsbnBloom isbnBloom = new IsbnBloom();
+
+        public IsbnBloom getIsbnBloom() {
+            return isbnBloom;
+        }
+    }
+
+    /**
+     * Sizing of the ISBN Bloom filter.
+     */
+    public static class IsbnBloom {
+
+        /**
+         * Number of ISBNs the filter is sized for before it is rebuilt.
+         */
+        private long expectedInsertions = 1_000_000;
+
+        /**
+         * Target false-positive probability at the expected number of insertions.
+         */
+        private double falsePositiveProbability = 0.01;
+
+        public long getExpectedInsertions() {
+            return expectedInsertions;
+        }
+
+        public void setExpectedInsertions(long expectedInsertions) {
+            this.expectedInsertions = expectedInsertions;
+        }
+
+        public double getFalsePositiveProbability() {
+            return falsePositiveProbability;
+        }
+
+        public void setFalsePositiveProbability(double falsePositiveProbability) {
+            this.falsePositiveProbability = falsePositiveProbability;
+        }
+    }
+}
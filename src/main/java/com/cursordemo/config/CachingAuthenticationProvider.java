@@ -0,0 +1,145 @@
+package com.cursordemo.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Authentication provider that remembers recently verified credentials.
+ * 
+ * HTTP Basic sends the password with every request, and verifying it with
+ * BCrypt costs milliseconds of CPU by design. This provider delegates the first
+ * verification to the wrapped provider and then caches the successful result
+ * for a short time, keyed by an HMAC-SHA256 of the username and password. The
+ * HMAC key is random per process, so no key is the password or a hash of it
+ * that could be attacked offline. Failed attempts are never cached and always
+ * pay the full BCrypt cost. Only the username, the stored password hash and the
+ * authorities are cached; every hit returns a new token carrying the details of
+ * its own request.
+ * 
+ * A cache hit still loads the user, which for the user details services in
+ * use is a map lookup, and is only honored if the user still has the verified
+ * password hash and authorities and the account is usable. A changed password
+ * or role, a locked account or a removed user evicts the entry at once instead
+ * of after the time to live.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, Verified> verified;
+    private final Mac macPrototype;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, UserDetailsService userDetailsService,
+                                         BookProperties.AuthCache settings, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.userDetailsService = userDetailsService;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxEntries())
+                .expireAfterWrite(settings.getTimeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "authentications");
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        try {
+            this.macPrototype = Mac.getInstance(HMAC_ALGORITHM);
+            this.macPrototype.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+        }
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (authentication.getCredentials() == null) {
+            return delegate.authenticate(authentication);
+        }
+        String key = keyOf(authentication.getName(), authentication.getCredentials().toString());
+        Verified cached = verified.getIfPresent(key);
+        if (cached != null) {
+            UserDetails user = currentUser(cached);
+            if (user != null) {
+                // A token per request, so details and credential erasure are never shared between requests
+                UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                        user, authentication.getCredentials(), cached.authorities());
+                result.setDetails(authentication.getDetails());
+                return result;
+            }
+            verified.invalidate(key);
+        }
+        Authentication result = delegate.authenticate(authentication);
+        // Read the hash now: the provider manager erases the principal's password once this returns
+        if (result != null && result.isAuthenticated() && result.getPrincipal() instanceof UserDetails user
+                && user.getPassword() != null) {
+            verified.put(key, new Verified(user.getUsername(), user.getPassword(),
+                    List.copyOf(result.getAuthorities())));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    /**
+     * Load the user if it still has the verified password hash and authorities
+     * and may log in.
+     * 
+     * @return the current user, or null if the cached verification no longer holds
+     */
+    private UserDetails currentUser(Verified cached) {
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(cached.username());
+        } catch (UsernameNotFoundException ex) {
+            return null;
+        }
+        boolean current = cached.passwordHash().equals(user.getPassword())
+                && cached.authorities().equals(List.copyOf(user.getAuthorities()))
+                && user.isEnabled() && user.isAccountNonLocked()
+                && user.isAccountNonExpired() && user.isCredentialsNonExpired();
+        return current ? user : null;
+    }
+
+    private String keyOf(String username, String password) {
+        Mac mac;
+        try {
+            // Mac instances are not thread-safe; a clone is much cheaper than a new lookup
+            mac = (Mac) macPrototype.clone();
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException("HMAC-SHA256 cannot be cloned", ex);
+        }
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * What a successful authentication verified: the user, the password hash
+     * the credentials were checked against and the authorities granted.
+     */
+    private record Verified(String username, String passwordHash, List<GrantedAuthority> authorities) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.cursordemo.config;
+
+import com.cursordemo.entity.Book;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.List;
+
+/**
+ * Hibernate second-level cache configuration.
+ * 
+ * Creates a local Ehcache JCache manager with one region for Book entities
+ * and one for ISBN natural-id lookups, sized and expired from
+ * {@link BookProperties.Cache}, and hands it to Hibernate. Hit, miss, put and
+ * eviction counts of every region are published as Micrometer cache metrics.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    private static final String EHCACHE_PROVIDER = "org.ehcache.jsr107.EhcacheCachingProvider";
+
+    private static final List<String> REGIONS = List.of(Book.CACHE_REGION, Book.ISBN_CACHE_REGION);
+
+    /**
+     * Create the JCache manager and its book regions.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(BookProperties bookProperties, MeterRegistry meterRegistry) {
+        BookProperties.Cache settings = bookProperties.getCache();
+        CachingProvider provider = Caching.getCachingProvider(EHCACHE_PROVIDER);
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        for (String region : REGIONS) {
+            Cache<Object, Object> cache = cacheManager.getCache(region);
+            if (cache == null) {
+                cache = cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(
+                        CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                        ResourcePoolsBuilder.heap(settings.getMaxEntries()))
+                                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(settings.getTimeToLive()))));
+            }
+            cacheManager.enableStatistics(region, true);
+            JCacheMetrics.monitor(meterRegistry, cache);
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Make Hibernate use the configured cache manager instead of creating its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -1,7 +1,10 @@
 package com.cursordemo.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.User;
@@ -40,6 +43,24 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Configure the authentication provider.
+     * 
+     * Credentials are checked against the user details service with BCrypt,
+     * and successful checks are cached briefly so repeated Basic
+     * authentication does not pay for BCrypt on every request.
+     */
+    @Bean
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         PasswordEncoder passwordEncoder,
+                                                         BookProperties bookProperties,
+                                                         MeterRegistry meterRegistry) {
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider(passwordEncoder);
+        daoProvider.setUserDetailsService(userDetailsService);
+        return new CachingAuthenticationProvider(daoProvider, userDetailsService, bookProperties.getAuthCache(),
+                meterRegistry);
+    }
+
     /**
      * Configure password encoder.
      */
@@ -1,23 +1,38 @@
 package com.cursordemo.controller;
 
+import com.cursordemo.cache.BookVersionCache;
+import com.cursordemo.cache.SerializedBook;
+import com.cursordemo.dto.BookBatchGetRequestDTO;
+import com.cursordemo.dto.BookBatchGetResponseDTO;
+import com.cursordemo.dto.BookBulkResultDTO;
+import com.cursordemo.dto.BookPageDTO;
+import com.cursordemo.dto.BookQueryDTO;
 import com.cursordemo.dto.BookRequestDTO;
 import com.cursordemo.dto.BookResponseDTO;
+import com.cursordemo.dto.SuggestionDTO;
 import com.cursordemo.service.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -34,6 +49,14 @@ public class BookController {
 
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
 
+    /**
+     * Response header carrying the cursor for the next page of a listing.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String FIELDS_DESCRIPTION =
+            "Comma-separated fields to return, such as id,title,price; all fields when absent";
+
     private final BookService bookService;
 
     @Autowired
@@ -61,6 +84,46 @@ public class BookController {
         return new ResponseEntity<>(createdBook, HttpStatus.CREATED);
     }
 
+    /**
+     * Create many books in one request.
+     */
+    @PostMapping("/bulk")
+    @Operation(summary = "Create books in bulk", description = "Creates many books at once. Each book is validated " +
+            "and checked for a duplicate ISBN on its own, and the result of every book is returned in request order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bulk request processed",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = BookBulkResultDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized request")
+    })
+    public ResponseEntity<List<BookBulkResultDTO>> createBooks(
+            @Parameter(description = "Books to create", required = true)
+            @RequestBody List<BookRequestDTO> bookRequestDTOs) {
+        
+        logger.info("Creating {} books in bulk", bookRequestDTOs.size());
+        List<BookBulkResultDTO> results = bookService.createBooks(bookRequestDTOs);
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Get many books by ID and/or ISBN in one request.
+     */
+    @PostMapping("/batch-get")
+    @Operation(summary = "Get books in batch", description = "Fetches many books by ID and/or ISBN in one request. " +
+            "Results are returned in request order with null for keys that match no book, which are also listed as missing")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Books retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = BookBatchGetResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "No keys or too many keys")
+    })
+    public ResponseEntity<BookBatchGetResponseDTO> batchGetBooks(
+            @Parameter(description = "IDs and ISBNs of the books to fetch", required = true)
+            @RequestBody BookBatchGetRequestDTO request) {
+        
+        logger.info("Fetching books in batch: {}", request);
+        BookBatchGetResponseDTO response = bookService.batchGetBooks(request);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get a book by ID.
      */
@@ -69,15 +132,23 @@ public class BookController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Book found",
                     content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Book not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Book not found")
     })
-    public ResponseEntity<BookResponseDTO> getBookById(
+    public ResponseEntity<byte[]> getBookById(
             @Parameter(description = "Book ID", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
         
         logger.info("Fetching book with ID: {}", id);
-        BookResponseDTO book = bookService.getBookById(id);
-        return ResponseEntity.ok(book);
+        if (webRequest.checkNotModified(bookService.getBookEtag(id))) {
+            return null;
+        }
+        SerializedBook book = bookService.getSerializedBookById(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(book.getEtag())
+                .body(book.getJson());
     }
 
     /**
@@ -88,30 +159,77 @@ public class BookController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Book found",
                     content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Book not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Book not found")
     })
     public ResponseEntity<BookResponseDTO> getBookByIsbn(
             @Parameter(description = "Book ISBN", required = true)
-            @PathVariable String isbn) {
+            @PathVariable String isbn,
+            WebRequest webRequest) {
         
         logger.info("Fetching book with ISBN: {}", isbn);
+        if (webRequest.checkNotModified(bookService.getBookEtagByIsbn(isbn))) {
+            return null;
+        }
         BookResponseDTO book = bookService.getBookByIsbn(isbn);
-        return ResponseEntity.ok(book);
+        return ResponseEntity.ok()
+                .eTag(BookVersionCache.etagOf(book.getId(), book.getUpdatedAt()))
+                .body(book);
     }
 
     /**
-     * Get all books.
+     * Get books page by page using keyset pagination.
      */
     @GetMapping
-    @Operation(summary = "Get all books", description = "Retrieves all books in the system")
+    @Operation(summary = "Get all books", description = "Retrieves books ordered by ID, one page at a time. " +
+            "Pass the value of the " + NEXT_CURSOR_HEADER + " response header as 'after' to fetch the next page.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Books retrieved successfully",
-                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class)))
+                    headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor for the next page, absent on the last page"),
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, limit or field")
     })
-    public ResponseEntity<List<BookResponseDTO>> getAllBooks() {
-        logger.info("Fetching all books");
-        List<BookResponseDTO> books = bookService.getAllBooks();
-        return ResponseEntity.ok(books);
+    public ResponseEntity<List<BookResponseDTO>> getAllBooks(
+            @Parameter(description = "ID of the last book of the previous page")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of books to return")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        logger.info("Fetching books after: {} with limit: {}", after, limit);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        BookPageDTO page = bookService.getBooksAfter(after, limit, fields);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getBooks());
+    }
+
+    /**
+     * Export all books as newline-delimited JSON.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all books", description = "Streams the whole catalog as newline-delimited JSON, one book per line")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match")
+    })
+    public void exportBooks(HttpServletResponse response, WebRequest webRequest) throws IOException {
+        logger.info("Exporting all books");
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        bookService.exportBooks(response.getOutputStream());
     }
 
     /**
@@ -124,7 +242,7 @@ public class BookController {
                     content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input data"),
             @ApiResponse(responseCode = "404", description = "Book not found"),
-            @ApiResponse(responseCode = "409", description = "Book with ISBN already exists")
+            @ApiResponse(responseCode = "409", description = "Book with ISBN already exists, or changed concurrently")
     })
     public ResponseEntity<BookResponseDTO> updateBook(
             @Parameter(description = "Book ID", required = true)
@@ -144,7 +262,8 @@ public class BookController {
     @Operation(summary = "Delete book by ID", description = "Deletes a book by its unique identifier")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Book deleted successfully"),
-            @ApiResponse(responseCode = "404", description = "Book not found")
+            @ApiResponse(responseCode = "404", description = "Book not found"),
+            @ApiResponse(responseCode = "409", description = "Book changed concurrently")
     })
     public ResponseEntity<Void> deleteBook(
             @Parameter(description = "Book ID", required = true)
@@ -162,14 +281,22 @@ public class BookController {
     @Operation(summary = "Search books by title", description = "Searches for books by title (case-insensitive)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Search completed successfully",
-                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class)))
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Unknown field")
     })
     public ResponseEntity<List<BookResponseDTO>> searchBooksByTitle(
             @Parameter(description = "Title to search for", required = true)
-            @RequestParam String title) {
+            @RequestParam String title,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
         logger.info("Searching books by title: {}", title);
-        List<BookResponseDTO> books = bookService.searchBooksByTitle(title);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        List<BookResponseDTO> books = bookService.searchBooksByTitle(title, fields);
         return ResponseEntity.ok(books);
     }
 
@@ -180,17 +307,133 @@ public class BookController {
     @Operation(summary = "Search books by author", description = "Searches for books by author (case-insensitive)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Search completed successfully",
-                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class)))
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Unknown field")
     })
     public ResponseEntity<List<BookResponseDTO>> searchBooksByAuthor(
             @Parameter(description = "Author to search for", required = true)
-            @RequestParam String author) {
+            @RequestParam String author,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
         logger.info("Searching books by author: {}", author);
-        List<BookResponseDTO> books = bookService.searchBooksByAuthor(author);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        List<BookResponseDTO> books = bookService.searchBooksByAuthor(author, fields);
+        return ResponseEntity.ok(books);
+    }
+
+    /**
+     * Search books by title prefix.
+     */
+    @GetMapping("/search/title/prefix")
+    @Operation(summary = "Search books by title prefix",
+            description = "Searches for books whose title starts with a prefix (case-insensitive), ordered by title")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed successfully",
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Blank prefix, invalid limit or unknown field")
+    })
+    public ResponseEntity<List<BookResponseDTO>> searchBooksByTitlePrefix(
+            @Parameter(description = "Start of the title", required = true)
+            @RequestParam String prefix,
+            @Parameter(description = "Maximum number of books to return")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        
+        logger.info("Searching books by title prefix: {}", prefix);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        List<BookResponseDTO> books = bookService.searchBooksByTitlePrefix(prefix, limit, fields);
+        return ResponseEntity.ok(books);
+    }
+
+    /**
+     * Search books by author prefix.
+     */
+    @GetMapping("/search/author/prefix")
+    @Operation(summary = "Search books by author prefix",
+            description = "Searches for books whose author starts with a prefix (case-insensitive), ordered by author")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed successfully",
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Blank prefix, invalid limit or unknown field")
+    })
+    public ResponseEntity<List<BookResponseDTO>> searchBooksByAuthorPrefix(
+            @Parameter(description = "Start of the author name", required = true)
+            @RequestParam String prefix,
+            @Parameter(description = "Maximum number of books to return")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        
+        logger.info("Searching books by author prefix: {}", prefix);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        List<BookResponseDTO> books = bookService.searchBooksByAuthorPrefix(prefix, limit, fields);
+        return ResponseEntity.ok(books);
+    }
+
+    /**
+     * Find books matching several criteria at once.
+     */
+    @GetMapping("/query")
+    @Operation(summary = "Query books by combined criteria",
+            description = "Finds books matching all given criteria: title and author substrings (case-insensitive), "
+                    + "ISBN prefix, price range and last-update range, in the requested order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Query completed successfully",
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Unknown field or sort field, or invalid limit")
+    })
+    public ResponseEntity<List<BookResponseDTO>> queryBooks(@ParameterObject BookQueryDTO query, WebRequest webRequest) {
+        
+        logger.info("Querying books: {}", query);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        List<BookResponseDTO> books = bookService.queryBooks(query);
         return ResponseEntity.ok(books);
     }
 
+    /**
+     * Suggest titles and authors for a search box.
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest titles and authors",
+            description = "Completes typed text to titles and author names, most books first. "
+                    + "The text may start at any word: \"gats\" suggests \"The Great Gatsby\"")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions returned successfully",
+                    content = @Content(schema = @Schema(implementation = SuggestionDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @Parameter(description = "Text typed so far", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions to return")
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        
+        logger.debug("Suggesting completions for: {}", q);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok(bookService.suggest(q, limit));
+    }
+
     /**
      * Search books by title or author.
      */
@@ -198,16 +441,114 @@ public class BookController {
     @Operation(summary = "Search books by title or author", description = "Searches for books by title or author (case-insensitive)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Search completed successfully",
-                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class)))
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Unknown field")
     })
     public ResponseEntity<List<BookResponseDTO>> searchBooksByTitleOrAuthor(
             @Parameter(description = "Title to search for")
             @RequestParam(required = false) String title,
             @Parameter(description = "Author to search for")
-            @RequestParam(required = false) String author) {
+            @RequestParam(required = false) String author,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
         logger.info("Searching books by title: {} or author: {}", title, author);
-        List<BookResponseDTO> books = bookService.searchBooksByTitleOrAuthor(title, author);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        List<BookResponseDTO> books = bookService.searchBooksByTitleOrAuthor(title, author, fields);
+        return ResponseEntity.ok(books);
+    }
+
+    /**
+     * Search books by title, tolerating typos.
+     */
+    @GetMapping("/search/title/fuzzy")
+    @Operation(summary = "Fuzzy search books by title",
+            description = "Searches for books whose title contains every query word or a word within a few edits "
+                    + "of it, fewest edits first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed successfully",
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Blank title, invalid limit or unknown field")
+    })
+    public ResponseEntity<List<BookResponseDTO>> searchBooksByTitleFuzzy(
+            @Parameter(description = "Title words to search for, possibly misspelled", required = true)
+            @RequestParam String title,
+            @Parameter(description = "Maximum number of books to return")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        
+        logger.info("Fuzzy searching books by title: {}", title);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        List<BookResponseDTO> books = bookService.searchBooksByTitleFuzzy(title, limit, fields);
+        return ResponseEntity.ok(books);
+    }
+
+    /**
+     * Search books by author, tolerating typos.
+     */
+    @GetMapping("/search/author/fuzzy")
+    @Operation(summary = "Fuzzy search books by author",
+            description = "Searches for books whose author contains every query word or a word within a few edits "
+                    + "of it, fewest edits first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed successfully",
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Blank author, invalid limit or unknown field")
+    })
+    public ResponseEntity<List<BookResponseDTO>> searchBooksByAuthorFuzzy(
+            @Parameter(description = "Author words to search for, possibly misspelled", required = true)
+            @RequestParam String author,
+            @Parameter(description = "Maximum number of books to return")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        
+        logger.info("Fuzzy searching books by author: {}", author);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        List<BookResponseDTO> books = bookService.searchBooksByAuthorFuzzy(author, limit, fields);
+        return ResponseEntity.ok(books);
+    }
+
+    /**
+     * Search books by words in their title or author, ranked by relevance.
+     */
+    @GetMapping("/search/text")
+    @Operation(summary = "Full-text search books by title and author",
+            description = "Searches for books whose title or author contains any of the query words (ignoring case "
+                    + "and accents), ranked by BM25 relevance")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed successfully",
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Blank query, invalid limit or unknown field")
+    })
+    public ResponseEntity<List<BookResponseDTO>> searchBooksFullText(
+            @Parameter(description = "Words to search for", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of books to return")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        
+        logger.info("Full-text search for: {}", q);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        List<BookResponseDTO> books = bookService.searchBooksFullText(q, limit, fields);
         return ResponseEntity.ok(books);
     }
 
@@ -215,37 +556,85 @@ public class BookController {
      * Search books by price range.
      */
     @GetMapping("/search/price-range")
-    @Operation(summary = "Search books by price range", description = "Searches for books within a specified price range")
+    @Operation(summary = "Search books by price range", description = "Searches for books within a specified price range, cheapest first")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Search completed successfully",
-                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class)))
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid offset or limit, or unknown field")
     })
     public ResponseEntity<List<BookResponseDTO>> searchBooksByPriceRange(
             @Parameter(description = "Minimum price", required = true)
             @RequestParam BigDecimal minPrice,
             @Parameter(description = "Maximum price", required = true)
-            @RequestParam BigDecimal maxPrice) {
+            @RequestParam BigDecimal maxPrice,
+            @Parameter(description = "Number of matches to skip")
+            @RequestParam(required = false) Integer offset,
+            @Parameter(description = "Maximum number of books to return")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
         logger.info("Searching books by price range: {} - {}", minPrice, maxPrice);
-        List<BookResponseDTO> books = bookService.searchBooksByPriceRange(minPrice, maxPrice);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        List<BookResponseDTO> books = bookService.searchBooksByPriceRange(minPrice, maxPrice, offset, limit, fields);
         return ResponseEntity.ok(books);
     }
 
+    /**
+     * Count books by price range.
+     */
+    @GetMapping("/search/price-range/count")
+    @Operation(summary = "Count books by price range", description = "Counts the books within a specified price range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Count completed successfully"),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match")
+    })
+    public ResponseEntity<Long> countBooksByPriceRange(
+            @Parameter(description = "Minimum price", required = true)
+            @RequestParam BigDecimal minPrice,
+            @Parameter(description = "Maximum price", required = true)
+            @RequestParam BigDecimal maxPrice,
+            WebRequest webRequest) {
+        
+        logger.info("Counting books by price range: {} - {}", minPrice, maxPrice);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        long count = bookService.countBooksByPriceRange(minPrice, maxPrice);
+        return ResponseEntity.ok(count);
+    }
+
     /**
      * Search books by maximum price.
      */
     @GetMapping("/search/price-max")
-    @Operation(summary = "Search books by maximum price", description = "Searches for books with price less than or equal to the specified price")
+    @Operation(summary = "Search books by maximum price", description = "Searches for books with price less than or equal to the specified price, cheapest first")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Search completed successfully",
-                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class)))
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid offset or limit, or unknown field")
     })
     public ResponseEntity<List<BookResponseDTO>> searchBooksByMaxPrice(
             @Parameter(description = "Maximum price", required = true)
-            @RequestParam BigDecimal maxPrice) {
+            @RequestParam BigDecimal maxPrice,
+            @Parameter(description = "Number of matches to skip")
+            @RequestParam(required = false) Integer offset,
+            @Parameter(description = "Maximum number of books to return")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
         logger.info("Searching books by max price: {}", maxPrice);
-        List<BookResponseDTO> books = bookService.searchBooksByMaxPrice(maxPrice);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        List<BookResponseDTO> books = bookService.searchBooksByMaxPrice(maxPrice, offset, limit, fields);
         return ResponseEntity.ok(books);
     }
 
@@ -253,17 +642,29 @@ public class BookController {
      * Search books by minimum price.
      */
     @GetMapping("/search/price-min")
-    @Operation(summary = "Search books by minimum price", description = "Searches for books with price greater than or equal to the specified price")
+    @Operation(summary = "Search books by minimum price", description = "Searches for books with price greater than or equal to the specified price, cheapest first")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Search completed successfully",
-                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class)))
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid offset or limit, or unknown field")
     })
     public ResponseEntity<List<BookResponseDTO>> searchBooksByMinPrice(
             @Parameter(description = "Minimum price", required = true)
-            @RequestParam BigDecimal minPrice) {
+            @RequestParam BigDecimal minPrice,
+            @Parameter(description = "Number of matches to skip")
+            @RequestParam(required = false) Integer offset,
+            @Parameter(description = "Maximum number of books to return")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
         logger.info("Searching books by min price: {}", minPrice);
-        List<BookResponseDTO> books = bookService.searchBooksByMinPrice(minPrice);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
+        List<BookResponseDTO> books = bookService.searchBooksByMinPrice(minPrice, offset, limit, fields);
         return ResponseEntity.ok(books);
     }
 
@@ -273,13 +674,18 @@ public class BookController {
     @GetMapping("/exists/{isbn}")
     @Operation(summary = "Check if book exists by ISBN", description = "Checks if a book exists in the system by its ISBN")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Check completed successfully")
+            @ApiResponse(responseCode = "200", description = "Check completed successfully"),
+            @ApiResponse(responseCode = "304", description = "Catalog not modified since the ETag in If-None-Match")
     })
     public ResponseEntity<Boolean> bookExistsByIsbn(
             @Parameter(description = "Book ISBN", required = true)
-            @PathVariable String isbn) {
+            @PathVariable String isbn,
+            WebRequest webRequest) {
         
         logger.info("Checking if book exists by ISBN: {}", isbn);
+        if (webRequest.checkNotModified(bookService.getCatalogEtag())) {
+            return null;
+        }
         boolean exists = bookService.bookExistsByIsbn(isbn);
         return ResponseEntity.ok(exists);
     }
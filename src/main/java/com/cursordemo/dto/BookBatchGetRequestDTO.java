@@ -0,0 +1,54 @@
+package com.cursordemo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for fetching many books in one request.
+ * 
+ * Either list may be omitted; together they must name at least one book.
+ */
+@Schema(description = "Keys of the books to fetch in one request")
+public class BookBatchGetRequestDTO {
+
+    @Schema(description = "Book IDs to fetch", example = "[1, 2, 3]")
+    private List<Long> ids;
+
+    @Schema(description = "Book ISBNs to fetch", example = "[\"978-0743273565\"]")
+    private List<String> isbns;
+
+    // Default constructor
+    public BookBatchGetRequestDTO() {}
+
+    // Constructor with all fields
+    public BookBatchGetRequestDTO(List<Long> ids, List<String> isbns) {
+        this.ids = ids;
+        this.isbns = isbns;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getIsbns() {
+        return isbns;
+    }
+
+    public void setIsbns(List<String> isbns) {
+        this.isbns = isbns;
+    }
+
+    @Override
+    public String toString() {
+        return "BookBatchGetRequestDTO{" +
+                "ids=" + ids +
+                ", isbns=" + isbns +
+                '}';
+    }
+}
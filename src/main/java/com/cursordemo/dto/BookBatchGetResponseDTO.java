@@ -0,0 +1,83 @@
+package com.cursordemo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the result of a batch get.
+ * 
+ * {@code byId} and {@code byIsbn} are positional: element i is the book for
+ * the i-th requested key, or null if there is none. The keys that matched no
+ * book are also listed in {@code missingIds} and {@code missingIsbns}.
+ */
+@Schema(description = "Books fetched in one request, in request order")
+public class BookBatchGetResponseDTO {
+
+    @Schema(description = "Book for each requested ID, null where missing")
+    private List<BookResponseDTO> byId;
+
+    @Schema(description = "Book for each requested ISBN, null where missing")
+    private List<BookResponseDTO> byIsbn;
+
+    @Schema(description = "Requested IDs that matched no book")
+    private List<Long> missingIds;
+
+    @Schema(description = "Requested ISBNs that matched no book")
+    private List<String> missingIsbns;
+
+    // Default constructor
+    public BookBatchGetResponseDTO() {}
+
+    // Constructor with all fields
+    public BookBatchGetResponseDTO(List<BookResponseDTO> byId, List<BookResponseDTO> byIsbn,
+                                   List<Long> missingIds, List<String> missingIsbns) {
+        this.byId = byId;
+        this.byIsbn = byIsbn;
+        this.missingIds = missingIds;
+        this.missingIsbns = missingIsbns;
+    }
+
+    // Getters and Setters
+    public List<BookResponseDTO> getById() {
+        return byId;
+    }
+
+    public void setById(List<BookResponseDTO> byId) {
+        this.byId = byId;
+    }
+
+    public List<BookResponseDTO> getByIsbn() {
+        return byIsbn;
+    }
+
+    public void setByIsbn(List<BookResponseDTO> byIsbn) {
+        this.byIsbn = byIsbn;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+
+    public List<String> getMissingIsbns() {
+        return missingIsbns;
+    }
+
+    public void setMissingIsbns(List<String> missingIsbns) {
+        this.missingIsbns = missingIsbns;
+    }
+
+    @Override
+    public String toString() {
+        return "BookBatchGetResponseDTO{" +
+                "byId=" + byId +
+                ", byIsbn=" + byIsbn +
+                ", missingIds=" + missingIds +
+                ", missingIsbns=" + missingIsbns +
+                '}';
+    }
+}
@@ -0,0 +1,96 @@
+package com.cursordemo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Data Transfer Object for the outcome of one item of a bulk create request.
+ * 
+ * Results are returned in the same order as the submitted books; the index
+ * refers to the position of the item in the request.
+ */
+@Schema(description = "Outcome of one book in a bulk create request")
+public class BookBulkResultDTO {
+
+    /**
+     * Outcome of a bulk item.
+     */
+    public enum Status {
+        CREATED,
+        CONFLICT,
+        INVALID
+    }
+
+    @Schema(description = "Position of the book in the request", example = "0")
+    private int index;
+
+    @Schema(description = "Outcome for this book", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "The created book, present when status is CREATED")
+    private BookResponseDTO book;
+
+    @Schema(description = "Reason the book was not created", example = "Book with ISBN 978-0743273565 already exists")
+    private String message;
+
+    // Default constructor
+    public BookBulkResultDTO() {}
+
+    // Constructor with all fields
+    public BookBulkResultDTO(int index, Status status, BookResponseDTO book, String message) {
+        this.index = index;
+        this.status = status;
+        this.book = book;
+        this.message = message;
+    }
+
+    public static BookBulkResultDTO created(int index, BookResponseDTO book) {
+        return new BookBulkResultDTO(index, Status.CREATED, book, null);
+    }
+
+    public static BookBulkResultDTO rejected(int index, Status status, String message) {
+        return new BookBulkResultDTO(index, status, null, message);
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public BookResponseDTO getBook() {
+        return book;
+    }
+
+    public void setBook(BookResponseDTO book) {
+        this.book = book;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "BookBulkResultDTO{" +
+                "index=" + index +
+                ", status=" + status +
+                ", book=" + book +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.cursordemo.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of a keyset-paginated book listing.
+ * 
+ * Holds the books of the page and the cursor to pass as {@code after}
+ * to fetch the next page, or null when this is the last page.
+ */
+public class BookPageDTO {
+
+    private List<BookResponseDTO> books;
+
+    private Long nextCursor;
+
+    // Default constructor
+    public BookPageDTO() {}
+
+    // Constructor with all fields
+    public BookPageDTO(List<BookResponseDTO> books, Long nextCursor) {
+        this.books = books;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<BookResponseDTO> getBooks() {
+        return books;
+    }
+
+    public void setBooks(List<BookResponseDTO> books) {
+        this.books = books;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "BookPageDTO{" +
+                "books=" + books +
+                ", nextCursor=" + nextCursor +
+                '}';
+    }
+}
@@ -0,0 +1,178 @@
+package com.cursordemo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Data Transfer Object for a combined book query.
+ * 
+ * Every criterion is optional and all given criteria must match. Ranges are
+ * inclusive at both ends and may be open at either.
+ */
+@Schema(description = "Criteria, order, size and fields of a combined book query")
+public class BookQueryDTO {
+
+    @Schema(description = "Substring of the title, ignoring case", example = "gatsby")
+    private String title;
+
+    @Schema(description = "Substring of the author, ignoring case", example = "fitzgerald")
+    private String author;
+
+    @Schema(description = "Start of the ISBN", example = "978-07")
+    private String isbnPrefix;
+
+    @Schema(description = "Minimum price (inclusive)", example = "10.00")
+    private BigDecimal minPrice;
+
+    @Schema(description = "Maximum price (inclusive)", example = "30.00")
+    private BigDecimal maxPrice;
+
+    @Schema(description = "Earliest last update (inclusive)", example = "2024-01-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime minUpdatedAt;
+
+    @Schema(description = "Latest last update (inclusive)", example = "2024-12-31T23:59:59")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime maxUpdatedAt;
+
+    @Schema(description = "Comma-separated sort fields among id, title, author, isbn, price, createdAt and "
+            + "updatedAt, each descending when prefixed with '-'", example = "-price,title")
+    private String sort;
+
+    @Schema(description = "Maximum number of books to return", example = "20")
+    private Integer limit;
+
+    @Schema(description = "Comma-separated fields to return, all fields when absent", example = "id,title,price")
+    private String fields;
+
+    // Default constructor
+    public BookQueryDTO() {}
+
+    // Getters and Setters
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public String getIsbnPrefix() {
+        return isbnPrefix;
+    }
+
+    public void setIsbnPrefix(String isbnPrefix) {
+        this.isbnPrefix = isbnPrefix;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public LocalDateTime getMinUpdatedAt() {
+        return minUpdatedAt;
+    }
+
+    public void setMinUpdatedAt(LocalDateTime minUpdatedAt) {
+        this.minUpdatedAt = minUpdatedAt;
+    }
+
+    public LocalDateTime getMaxUpdatedAt() {
+        return maxUpdatedAt;
+    }
+
+    public void setMaxUpdatedAt(LocalDateTime maxUpdatedAt) {
+        this.maxUpdatedAt = maxUpdatedAt;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public String getFields() {
+        return fields;
+    }
+
+    public void setFields(String fields) {
+        this.fields = fields;
+    }
+
+    // Compared by value so identical concurrent queries can be coalesced
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BookQueryDTO other)) {
+            return false;
+        }
+        return Objects.equals(title, other.title)
+                && Objects.equals(author, other.author)
+                && Objects.equals(isbnPrefix, other.isbnPrefix)
+                && Objects.equals(minPrice, other.minPrice)
+                && Objects.equals(maxPrice, other.maxPrice)
+                && Objects.equals(minUpdatedAt, other.minUpdatedAt)
+                && Objects.equals(maxUpdatedAt, other.maxUpdatedAt)
+                && Objects.equals(sort, other.sort)
+                && Objects.equals(limit, other.limit)
+                && Objects.equals(fields, other.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(title, author, isbnPrefix, minPrice, maxPrice, minUpdatedAt, maxUpdatedAt, sort, limit,
+                fields);
+    }
+
+    @Override
+    public String toString() {
+        return "BookQueryDTO{" +
+                "title='" + title + '\'' +
+                ", author='" + author + '\'' +
+                ", isbnPrefix='" + isbnPrefix + '\'' +
+                ", minPrice=" + minPrice +
+                ", maxPrice=" + maxPrice +
+                ", minUpdatedAt=" + minUpdatedAt +
+                ", maxUpdatedAt=" + maxUpdatedAt +
+                ", sort='" + sort + '\'' +
+                ", limit=" + limit +
+                ", fields='" + fields + '\'' +
+                '}';
+    }
+}
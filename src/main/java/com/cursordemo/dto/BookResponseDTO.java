@@ -49,6 +49,17 @@ public class BookResponseDTO {
         this.updatedAt = updatedAt;
     }
 
+    // Copy constructor
+    public BookResponseDTO(BookResponseDTO other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.author = other.author;
+        this.isbn = other.isbn;
+        this.price = other.price;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,60 @@
+package com.cursordemo.dto;
+
+/**
+ * Data Transfer Object for one autocomplete suggestion.
+ * 
+ * Holds a title or author name that completes the typed text, which field it
+ * comes from, and its weight: the number of books with that title or author.
+ */
+public class SuggestionDTO {
+
+    private String text;
+
+    private String field;
+
+    private int weight;
+
+    // Default constructor
+    public SuggestionDTO() {}
+
+    // Constructor with all fields
+    public SuggestionDTO(String text, String field, int weight) {
+        this.text = text;
+        this.field = field;
+        this.weight = weight;
+    }
+
+    // Getters and Setters
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public void setField(String field) {
+        this.field = field;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    @Override
+    public String toString() {
+        return "SuggestionDTO{" +
+                "text='" + text + '\'' +
+                ", field='" + field + '\'' +
+                ", weight=" + weight +
+                '}';
+    }
+}
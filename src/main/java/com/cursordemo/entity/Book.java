@@ -2,6 +2,10 @@ package com.cursordemo.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -10,13 +14,40 @@ import java.time.LocalDateTime;
  * 
  * This entity contains all the necessary information about a book including
  * title, author, ISBN, and price with proper validation constraints.
+ * 
+ * Books and their ISBN natural-id resolutions are kept in the second-level
+ * cache; Hibernate updates or evicts both when a book is changed or deleted.
+ * 
+ * The database keeps lowercase copies of title and author in indexed
+ * generated columns, so case-insensitive searches compare against an index
+ * instead of applying LOWER() to every row. Price and last update are
+ * indexed for the range filters of combined queries.
  */
 @Entity
-@Table(name = "books")
-public class Book {
-
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_title_lower", columnList = "title_lower"),
+        @Index(name = "idx_books_author_lower", columnList = "author_lower"),
+        @Index(name = "idx_books_price", columnList = "price"),
+        @Index(name = "idx_books_updated_at", columnList = "updated_at")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CACHE_REGION)
+@NaturalIdCache(region = Book.ISBN_CACHE_REGION)
+public class Book implements BookView {
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    public static final String CACHE_REGION = "books";
+
+    public static final String ISBN_CACHE_REGION = "books-by-isbn";
+
+    /**
+     * Sequence-generated with a pooled optimizer, so inserts can be JDBC-batched
+     * and one sequence call covers {@link #ID_ALLOCATION_SIZE} new books.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = Book.ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Title is required")
@@ -29,9 +60,26 @@ public class Book {
     @Column(name = "author", nullable = false)
     private String author;
 
+    /**
+     * Lowercase title, computed and stored by the database. Mapped only so
+     * that queries can refer to it; the field is never written and is not
+     * refreshed after an insert or update, so it has no getter.
+     */
+    @Column(name = "title_lower", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (LOWER(title))")
+    private String titleLower;
+
+    /**
+     * Lowercase author, computed and stored by the database; see {@link #titleLower}.
+     */
+    @Column(name = "author_lower", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (LOWER(author))")
+    private String authorLower;
+
     @NotBlank(message = "ISBN is required")
     @Pattern(regexp = "^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:[0-9]+[- ]){3})[- 0-9X]{13}$|97[89][0-9]{10}$|(?=(?:[0-9]+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?[0-9]{1,5}[- ]?[0-9]+[- ]?[0-9]+[- ]?[0-9X]$", 
              message = "Invalid ISBN format")
+    @NaturalId(mutable = true)
     @Column(name = "isbn", nullable = false, unique = true)
     private String isbn;
 
@@ -47,10 +95,20 @@ public class Book {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
-    // Default constructor
+    /**
+     * Incremented on every update and checked by the update and delete
+     * statements, so concurrent changes to a book cannot both commit and
+     * listeners can order the changes of a book by it. Rows inserted by SQL
+     * start at the column default.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
+    // Default constructor. Timestamps are set when the book is first persisted,
+    // so books loaded by Hibernate or copied from memory do not create two
+    // LocalDateTimes that are overwritten right away.
     public Book() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
     }
 
     // Constructor with required fields
@@ -123,6 +181,25 @@ public class Book {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        LocalDateTime now = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        if (updatedAt == null) {
+            updatedAt = now;
+        }
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -0,0 +1,35 @@
+package com.cursordemo.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only access to the fields of a book.
+ * 
+ * Implemented by the {@link Book} entity and by the column projections of
+ * {@link com.cursordemo.repository.BookRepositoryCustom}, which read only
+ * some columns and return null for the others, so a check or an order written
+ * against this interface works on either.
+ */
+public interface BookView {
+
+    /**
+     * Names of the fields a projection can select, as entity attribute names.
+     */
+    List<String> FIELDS = List.of("id", "title", "author", "isbn", "price", "createdAt", "updatedAt");
+
+    Long getId();
+
+    String getTitle();
+
+    String getAuthor();
+
+    String getIsbn();
+
+    BigDecimal getPrice();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,90 @@
+package com.cursordemo.event;
+
+import com.cursordemo.entity.Book;
+
+/**
+ * Application event published by the service layer whenever a book is
+ * created, updated or deleted.
+ * 
+ * Listeners that keep derived state (indexes, caches) should consume it
+ * after the surrounding transaction commits, so they never observe a
+ * change that is later rolled back. Listeners of concurrent transactions
+ * may run in any order, so the event carries the version of the book:
+ * a change with a lower version than one already applied is stale.
+ */
+public class BookChangedEvent {
+
+    /**
+     * Kind of change that happened to the book.
+     */
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long bookId;
+    private final Book book;
+    private final long deletedVersion;
+
+    private BookChangedEvent(Type type, Long bookId, Book book, long deletedVersion) {
+        this.type = type;
+        this.bookId = bookId;
+        this.book = book;
+        this.deletedVersion = deletedVersion;
+    }
+
+    /**
+     * Create an event for a book that was created or updated.
+     * 
+     * @param book the book as it was saved
+     * @return the event
+     */
+    public static BookChangedEvent saved(Book book) {
+        return new BookChangedEvent(Type.SAVED, book.getId(), book, 0);
+    }
+
+    /**
+     * Create an event for a book that was deleted.
+     * 
+     * @param bookId the ID of the deleted book
+     * @param version the version the book had when it was deleted
+     * @return the event
+     */
+    public static BookChangedEvent deleted(Long bookId, long version) {
+        return new BookChangedEvent(Type.DELETED, bookId, null, version);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    /**
+     * The saved book, or null for {@link Type#DELETED} events.
+     */
+    public Book getBook() {
+        return book;
+    }
+
+    /**
+     * The version of the saved book, or of the book when it was deleted.
+     * A saved book's version is read when this is called: Hibernate increments
+     * it when the update is flushed, which may be after the event was published.
+     */
+    public long getVersion() {
+        return book != null ? book.getVersion() : deletedVersion;
+    }
+
+    @Override
+    public String toString() {
+        return "BookChangedEvent{" +
+                "type=" + type +
+                ", bookId=" + bookId +
+                ", version=" + getVersion() +
+                '}';
+    }
+}
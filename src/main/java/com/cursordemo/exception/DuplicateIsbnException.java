@@ -0,0 +1,20 @@
+package com.cursordemo.exception;
+
+/**
+ * Exception thrown when a book would get an ISBN that another book already has.
+ * 
+ * Extends IllegalArgumentException so it is still reported as a bad request,
+ * while letting callers and metrics tell conflicts apart from other
+ * invalid arguments.
+ */
+public class DuplicateIsbnException extends IllegalArgumentException {
+
+    /**
+     * Constructs a new DuplicateIsbnException for the given ISBN.
+     * 
+     * @param isbn the ISBN that is already taken
+     */
+    public DuplicateIsbnException(String isbn) {
+        super("Book with ISBN " + isbn + " already exists");
+    }
+}
@@ -0,0 +1,80 @@
+package com.cursordemo.index;
+
+import com.cursordemo.entity.Book;
+
+import java.util.Map;
+
+/**
+ * In-memory index derived from the books table.
+ * 
+ * Implementations are kept in sync by {@link BookIndexManager}, which fills
+ * them at startup, applies every committed change and rebuilds them on demand.
+ * All methods must be safe to call from multiple threads.
+ */
+public interface BookIndex {
+
+    /**
+     * Short name used in logs, metrics and the actuator endpoint.
+     */
+    String getName();
+
+    /**
+     * Whether the index has been fully loaded and can answer queries.
+     * Callers must fall back to the database while this is false.
+     */
+    boolean isReady();
+
+    /**
+     * Add or replace the entry for a book.
+     * 
+     * @param book the saved book
+     */
+    void index(Book book);
+
+    /**
+     * Remove the entry for a book, if the index supports removal.
+     * 
+     * @param bookId the ID of the deleted book
+     */
+    void remove(Long bookId);
+
+    /**
+     * Start building a fresh copy of the index. The live index keeps serving
+     * queries until {@link Loader#publish()} swaps the new copy in.
+     * 
+     * @param expectedBooks number of books about to be loaded, used for sizing
+     * @return the loader to feed every book into
+     */
+    Loader beginRebuild(long expectedBooks);
+
+    /**
+     * Current statistics, exposed through the actuator endpoint.
+     */
+    Map<String, Object> getStats();
+
+    /**
+     * Receives the books of a rebuild and publishes the result.
+     */
+    interface Loader {
+
+        /**
+         * Add one book to the index being built.
+         */
+        void add(Book book);
+
+        /**
+         * Finish the index being built, once every book has been added.
+         * Called before {@link #publish()} and outside the lock that holds
+         * back concurrent changes, so expensive work such as sorting belongs
+         * here rather than in {@link #publish()}.
+         */
+        default void prepare() {
+        }
+
+        /**
+         * Replace the live index with the one built so far. Should only swap
+         * references, since concurrent changes wait for it.
+         */
+        void publish();
+    }
+}
@@ -0,0 +1,37 @@
+package com.cursordemo.index;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the in-memory book indexes.
+ * 
+ * {@code GET /actuator/bookindexes} reports the statistics of every index and
+ * {@code POST /actuator/bookindexes} rebuilds them from the database.
+ */
+@Component
+@Endpoint(id = "bookindexes")
+public class BookIndexEndpoint {
+
+    private final BookIndexManager bookIndexManager;
+
+    @Autowired
+    public BookIndexEndpoint(BookIndexManager bookIndexManager) {
+        this.bookIndexManager = bookIndexManager;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> stats() {
+        return bookIndexManager.getStats();
+    }
+
+    @WriteOperation
+    public Map<String, Map<String, Object>> rebuild() {
+        return bookIndexManager.rebuild();
+    }
+}
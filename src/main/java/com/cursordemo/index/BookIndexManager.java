@@ -0,0 +1,250 @@
+package com.cursordemo.index;
+
+import com.cursordemo.config.BookProperties;
+import com.cursordemo.entity.Book;
+import com.cursordemo.event.BookChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps every {@link BookIndex} in sync with the books table.
+ * 
+ * Indexes are loaded when the application is ready, receive each committed
+ * {@link BookChangedEvent}, and can be rebuilt on demand. Changes that commit
+ * while a rebuild is streaming the table are journaled and replayed on the
+ * fresh indexes, so a rebuild never loses a concurrent write.
+ * 
+ * After-commit listeners of concurrent transactions may run in any order, so
+ * the version of the last change applied to each book is kept, and a change
+ * that is not newer is dropped. Deletes stay recorded as tombstones, so a late
+ * save cannot bring a deleted book back.
+ * 
+ * Rebuilds read the table over plain JDBC into detached books: the indexes
+ * need no managed entities, and skipping Hibernate makes loading a large
+ * catalog many times faster.
+ */
+@Component
+public class BookIndexManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookIndexManager.class);
+
+    private static final String SELECT_BOOKS =
+            "SELECT id, title, author, isbn, price, created_at, updated_at, version FROM books ORDER BY id";
+
+    private final List<BookIndex> indexes;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final ReentrantLock applyLock = new ReentrantLock();
+    /**
+     * Changes received while a rebuild is loading, or null; guarded by {@link #applyLock}.
+     */
+    private List<BookChangedEvent> journal;
+    /**
+     * Last change applied per book ID, as {@link #orderOf(BookChangedEvent)}; guarded by {@link #applyLock}.
+     */
+    private LongLongHashMap applied = new LongLongHashMap(1024);
+
+    @Autowired
+    public BookIndexManager(List<BookIndex> indexes, DataSource dataSource, BookProperties bookProperties) {
+        this.indexes = indexes;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(bookProperties.getExport().getBatchSize());
+    }
+
+    /**
+     * Load all indexes once the sample data has been initialized.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Apply a committed change to every index.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        applyLock.lock();
+        try {
+            if (journal != null) {
+                journal.add(event);
+            }
+            apply(event);
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild all indexes from the books table in a single pass.
+     * If a rebuild is already running, waits for it and rebuilds again.
+     * 
+     * Changes committed while the table is read are journaled and replayed
+     * once the fresh indexes are published. Publishing, replaying and closing
+     * the journal happen under the lock that applies changes, so no change can
+     * slip in between, and the replay drops every change that is not newer
+     * than the row version the rebuild already loaded.
+     * 
+     * @return statistics of every index after the rebuild
+     */
+    public Map<String, Map<String, Object>> rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            applyLock.lock();
+            try {
+                journal = new ArrayList<>();
+            } finally {
+                applyLock.unlock();
+            }
+
+            Loaded loaded;
+            try {
+                loaded = load();
+            } catch (RuntimeException ex) {
+                logger.error("Rebuilding book indexes failed, keeping the previous indexes", ex);
+                loaded = null;
+            }
+
+            List<BookChangedEvent> pending;
+            applyLock.lock();
+            try {
+                if (loaded != null) {
+                    loaded.loaders().forEach(BookIndex.Loader::publish);
+                    // Keep the tombstones of deleted books so late saves stay dropped
+                    LongLongHashMap versions = loaded.versions();
+                    applied.forEach((id, order) -> {
+                        if ((order & 1) == 1 && !versions.containsKey(id)) {
+                            versions.put(id, order);
+                        }
+                    });
+                    applied = versions;
+                }
+                pending = journal;
+                journal = null;
+                pending.forEach(this::apply);
+            } finally {
+                applyLock.unlock();
+            }
+
+            if (loaded != null) {
+                logger.info("Rebuilt {} book indexes from {} books in {} ms ({} changes replayed)",
+                        indexes.size(), loaded.books(), (System.nanoTime() - started) / 1_000_000,
+                        pending.size());
+            }
+            return getStats();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Statistics of every index, keyed by index name.
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (BookIndex index : indexes) {
+            stats.put(index.getName(), index.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Fill a fresh copy of every index from the books table without publishing it.
+     */
+    private Loaded load() {
+        Long expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books", Long.class);
+        long expectedBooks = expected != null ? expected : 0;
+        List<BookIndex.Loader> loaders = new ArrayList<>(indexes.size());
+        for (BookIndex index : indexes) {
+            loaders.add(index.beginRebuild(expectedBooks));
+        }
+
+        LongLongHashMap versions = new LongLongHashMap((int) Math.min(expectedBooks, Integer.MAX_VALUE));
+        jdbcTemplate.query(SELECT_BOOKS, resultSet -> {
+            Book book = toBook(resultSet);
+            for (BookIndex.Loader loader : loaders) {
+                loader.add(book);
+            }
+            versions.put(book.getId(), book.getVersion() * 2);
+        });
+
+        loaders.forEach(BookIndex.Loader::prepare);
+        return new Loaded(loaders, versions, versions.size());
+    }
+
+    /**
+     * Indexes loaded by a rebuild, with the row version of every loaded book.
+     */
+    private record Loaded(List<BookIndex.Loader> loaders, LongLongHashMap versions, long books) {
+    }
+
+    private static Book toBook(ResultSet resultSet) throws SQLException {
+        Book book = new Book(resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
+                resultSet.getBigDecimal(5));
+        book.setId(resultSet.getLong(1));
+        book.setCreatedAt(resultSet.getTimestamp(6).toLocalDateTime());
+        book.setUpdatedAt(resultSet.getTimestamp(7).toLocalDateTime());
+        book.setVersion(resultSet.getLong(8));
+        return book;
+    }
+
+    /**
+     * Apply a change to every index unless a change at least as new has
+     * already been applied to the book. Checking and applying under one lock
+     * keeps a stale change from slipping in between.
+     */
+    private void apply(BookChangedEvent event) {
+        applyLock.lock();
+        try {
+            long order = orderOf(event);
+            if (order <= applied.get(event.getBookId(), -1)) {
+                logger.debug("Dropping stale {}", event);
+                return;
+            }
+            applied.put(event.getBookId(), order);
+            applyToIndexes(event);
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    /**
+     * Position of a change in the history of its book: by version, with a
+     * delete after the save of the same version.
+     */
+    private static long orderOf(BookChangedEvent event) {
+        return event.getVersion() * 2 + (event.getType() == BookChangedEvent.Type.DELETED ? 1 : 0);
+    }
+
+    private void applyToIndexes(BookChangedEvent event) {
+        for (BookIndex index : indexes) {
+            try {
+                if (event.getType() == BookChangedEvent.Type.SAVED) {
+                    index.index(event.getBook());
+                } else {
+                    index.remove(event.getBookId());
+                }
+            } catch (RuntimeException ex) {
+                logger.error("Failed to apply {} to index {}", event, index.getName(), ex);
+            }
+        }
+    }
+}
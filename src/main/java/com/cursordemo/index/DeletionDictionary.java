@@ -0,0 +1,165 @@
+package com.cursordemo.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the terms within a small edit distance of a word without comparing
+ * the word to every term (symmetric delete spelling correction, as in SymSpell).
+ * 
+ * Every term is stored under each string obtained by deleting up to
+ * {@code maxDistance} of its characters. Two words within that distance
+ * share such a string, since each edit can be undone by deleting one
+ * character from one side or the other, so a lookup only generates the
+ * deletions of the word, collects the terms stored under them and checks
+ * their true distance. The cost depends on the length of the word, not on
+ * the number of terms.
+ * 
+ * Distances count insertions, deletions, substitutions and transpositions
+ * of adjacent characters, so "tolkein" is one edit from "tolkien".
+ * Terms containing digits are not stored, since a typo in a number is a
+ * different number. Not thread-safe.
+ */
+final class DeletionDictionary {
+
+    private final int maxDistance;
+    private final Map<String, List<String>> termsByDeletion = new HashMap<>();
+
+    DeletionDictionary(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * Whether a word can have terms other than itself within an edit distance.
+     */
+    static boolean isFuzzy(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.isDigit(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void add(String term) {
+        if (!isFuzzy(term)) {
+            return;
+        }
+        for (String deletion : deletions(term, maxDistance)) {
+            termsByDeletion.computeIfAbsent(deletion, key -> new ArrayList<>(1)).add(term);
+        }
+    }
+
+    void remove(String term) {
+        if (!isFuzzy(term)) {
+            return;
+        }
+        for (String deletion : deletions(term, maxDistance)) {
+            List<String> terms = termsByDeletion.get(deletion);
+            if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                termsByDeletion.remove(deletion);
+            }
+        }
+    }
+
+    int size() {
+        return termsByDeletion.size();
+    }
+
+    /**
+     * Find the stored terms within an edit distance of a word.
+     * 
+     * @param word the word to look up
+     * @param distance the largest edit distance, capped at the dictionary's maximum
+     * @return the matching terms with their distance from the word, in no particular order
+     */
+    Map<String, Integer> lookup(String word, int distance) {
+        int limit = Math.min(distance, maxDistance);
+        Map<String, Integer> matches = new LinkedHashMap<>();
+        Set<String> checked = new HashSet<>();
+        for (String deletion : deletions(word, limit)) {
+            List<String> terms = termsByDeletion.get(deletion);
+            if (terms == null) {
+                continue;
+            }
+            for (String term : terms) {
+                if (checked.add(term)) {
+                    int termDistance = distance(word, term, limit);
+                    if (termDistance <= limit) {
+                        matches.put(term, termDistance);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * The word and every non-empty string made by deleting up to
+     * {@code count} of its characters.
+     */
+    private static Set<String> deletions(String word, int count) {
+        Set<String> deletions = new HashSet<>();
+        deletions.add(word);
+        List<String> level = List.of(word);
+        for (int deleted = 0; deleted < count; deleted++) {
+            List<String> next = new ArrayList<>();
+            for (String text : level) {
+                if (text.length() <= 1) {
+                    continue;
+                }
+                for (int i = 0; i < text.length(); i++) {
+                    String deletion = text.substring(0, i) + text.substring(i + 1);
+                    if (deletions.add(deletion)) {
+                        next.add(deletion);
+                    }
+                }
+            }
+            level = next;
+        }
+        return deletions;
+    }
+
+    /**
+     * Edit distance of two strings counting adjacent transpositions as one
+     * edit (optimal string alignment), or {@code limit + 1} if it exceeds
+     * the limit.
+     */
+    static int distance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+            if (rowMinimum > limit) {
+                return limit + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+}
@@ -0,0 +1,702 @@
+package com.cursordemo.index;
+
+import com.cursordemo.config.BookProperties;
+import com.cursordemo.entity.Book;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over book titles and authors, ranked with BM25.
+ * 
+ * Titles and authors are split into terms by {@link TextAnalyzer}. Each term
+ * maps to a list of the books containing it, sorted by ID, and every posting
+ * packs the term's frequency in the title and the author together with the
+ * length of both fields into one int. A query scores the books containing
+ * any of its terms with BM25F: the frequencies of a term in both fields are
+ * length-normalized, weighted (a title match counts {@value #TITLE_WEIGHT}
+ * times an author match), summed and then saturated, so a rare term in a
+ * short title ranks highest.
+ * 
+ * Posting lists of the query terms are merged by book ID, scoring one book at
+ * a time, and only the best K books are kept in a bounded heap; the matches
+ * are never collected or sorted as a whole. Every list knows the most one of
+ * its postings can add to a score, so once the heap is full, lists of common
+ * terms that cannot lift a book above the K-th best are no longer walked, only
+ * looked up for the books found in the other lists (MaxScore). A query mixing
+ * a word every title contains with a rare one costs about as much as the rare
+ * word alone.
+ * 
+ * Fuzzy searches find the terms within a few edits of each query word in a
+ * {@link DeletionDictionary} of all terms, then intersect their posting
+ * lists, so a misspelled name is found without scanning the catalog. The
+ * number of terms a word expands to and the time spent matching are capped
+ * (see {@link BookProperties.Fuzzy}); a search that runs out of time returns
+ * the matches found so far, closest first.
+ * 
+ * Search methods return null while the index is loading so callers fall back
+ * to the database. They do the same while a book whose ID does not fit in an
+ * int posting is left out of the index.
+ */
+@Component
+public class FullTextIndex implements BookIndex {
+
+    /** Term frequency saturation: how quickly repeated terms stop adding score. */
+    private static final double K1 = 1.2;
+
+    /** Strength of field length normalization, from 0 (none) to 1 (full). */
+    private static final double B = 0.75;
+
+    private static final double TITLE_WEIGHT = 2.0;
+
+    private static final double AUTHOR_WEIGHT = 1.0;
+
+    /** Frequencies and lengths are stored in 8 bits each and saturate at this value. */
+    private static final int MAX_COUNT = 0xFF;
+
+    private final BookProperties.Fuzzy settings;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong fuzzySearchesTruncated = new AtomicLong();
+
+    private volatile Postings postings;
+    private volatile boolean ready;
+
+    @Autowired
+    public FullTextIndex(BookProperties bookProperties) {
+        this.settings = bookProperties.getFuzzy();
+        this.postings = new Postings(settings.getMaxDistance());
+    }
+
+    @Override
+    public String getName() {
+        return "fulltext";
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Find the books most relevant to the query across title and author.
+     * 
+     * @param query free text; books containing any of its terms match
+     * @param limit maximum number of book IDs to return
+     * @return matching book IDs, most relevant first, or null if the index cannot answer
+     */
+    public List<Long> search(String query, int limit) {
+        if (!ready) {
+            return null;
+        }
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.tokens(query));
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            return postings.unindexed.isEmpty() ? postings.search(terms, limit) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the books whose title or author contains every query word, or a
+     * word within a few edits of it.
+     * 
+     * Words of up to two characters or containing digits must match exactly,
+     * words of up to five characters may be one edit away and longer words
+     * two, up to the configured maximum distance.
+     * 
+     * @param query the words to search for, possibly misspelled
+     * @param field the field the words must occur in
+     * @param limit maximum number of book IDs to return
+     * @return matching book IDs, fewest edits first and then by ID, or null if the index cannot answer
+     */
+    public List<Long> searchFuzzy(String query, SuggestionIndex.Field field, int limit) {
+        if (!ready) {
+            return null;
+        }
+        Set<String> words = new LinkedHashSet<>(TextAnalyzer.tokens(query));
+        if (words.isEmpty() || limit < 1) {
+            return new ArrayList<>();
+        }
+        long deadline = System.nanoTime() + settings.getTimeBudget().toNanos();
+        lock.readLock().lock();
+        try {
+            Postings current = postings;
+            if (!current.unindexed.isEmpty()) {
+                return null;
+            }
+            List<Expansion[]> expansions = new ArrayList<>(words.size());
+            for (String word : words) {
+                Expansion[] matches = current.expand(word, allowedDistance(word), field, settings.getMaxExpansions());
+                if (matches.length == 0) {
+                    return new ArrayList<>();
+                }
+                expansions.add(matches);
+            }
+            return current.searchFuzzy(expansions, field, limit, deadline);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Check whether a text contains every query word, or a word within the
+     * edits {@link #searchFuzzy} allows, so books loaded for its hits can be
+     * checked again.
+     * 
+     * @param query the words searched for, possibly misspelled
+     * @param text the title or author of a book
+     * @return whether the text still matches the query
+     */
+    public boolean matchesFuzzy(String query, String text) {
+        List<String> words = TextAnalyzer.tokens(text);
+        for (String queryWord : new LinkedHashSet<>(TextAnalyzer.tokens(query))) {
+            int distance = allowedDistance(queryWord);
+            boolean found = false;
+            for (String word : words) {
+                if (DeletionDictionary.distance(queryWord, word, distance) <= distance) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            postings.put(book.getId(), book.getTitle(), book.getAuthor());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            postings.remove(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Loader beginRebuild(long expectedBooks) {
+        Postings fresh = new Postings(settings.getMaxDistance());
+        return new Loader() {
+            @Override
+            public void add(Book book) {
+                fresh.put(book.getId(), book.getTitle(), book.getAuthor());
+            }
+
+            @Override
+            public void publish() {
+                lock.writeLock().lock();
+                try {
+                    postings = fresh;
+                    ready = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Postings current = postings;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", ready);
+            stats.put("documents", current.documents.size());
+            stats.put("terms", current.terms.size());
+            stats.put("postings", current.postingCount());
+            stats.put("averageTitleLength", current.averageTitleLength());
+            stats.put("averageAuthorLength", current.averageAuthorLength());
+            stats.put("fuzzyDeletions", current.dictionary.size());
+            stats.put("fuzzySearchesTruncated", fuzzySearchesTruncated.get());
+            stats.put("unindexedBooks", current.unindexed.size());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of edits a query word may be away from the terms it matches.
+     */
+    private int allowedDistance(String word) {
+        if (word.length() <= 2 || !DeletionDictionary.isFuzzy(word)) {
+            return 0;
+        }
+        return Math.min(word.length() <= 5 ? 1 : 2, settings.getMaxDistance());
+    }
+
+    private static boolean inField(int stats, SuggestionIndex.Field field) {
+        return (field == SuggestionIndex.Field.TITLE ? stats >>> 24 : (stats >>> 16) & MAX_COUNT) > 0;
+    }
+
+    private static int pack(int titleFrequency, int authorFrequency, int titleLength, int authorLength) {
+        return Math.min(titleFrequency, MAX_COUNT) << 24 | Math.min(authorFrequency, MAX_COUNT) << 16
+                | Math.min(titleLength, MAX_COUNT) << 8 | Math.min(authorLength, MAX_COUNT);
+    }
+
+    /**
+     * Posting lists, indexed documents, field length totals and the fuzzy
+     * term dictionary that are swapped together on rebuild.
+     */
+    private final class Postings {
+
+        final Map<String, PostingList> terms = new HashMap<>();
+        final DeletionDictionary dictionary;
+        /** Indexed title and author of every book, to find its postings again on removal. */
+        final Map<Integer, String[]> documents = new HashMap<>();
+        /** IDs of books left out because they do not fit in an int posting. */
+        final Set<Long> unindexed = new HashSet<>();
+        long titleLengthSum;
+        long authorLengthSum;
+
+        Postings(int maxDistance) {
+            dictionary = new DeletionDictionary(maxDistance);
+        }
+
+        void put(long bookId, String title, String author) {
+            if (bookId != (int) bookId) {
+                unindexed.add(bookId);
+                return;
+            }
+            int id = (int) bookId;
+            String[] previous = documents.put(id, new String[]{title, author});
+            if (previous != null) {
+                removeTerms(id, previous);
+            }
+            List<String> titleTerms = TextAnalyzer.tokens(title);
+            List<String> authorTerms = TextAnalyzer.tokens(author);
+            Map<String, int[]> frequencies = new LinkedHashMap<>();
+            for (String term : titleTerms) {
+                frequencies.computeIfAbsent(term, key -> new int[2])[0]++;
+            }
+            for (String term : authorTerms) {
+                frequencies.computeIfAbsent(term, key -> new int[2])[1]++;
+            }
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                int[] frequency = entry.getValue();
+                terms.computeIfAbsent(entry.getKey(), this::newPostingList)
+                        .put(id, pack(frequency[0], frequency[1], titleTerms.size(), authorTerms.size()));
+            }
+            titleLengthSum += titleTerms.size();
+            authorLengthSum += authorTerms.size();
+        }
+
+        void remove(long bookId) {
+            if (bookId != (int) bookId) {
+                unindexed.remove(bookId);
+                return;
+            }
+            int id = (int) bookId;
+            String[] previous = documents.remove(id);
+            if (previous != null) {
+                removeTerms(id, previous);
+            }
+        }
+
+        List<Long> search(Set<String> queryTerms, int limit) {
+            double averageTitleLength = Math.max(averageTitleLength(), 1);
+            double averageAuthorLength = Math.max(averageAuthorLength(), 1);
+            List<Cursor> found = new ArrayList<>(queryTerms.size());
+            for (String term : queryTerms) {
+                PostingList list = terms.get(term);
+                if (list != null) {
+                    double idf = Math.log(1 + (documents.size() - list.size + 0.5) / (list.size + 0.5));
+                    found.add(new Cursor(list, idf,
+                            idf * saturate(list.bound, averageTitleLength, averageAuthorLength)));
+                }
+            }
+            if (found.isEmpty() || limit < 1) {
+                return new ArrayList<>();
+            }
+
+            // Lists with the smallest contribution first, each with the most
+            // that it and all lists before it can add to a score
+            Cursor[] cursors = found.toArray(new Cursor[0]);
+            Arrays.sort(cursors, Comparator.comparingDouble(cursor -> cursor.maxScore));
+            double[] maxScores = new double[cursors.length];
+            double sum = 0;
+            for (int i = 0; i < cursors.length; i++) {
+                sum += cursors[i].maxScore;
+                maxScores[i] = sum;
+            }
+
+            // Lowest-ranked of the best books found so far at the head. Once it
+            // is full, a book must beat the threshold to get in, and books only
+            // found in lists before the first essential one cannot.
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1);
+            double threshold = Double.NEGATIVE_INFINITY;
+            int essential = 0;
+            while (true) {
+                int id = Integer.MAX_VALUE;
+                for (int i = essential; i < cursors.length; i++) {
+                    id = Math.min(id, cursors[i].id());
+                }
+                if (id == Integer.MAX_VALUE) {
+                    break;
+                }
+                double score = 0;
+                for (int i = essential; i < cursors.length; i++) {
+                    if (cursors[i].id() == id) {
+                        score += cursors[i].score(averageTitleLength, averageAuthorLength);
+                        cursors[i].position++;
+                    }
+                }
+                for (int i = essential - 1; i >= 0 && score + maxScores[i] > threshold; i--) {
+                    if (cursors[i].advanceTo(id)) {
+                        score += cursors[i].score(averageTitleLength, averageAuthorLength);
+                    }
+                }
+                if (score > threshold) {
+                    best.add(new Hit(id, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                    if (best.size() == limit) {
+                        threshold = best.peek().score;
+                        while (essential < cursors.length && maxScores[essential] <= threshold) {
+                            essential++;
+                        }
+                    }
+                }
+            }
+
+            Long[] ranked = new Long[best.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = (long) best.poll().id;
+            }
+            return new ArrayList<>(Arrays.asList(ranked));
+        }
+
+        /**
+         * Terms within the allowed distance of a query word that occur in the
+         * field, closest and then most common first.
+         */
+        Expansion[] expand(String word, int distance, SuggestionIndex.Field field, int maxExpansions) {
+            Map<String, Integer> matches = distance > 0
+                    ? dictionary.lookup(word, distance)
+                    : terms.containsKey(word) ? Map.of(word, 0) : Map.of();
+            List<Expansion> expansions = new ArrayList<>(matches.size());
+            for (Map.Entry<String, Integer> match : matches.entrySet()) {
+                PostingList list = terms.get(match.getKey());
+                if (list != null && list.documents(field) > 0) {
+                    expansions.add(new Expansion(list, match.getValue()));
+                }
+            }
+            expansions.sort(Comparator.comparingInt(Expansion::distance)
+                    .thenComparing(expansion -> expansion.list().documents(field), Comparator.reverseOrder()));
+            return expansions.subList(0, Math.min(maxExpansions, expansions.size())).toArray(new Expansion[0]);
+        }
+
+        /**
+         * Intersect the expansions of every query word. The books of the word
+         * with the fewest postings are visited, closest terms first, and each
+         * is looked up in the expansions of the other words. A book is first
+         * visited through its closest term, so its first distance is final,
+         * and the best K are kept in a bounded heap. Visiting stops once no
+         * remaining book can get in.
+         */
+        List<Long> searchFuzzy(List<Expansion[]> words, SuggestionIndex.Field field, int limit, long deadline) {
+            words.sort(Comparator.comparingLong(expansions -> {
+                long total = 0;
+                for (Expansion expansion : expansions) {
+                    total += expansion.list().size;
+                }
+                return total;
+            }));
+            // Closest distances the other words can add to a book
+            int otherDistances = 0;
+            for (int word = 1; word < words.size(); word++) {
+                otherDistances += words.get(word)[0].distance();
+            }
+
+            // Hits ordered by distance and then ID, the worst at the head
+            PriorityQueue<Long> best = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+            Set<Integer> found = new HashSet<>();
+            int visited = 0;
+            visit:
+            for (Expansion driver : words.get(0)) {
+                PostingList list = driver.list();
+                int leastDistance = driver.distance() + otherDistances;
+                for (int position = 0; position < list.size; position++) {
+                    int id = list.ids[position];
+                    if (best.size() == limit && hit(leastDistance, id) > best.peek()) {
+                        // IDs only grow within a list, and distances across lists
+                        if (leastDistance > best.peek() >>> 32) {
+                            break visit;
+                        }
+                        break;
+                    }
+                    if ((++visited & 0xFF) == 0 && System.nanoTime() - deadline > 0) {
+                        fuzzySearchesTruncated.incrementAndGet();
+                        break visit;
+                    }
+                    if (!inField(list.stats[position], field) || found.contains(id)) {
+                        continue;
+                    }
+                    int distance = driver.distance();
+                    for (int word = 1; word < words.size() && distance >= 0; word++) {
+                        int closest = closestDistance(words.get(word), id, field);
+                        distance = closest < 0 ? -1 : distance + closest;
+                    }
+                    if (distance >= 0 && (best.size() < limit || hit(distance, id) < best.peek())) {
+                        best.add(hit(distance, id));
+                        found.add(id);
+                        if (best.size() > limit) {
+                            found.remove((int) (best.poll() & 0xFFFFFFFFL));
+                        }
+                    }
+                }
+            }
+
+            Long[] ranked = new Long[best.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = best.poll() & 0xFFFFFFFFL;
+            }
+            return new ArrayList<>(Arrays.asList(ranked));
+        }
+
+        private static long hit(int distance, int id) {
+            return (long) distance << 32 | id;
+        }
+
+        /**
+         * Distance of the closest expansion whose term the book has in the
+         * field, or -1 if it has none.
+         */
+        private int closestDistance(Expansion[] expansions, int id, SuggestionIndex.Field field) {
+            for (Expansion expansion : expansions) {
+                PostingList list = expansion.list();
+                int position = Arrays.binarySearch(list.ids, 0, list.size, id);
+                if (position >= 0 && inField(list.stats[position], field)) {
+                    return expansion.distance();
+                }
+            }
+            return -1;
+        }
+
+        private PostingList newPostingList(String term) {
+            dictionary.add(term);
+            return new PostingList();
+        }
+
+        long postingCount() {
+            long total = 0;
+            for (PostingList list : terms.values()) {
+                total += list.size;
+            }
+            return total;
+        }
+
+        double averageTitleLength() {
+            return documents.isEmpty() ? 0 : (double) titleLengthSum / documents.size();
+        }
+
+        double averageAuthorLength() {
+            return documents.isEmpty() ? 0 : (double) authorLengthSum / documents.size();
+        }
+
+        /**
+         * BM25F term weight of one posting, before multiplying by the term's
+         * IDF. Never decreases when a frequency grows or a length shrinks,
+         * including through rounding, so it also bounds the weight of every
+         * posting that {@link PostingList#bound} covers.
+         */
+        private static double saturate(int stats, double averageTitleLength, double averageAuthorLength) {
+            int titleFrequency = stats >>> 24;
+            int authorFrequency = (stats >>> 16) & MAX_COUNT;
+            int titleLength = (stats >>> 8) & MAX_COUNT;
+            int authorLength = stats & MAX_COUNT;
+            double frequency = TITLE_WEIGHT * titleFrequency / (1 - B + B * titleLength / averageTitleLength)
+                    + AUTHOR_WEIGHT * authorFrequency / (1 - B + B * authorLength / averageAuthorLength);
+            return 1 - K1 / (K1 + frequency);
+        }
+
+        private void removeTerms(int id, String[] document) {
+            List<String> titleTerms = TextAnalyzer.tokens(document[0]);
+            List<String> authorTerms = TextAnalyzer.tokens(document[1]);
+            Set<String> distinct = new LinkedHashSet<>(titleTerms);
+            distinct.addAll(authorTerms);
+            for (String term : distinct) {
+                PostingList list = terms.get(term);
+                if (list != null && list.remove(id) && list.size == 0) {
+                    terms.remove(term);
+                    dictionary.remove(term);
+                }
+            }
+            titleLengthSum -= titleTerms.size();
+            authorLengthSum -= authorTerms.size();
+        }
+    }
+
+    /**
+     * Book IDs in ascending order with the packed frequencies and lengths of
+     * each posting in a parallel array.
+     */
+    private static final class PostingList {
+
+        int[] ids = new int[2];
+        int[] stats = new int[2];
+        int size;
+        /** Number of postings with the term in the title, and in the author. */
+        int titleDocuments;
+        int authorDocuments;
+        /**
+         * Highest frequencies and lowest lengths of all postings ever added, so
+         * no posting weighs more. Not lowered on removal, where it stays an
+         * upper bound.
+         */
+        int bound = pack(0, 0, MAX_COUNT, MAX_COUNT);
+
+        void put(int id, int stat) {
+            bound = pack(Math.max(bound >>> 24, stat >>> 24),
+                    Math.max((bound >>> 16) & MAX_COUNT, (stat >>> 16) & MAX_COUNT),
+                    Math.min((bound >>> 8) & MAX_COUNT, (stat >>> 8) & MAX_COUNT),
+                    Math.min(bound & MAX_COUNT, stat & MAX_COUNT));
+            count(stat, 1);
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size] = id;
+                stats[size++] = stat;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                count(stats[position], -1);
+                stats[position] = stat;
+                return;
+            }
+            int insertAt = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            System.arraycopy(stats, insertAt, stats, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            stats[insertAt] = stat;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            count(stats[position], -1);
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            System.arraycopy(stats, position + 1, stats, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        int documents(SuggestionIndex.Field field) {
+            return field == SuggestionIndex.Field.TITLE ? titleDocuments : authorDocuments;
+        }
+
+        private void count(int stat, int delta) {
+            if (inField(stat, SuggestionIndex.Field.TITLE)) {
+                titleDocuments += delta;
+            }
+            if (inField(stat, SuggestionIndex.Field.AUTHOR)) {
+                authorDocuments += delta;
+            }
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                stats = Arrays.copyOf(stats, size * 2);
+            }
+        }
+    }
+
+    /**
+     * Position of a query term in its posting list.
+     */
+    private static final class Cursor {
+
+        final PostingList list;
+        final double idf;
+        /** Upper bound of the score a single posting of this term adds. */
+        final double maxScore;
+        int position;
+
+        Cursor(PostingList list, double idf, double maxScore) {
+            this.list = list;
+            this.idf = idf;
+            this.maxScore = maxScore;
+        }
+
+        /**
+         * Book ID at the current position, or {@link Integer#MAX_VALUE} past the end.
+         */
+        int id() {
+            return position < list.size ? list.ids[position] : Integer.MAX_VALUE;
+        }
+
+        double score(double averageTitleLength, double averageAuthorLength) {
+            return idf * Postings.saturate(list.stats[position], averageTitleLength, averageAuthorLength);
+        }
+
+        /**
+         * Move to the first posting at or after the book, which must not be
+         * before the current position.
+         * 
+         * @return whether the list contains the book
+         */
+        boolean advanceTo(int id) {
+            if (position < list.size && list.ids[position] < id) {
+                int found = Arrays.binarySearch(list.ids, position, list.size, id);
+                position = found >= 0 ? found : -found - 1;
+            }
+            return position < list.size && list.ids[position] == id;
+        }
+    }
+
+    /**
+     * A term a fuzzy query word matches, with its posting list.
+     */
+    private record Expansion(PostingList list, int distance) {
+    }
+
+    /**
+     * A scored book. Orders the lowest-ranked first, breaking score ties in
+     * favour of the lower ID, so the heap head is the hit to evict.
+     */
+    private record Hit(int id, double score) implements Comparable<Hit> {
+
+        @Override
+        public int compareTo(Hit other) {
+            int order = Double.compare(score, other.score);
+            return order != 0 ? order : Integer.compare(other.id, id);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.cursordemo.index;
+
+import com.cursordemo.config.BookProperties;
+import com.cursordemo.entity.Book;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the normalized ISBNs of all books.
+ * 
+ * A negative answer from {@link #mightContain(String)} is definite, so ISBN
+ * existence checks can skip the database for ISBNs that were never stored.
+ * A positive answer only means "maybe" and must be confirmed by the repository.
+ * 
+ * Bloom filters cannot forget entries: deleted books and replaced ISBNs stay
+ * in the filter as false positives until the next rebuild.
+ */
+@Component
+public class IsbnBloomFilter implements BookIndex {
+
+    private final BookProperties.IsbnBloom settings;
+
+    private final Counter definiteNegatives;
+    private final Counter possiblePositives;
+
+    private volatile Bits bits;
+    private volatile boolean ready;
+
+    @Autowired
+    public IsbnBloomFilter(BookProperties bookProperties, MeterRegistry meterRegistry) {
+        this.settings = bookProperties.getIndex().getIsbnBloom();
+        this.bits = new Bits(settings.getExpectedInsertions(), settings.getFalsePositiveProbability());
+
+        Gauge.builder("books.index.isbn.bloom.fill.ratio", this, filter -> filter.bits.fillRatio())
+                .description("Fraction of bits set in the ISBN Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("books.index.isbn.bloom.false.positive.rate", this, filter -> filter.bits.expectedFalsePositiveRate())
+                .description("Estimated false-positive probability of the ISBN Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("books.index.isbn.bloom.insertions", this, filter -> filter.bits.insertions.get())
+                .description("ISBNs added to the Bloom filter since it was last built")
+                .register(meterRegistry);
+        this.definiteNegatives = Counter.builder("books.index.isbn.bloom.checks")
+                .description("ISBN existence checks answered by the Bloom filter")
+                .tag("result", "negative")
+                .register(meterRegistry);
+        this.possiblePositives = Counter.builder("books.index.isbn.bloom.checks")
+                .description("ISBN existence checks answered by the Bloom filter")
+                .tag("result", "maybe")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return "isbn-bloom";
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Check whether a book with the given ISBN might exist.
+     * 
+     * @param isbn the ISBN to check
+     * @return false if no book has this ISBN; true if one might
+     */
+    public boolean mightContain(String isbn) {
+        if (!ready) {
+            return true;
+        }
+        boolean result = bits.mightContain(IsbnNormalizer.normalize(isbn));
+        (result ? possiblePositives : definiteNegatives).increment();
+        return result;
+    }
+
+    @Override
+    public void index(Book book) {
+        bits.put(IsbnNormalizer.normalize(book.getIsbn()));
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        // Bloom filters cannot remove entries; the stale bits are dropped on the next rebuild
+    }
+
+    @Override
+    public Loader beginRebuild(long expectedBooks) {
+        // Leave headroom for books created after the rebuild before the filter degrades
+        long capacity = Math.max(settings.getExpectedInsertions(), expectedBooks * 2);
+        Bits fresh = new Bits(capacity, settings.getFalsePositiveProbability());
+        return new Loader() {
+            @Override
+            public void add(Book book) {
+                fresh.put(IsbnNormalizer.normalize(book.getIsbn()));
+            }
+
+            @Override
+            public void publish() {
+                bits = fresh;
+                ready = true;
+            }
+        };
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Bits current = bits;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("bitCount", current.numBits);
+        stats.put("hashFunctions", current.numHashFunctions);
+        stats.put("insertions", current.insertions.get());
+        stats.put("fillRatio", current.fillRatio());
+        stats.put("falsePositiveRate", current.expectedFalsePositiveRate());
+        return stats;
+    }
+
+    /**
+     * Lock-free bit array with double hashing.
+     */
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long numBits;
+        private final int numHashFunctions;
+        private final AtomicLong bitsSet = new AtomicLong();
+        private final AtomicLong insertions = new AtomicLong();
+
+        Bits(long expectedInsertions, double falsePositiveProbability) {
+            long n = Math.max(1, expectedInsertions);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            int words = Math.toIntExact(Math.max(1, (m + 63) / 64));
+            this.words = new AtomicLongArray(words);
+            this.numBits = (long) words * 64;
+            this.numHashFunctions = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        }
+
+        void put(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= numHashFunctions; i++) {
+                int combined = h1 + i * h2;
+                if (combined < 0) {
+                    combined = ~combined;
+                }
+                if (set(combined % numBits)) {
+                    bitsSet.incrementAndGet();
+                }
+            }
+            insertions.incrementAndGet();
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= numHashFunctions; i++) {
+                int combined = h1 + i * h2;
+                if (combined < 0) {
+                    combined = ~combined;
+                }
+                long bit = combined % numBits;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean set(long bit) {
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            while (true) {
+                long current = words.get(index);
+                if ((current & mask) != 0) {
+                    return false;
+                }
+                if (words.compareAndSet(index, current, current | mask)) {
+                    return true;
+                }
+            }
+        }
+
+        double fillRatio() {
+            return (double) bitsSet.get() / numBits;
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.pow(fillRatio(), numHashFunctions);
+        }
+
+        /**
+         * 64-bit FNV-1a over the characters, finished with the MurmurHash3 mixer.
+         */
+        private static long hash(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
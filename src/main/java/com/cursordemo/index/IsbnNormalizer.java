@@ -0,0 +1,38 @@
+package com.cursordemo.index;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes ISBNs so that formatting differences do not matter for lookups.
+ * 
+ * "ISBN-13: 978-0-7432-7356-5", "978 0743273565" and "9780743273565" all
+ * normalize to "9780743273565".
+ */
+public final class IsbnNormalizer {
+
+    private static final Pattern PREFIX = Pattern.compile("^ISBN(?:-1[03])?:?\\s*");
+
+    private IsbnNormalizer() {}
+
+    /**
+     * Strip an optional "ISBN" prefix and every character that is not a digit or X.
+     * 
+     * @param isbn the ISBN as entered, may be null
+     * @return the normalized ISBN, or an empty string for null input
+     */
+    public static String normalize(String isbn) {
+        if (isbn == null) {
+            return "";
+        }
+        String upper = PREFIX.matcher(isbn.trim().toUpperCase(Locale.ROOT)).replaceFirst("");
+        StringBuilder normalized = new StringBuilder(upper.length());
+        for (int i = 0; i < upper.length(); i++) {
+            char c = upper.charAt(i);
+            if ((c >= '0' && c <= '9') || c == 'X') {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,373 @@
+package com.cursordemo.index;
+
+import com.cursordemo.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sorted in-memory index of book prices.
+ * 
+ * Prices are kept as long cents in a primitive array sorted by (price, id),
+ * with the book IDs in a parallel array. Two binary searches find the bounds of
+ * any price range, so counting a range is O(log n) and a page of results is read
+ * straight out of the arrays in price order without sorting. Writes shift the
+ * arrays in place, which costs one memory move per change.
+ * 
+ * Search methods return null while the index is loading so callers fall back
+ * to the database.
+ */
+@Component
+public class PriceIndex implements BookIndex {
+
+    /** Stands for a book without an entry; no price is this low. */
+    private static final long ABSENT = Long.MIN_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile Entries entries = new Entries(16);
+    private volatile boolean ready;
+
+    @Override
+    public String getName() {
+        return "price";
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Find the IDs of books priced within the range, cheapest first.
+     * 
+     * @param minPrice lower bound (inclusive), or null for no lower bound
+     * @param maxPrice upper bound (inclusive), or null for no upper bound
+     * @param offset number of matches to skip
+     * @param limit maximum number of IDs to return, or null for all
+     * @return book IDs ordered by price then ID, or null if the index cannot answer
+     */
+    public List<Long> findIdsBetween(BigDecimal minPrice, BigDecimal maxPrice, int offset, Integer limit) {
+        if (!ready) {
+            return null;
+        }
+        long minCents = lowerBound(minPrice);
+        long maxCents = upperBound(maxPrice);
+        lock.readLock().lock();
+        try {
+            Entries current = entries;
+            int from = (int) Math.min((long) current.firstAtOrAbove(minCents) + offset, Integer.MAX_VALUE);
+            int to = current.firstAbove(maxCents);
+            if (limit != null) {
+                to = (int) Math.min(to, (long) from + limit);
+            }
+            List<Long> ids = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                ids.add(current.ids[i]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count the books priced within the range.
+     * 
+     * @param minPrice lower bound (inclusive), or null for no lower bound
+     * @param maxPrice upper bound (inclusive), or null for no upper bound
+     * @return the number of matching books, or null if the index cannot answer
+     */
+    public Long countBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!ready) {
+            return null;
+        }
+        long minCents = lowerBound(minPrice);
+        long maxCents = upperBound(maxPrice);
+        lock.readLock().lock();
+        try {
+            Entries current = entries;
+            return (long) Math.max(0, current.firstAbove(maxCents) - current.firstAtOrAbove(minCents));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keep the IDs of books priced within the range, so the hits of another
+     * index can be narrowed without loading the books.
+     * 
+     * @param ids candidate book IDs
+     * @param minPrice lower bound (inclusive), or null for no lower bound
+     * @param maxPrice upper bound (inclusive), or null for no upper bound
+     * @return the candidates in the range in their original order, or null if the index cannot answer
+     */
+    public List<Long> retainBetween(List<Long> ids, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!ready) {
+            return null;
+        }
+        long minCents = lowerBound(minPrice);
+        long maxCents = upperBound(maxPrice);
+        lock.readLock().lock();
+        try {
+            LongLongHashMap centsById = entries.centsById;
+            List<Long> retained = new ArrayList<>();
+            for (Long id : ids) {
+                long cents = centsById.get(id, ABSENT);
+                if (cents != ABSENT && cents >= minCents && cents <= maxCents) {
+                    retained.add(id);
+                }
+            }
+            return retained;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        long cents = toCents(book.getPrice(), RoundingMode.HALF_UP);
+        lock.writeLock().lock();
+        try {
+            entries.put(book.getId(), cents);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            entries.remove(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Loader beginRebuild(long expectedBooks) {
+        Entries fresh = new Entries((int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, expectedBooks)));
+        return new Loader() {
+            @Override
+            public void add(Book book) {
+                fresh.append(book.getId(), toCents(book.getPrice(), RoundingMode.HALF_UP));
+            }
+
+            @Override
+            public void prepare() {
+                fresh.sort();
+            }
+
+            @Override
+            public void publish() {
+                lock.writeLock().lock();
+                try {
+                    entries = fresh;
+                    ready = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Entries current = entries;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", ready);
+            stats.put("entries", current.size);
+            stats.put("capacity", current.cents.length);
+            if (current.size > 0) {
+                stats.put("minCents", current.cents[0]);
+                stats.put("maxCents", current.cents[current.size - 1]);
+            }
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long lowerBound(BigDecimal minPrice) {
+        return minPrice == null ? Long.MIN_VALUE : toCents(minPrice, RoundingMode.CEILING);
+    }
+
+    private static long upperBound(BigDecimal maxPrice) {
+        return maxPrice == null ? Long.MAX_VALUE : toCents(maxPrice, RoundingMode.FLOOR);
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        return price.movePointRight(2).setScale(0, roundingMode).longValueExact();
+    }
+
+    /**
+     * Parallel arrays of prices and IDs sorted by (price, id), plus a
+     * primitive map from ID to price to locate an entry when it changes.
+     */
+    static final class Entries {
+
+        long[] cents;
+        long[] ids;
+        int size;
+        final LongLongHashMap centsById;
+
+        Entries(int capacity) {
+            this.cents = new long[capacity];
+            this.ids = new long[capacity];
+            this.centsById = new LongLongHashMap(capacity);
+        }
+
+        /**
+         * Add an entry without keeping the order; {@link #sort()} must follow.
+         */
+        void append(long id, long price) {
+            ensureCapacity();
+            cents[size] = price;
+            ids[size] = id;
+            size++;
+            centsById.put(id, price);
+        }
+
+        /**
+         * Sort the entries by (price, id) without boxing. Prices and IDs are
+         * replaced by their ranks among the distinct prices and among the
+         * IDs, which fit in 32 bits each, so every entry packs into one long
+         * whose natural order is the entry order.
+         */
+        void sort() {
+            long[] distinctCents = Arrays.copyOf(cents, size);
+            Arrays.sort(distinctCents);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || distinctCents[i] != distinctCents[distinct - 1]) {
+                    distinctCents[distinct++] = distinctCents[i];
+                }
+            }
+            long[] sortedIds = Arrays.copyOf(ids, size);
+            Arrays.sort(sortedIds);
+
+            long[] packed = new long[size];
+            for (int i = 0; i < size; i++) {
+                long priceRank = Arrays.binarySearch(distinctCents, 0, distinct, cents[i]);
+                long idRank = Arrays.binarySearch(sortedIds, ids[i]);
+                packed[i] = priceRank << 32 | idRank;
+            }
+            Arrays.sort(packed);
+
+            for (int i = 0; i < size; i++) {
+                cents[i] = distinctCents[(int) (packed[i] >>> 32)];
+                ids[i] = sortedIds[(int) packed[i]];
+            }
+        }
+
+        void put(long id, long price) {
+            long previous = centsById.get(id, ABSENT);
+            if (previous != ABSENT) {
+                if (previous == price) {
+                    return;
+                }
+                removeAt(position(previous, id));
+            }
+            int insertAt = -position(price, id) - 1;
+            ensureCapacity();
+            System.arraycopy(cents, insertAt, cents, insertAt + 1, size - insertAt);
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            cents[insertAt] = price;
+            ids[insertAt] = id;
+            size++;
+            centsById.put(id, price);
+        }
+
+        void remove(long id) {
+            long previous = centsById.get(id, ABSENT);
+            if (previous != ABSENT) {
+                centsById.remove(id);
+                removeAt(position(previous, id));
+            }
+        }
+
+        /**
+         * Index of the first entry priced at or above the bound.
+         */
+        int firstAtOrAbove(long price) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cents[mid] < price) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Index of the first entry priced strictly above the bound.
+         */
+        int firstAbove(long price) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cents[mid] <= price) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Binary search for (price, id); returns -(insertion point) - 1 when absent.
+         */
+        int position(long price, long id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(cents[mid], ids[mid], price, id);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private void removeAt(int position) {
+            System.arraycopy(cents, position + 1, cents, position, size - position - 1);
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        private void ensureCapacity() {
+            if (size == cents.length) {
+                int capacity = Math.max(16, size + (size >> 1));
+                cents = Arrays.copyOf(cents, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+        }
+
+        private static int compare(long priceA, long idA, long priceB, long idB) {
+            int cmp = Long.compare(priceA, priceB);
+            return cmp != 0 ? cmp : Long.compare(idA, idB);
+        }
+    }
+}
@@ -0,0 +1,682 @@
+package com.cursordemo.index;
+
+import com.cursordemo.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete index over book titles and author names.
+ * 
+ * Every distinct title and author, compared after {@link TextAnalyzer}
+ * normalization, is one suggestion whose weight is the number of books
+ * carrying it, so prolific authors and titles with many editions rank first.
+ * The tokens of all suggestions form a radix trie: each token's node lists the
+ * suggestions containing it, heaviest first, and every node records the
+ * highest weight below it. The top K completions of a prefix are found
+ * best-first, expanding nodes in order of that weight and stopping after K
+ * suggestions, so a query touches a few dozen nodes whether the prefix matches
+ * ten books or a million. Writes update the token nodes of the changed
+ * suggestions and their ancestors in place.
+ * 
+ * A query matches a suggestion when the normalized query starts at any token
+ * of the normalized suggestion: "gats" and "great gats" both suggest "The
+ * Great Gatsby". The last query token may be incomplete; the others must
+ * match whole tokens. Queries return null while the index is loading so
+ * callers fall back to the database.
+ */
+@Component
+public class SuggestionIndex implements BookIndex {
+
+    /**
+     * Whether a suggestion is a title or an author name.
+     */
+    public enum Field {
+        TITLE, AUTHOR
+    }
+
+    /**
+     * One completion and the number of books carrying it.
+     * 
+     * @param text the title or author as written in the first book that has it
+     * @param field which field the text comes from
+     * @param weight number of books with this title or author
+     */
+    public record Suggestion(String text, Field field, int weight) {
+    }
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_POSTINGS = new int[0];
+    /** Stands for a book without suggestions; no packed pair of suggestion numbers is this value. */
+    private static final long NO_BOOK = Long.MIN_VALUE;
+
+    private static final Comparator<Cursor> HEAVIEST_FIRST = (a, b) -> Integer.compare(b.weight, a.weight);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile Suggestions suggestions = new Suggestions();
+    private volatile boolean ready;
+
+    @Override
+    public String getName() {
+        return "suggest";
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Find the heaviest titles and authors the query completes.
+     * 
+     * @param query the text typed so far
+     * @param limit maximum number of suggestions to return
+     * @return suggestions ordered by descending weight, or null if the index cannot answer
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        if (!ready) {
+            return null;
+        }
+        List<String> tokens = TextAnalyzer.tokens(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return suggestions.suggest(tokens, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            suggestions.put(book.getId(), book.getTitle(), book.getAuthor());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            suggestions.remove(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Loader beginRebuild(long expectedBooks) {
+        Suggestions fresh = new Suggestions();
+        return new Loader() {
+            @Override
+            public void add(Book book) {
+                fresh.put(book.getId(), book.getTitle(), book.getAuthor());
+            }
+
+            @Override
+            public void publish() {
+                lock.writeLock().lock();
+                try {
+                    suggestions = fresh;
+                    ready = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Suggestions current = suggestions;
+            int[] counts = current.countNodes();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", ready);
+            stats.put("books", current.books.size());
+            stats.put("suggestions", current.titleIds.size() + current.authorIds.size());
+            stats.put("tokens", counts[1]);
+            stats.put("nodes", counts[0]);
+            stats.put("postings", current.root.size);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Suggestion table and trie that are swapped together on rebuild.
+     * 
+     * Suggestions are numbered densely, reusing the numbers of removed ones,
+     * and their attributes are kept in parallel arrays.
+     */
+    private static final class Suggestions {
+
+        final Node root = new Node(new char[0]);
+        final Map<String, Integer> titleIds = new HashMap<>();
+        final Map<String, Integer> authorIds = new HashMap<>();
+        /** Title and author suggestion of every book, packed as {@code title << 32 | author}. */
+        final LongLongHashMap books = new LongLongHashMap(1024);
+
+        String[] texts = new String[16];
+        String[] normalized = new String[16];
+        Field[] fields = new Field[16];
+        int[] weights = new int[16];
+        int allocated;
+        int[] free = new int[16];
+        int freeCount;
+
+        void put(long bookId, String title, String author) {
+            // Acquire before releasing, so an unchanged title or author is not removed and re-added
+            int titleId = acquire(Field.TITLE, title);
+            int authorId = acquire(Field.AUTHOR, author);
+            long previous = books.get(bookId, NO_BOOK);
+            books.put(bookId, ((long) titleId << 32) | (authorId & 0xFFFFFFFFL));
+            if (previous != NO_BOOK) {
+                release((int) (previous >> 32));
+                release((int) previous);
+            }
+        }
+
+        void remove(long bookId) {
+            long previous = books.get(bookId, NO_BOOK);
+            if (previous != NO_BOOK) {
+                books.remove(bookId);
+                release((int) (previous >> 32));
+                release((int) previous);
+            }
+        }
+
+        List<Suggestion> suggest(List<String> tokens, int limit) {
+            String prefix = tokens.get(tokens.size() - 1);
+            Node start = findPrefix(prefix);
+            if (start == null || start.size == 0) {
+                return List.of();
+            }
+            if (tokens.size() == 1) {
+                return toSuggestions(bestFirst(start, limit, null));
+            }
+
+            // Candidates come from the smaller of the shortest whole-token list and the prefix subtree
+            String phrase = String.join(" ", tokens);
+            Node shortest = null;
+            for (String token : tokens.subList(0, tokens.size() - 1)) {
+                Node node = findExact(token);
+                if (node == null || node.postingCount == 0) {
+                    return List.of();
+                }
+                if (shortest == null || node.postingCount < shortest.postingCount) {
+                    shortest = node;
+                }
+            }
+            if (shortest.postingCount < start.size) {
+                int[] found = new int[limit];
+                int count = 0;
+                for (int i = 0; i < shortest.postingCount && count < limit; i++) {
+                    int id = shortest.postings[i];
+                    if (matches(normalized[id], phrase)) {
+                        found[count++] = id;
+                    }
+                }
+                return toSuggestions(Arrays.copyOf(found, count));
+            }
+            return toSuggestions(bestFirst(start, limit, phrase));
+        }
+
+        /**
+         * Collect the heaviest distinct suggestions below a node.
+         * 
+         * @param phrase normalized query the suggestions must match, or null to accept all
+         */
+        private int[] bestFirst(Node start, int limit, String phrase) {
+            PriorityQueue<Cursor> queue = new PriorityQueue<>(HEAVIEST_FIRST);
+            queue.add(new Cursor(start, -1, start.best));
+            int[] found = new int[limit];
+            int count = 0;
+            while (count < limit && !queue.isEmpty()) {
+                Cursor cursor = queue.poll();
+                Node node = cursor.node;
+                if (cursor.index < 0) {
+                    for (Node child : node.children) {
+                        queue.add(new Cursor(child, -1, child.best));
+                    }
+                    if (node.postingCount > 0) {
+                        queue.add(new Cursor(node, 0, weights[node.postings[0]]));
+                    }
+                    continue;
+                }
+                // A suggestion is listed under each of its tokens, so it may come up again
+                int id = node.postings[cursor.index];
+                if (!contains(found, count, id) && (phrase == null || matches(normalized[id], phrase))) {
+                    found[count++] = id;
+                }
+                int next = cursor.index + 1;
+                if (next < node.postingCount) {
+                    queue.add(new Cursor(node, next, weights[node.postings[next]]));
+                }
+            }
+            return Arrays.copyOf(found, count);
+        }
+
+        private List<Suggestion> toSuggestions(int[] ids) {
+            List<Suggestion> result = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                result.add(new Suggestion(texts[id], fields[id], weights[id]));
+            }
+            return result;
+        }
+
+        /**
+         * Count one more book for the suggestion of a title or author.
+         * 
+         * @return the suggestion number, or -1 if the text has no tokens
+         */
+        private int acquire(Field field, String text) {
+            String key = TextAnalyzer.normalize(text);
+            if (key.isEmpty()) {
+                return -1;
+            }
+            Map<String, Integer> ids = field == Field.TITLE ? titleIds : authorIds;
+            Integer existing = ids.get(key);
+            if (existing != null) {
+                reweigh(existing, 1);
+                return existing;
+            }
+            int id = allocate();
+            texts[id] = text;
+            normalized[id] = key;
+            fields[id] = field;
+            weights[id] = 1;
+            ids.put(key, id);
+            for (String token : distinctTokens(key)) {
+                List<Node> path = new ArrayList<>();
+                Node node = insertPath(token, path);
+                node.insertPosting(id, weights);
+                for (Node onPath : path) {
+                    onPath.size++;
+                }
+                refreshBest(path);
+            }
+            return id;
+        }
+
+        /**
+         * Count one book less for a suggestion, removing it with its last book.
+         */
+        private void release(int id) {
+            if (id < 0) {
+                return;
+            }
+            if (weights[id] > 1) {
+                reweigh(id, -1);
+                return;
+            }
+            for (String token : distinctTokens(normalized[id])) {
+                List<Node> path = findPath(token);
+                path.get(path.size() - 1).removePosting(id, weights);
+                for (Node onPath : path) {
+                    onPath.size--;
+                }
+                prune(path);
+                refreshBest(path);
+            }
+            (fields[id] == Field.TITLE ? titleIds : authorIds).remove(normalized[id]);
+            texts[id] = null;
+            normalized[id] = null;
+            fields[id] = null;
+            weights[id] = 0;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = id;
+        }
+
+        /**
+         * Change the weight of a suggestion, moving it to its new place in each
+         * of its token lists.
+         */
+        private void reweigh(int id, int delta) {
+            List<String> tokens = distinctTokens(normalized[id]);
+            List<List<Node>> paths = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                List<Node> path = findPath(token);
+                path.get(path.size() - 1).removePosting(id, weights);
+                paths.add(path);
+            }
+            weights[id] += delta;
+            for (List<Node> path : paths) {
+                path.get(path.size() - 1).insertPosting(id, weights);
+                refreshBest(path);
+            }
+        }
+
+        private int allocate() {
+            if (freeCount > 0) {
+                return free[--freeCount];
+            }
+            if (allocated == weights.length) {
+                int capacity = allocated * 2;
+                texts = Arrays.copyOf(texts, capacity);
+                normalized = Arrays.copyOf(normalized, capacity);
+                fields = Arrays.copyOf(fields, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            return allocated++;
+        }
+
+        /**
+         * Walk down to the node of a token, creating and splitting nodes as needed.
+         * 
+         * @param path receives every node from the root to the returned node
+         */
+        private Node insertPath(String token, List<Node> path) {
+            Node node = root;
+            path.add(node);
+            int matched = 0;
+            while (matched < token.length()) {
+                int index = node.childIndex(token.charAt(matched));
+                if (index < 0) {
+                    Node leaf = new Node(token.substring(matched).toCharArray());
+                    node.insertChild(-index - 1, leaf);
+                    path.add(leaf);
+                    return leaf;
+                }
+                Node child = node.children[index];
+                int common = commonLength(child.label, token, matched);
+                if (common < child.label.length) {
+                    // Split the edge so that the shared part gets its own node
+                    Node middle = new Node(Arrays.copyOf(child.label, common));
+                    child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                    middle.children = new Node[]{child};
+                    middle.size = child.size;
+                    middle.best = child.best;
+                    node.children[index] = middle;
+                    child = middle;
+                }
+                node = child;
+                path.add(node);
+                matched += common;
+            }
+            return node;
+        }
+
+        /**
+         * The nodes from the root to the node of a token that is in the trie.
+         */
+        private List<Node> findPath(String token) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int matched = 0;
+            while (matched < token.length()) {
+                node = node.children[node.childIndex(token.charAt(matched))];
+                path.add(node);
+                matched += node.label.length;
+            }
+            return path;
+        }
+
+        /**
+         * The node of a whole token, or null if no suggestion has the token.
+         */
+        private Node findExact(String token) {
+            Node node = root;
+            int matched = 0;
+            while (matched < token.length()) {
+                int index = node.childIndex(token.charAt(matched));
+                if (index < 0) {
+                    return null;
+                }
+                node = node.children[index];
+                if (commonLength(node.label, token, matched) < node.label.length) {
+                    return null;
+                }
+                matched += node.label.length;
+            }
+            return node;
+        }
+
+        /**
+         * The highest node whose subtree holds exactly the tokens starting with
+         * the prefix, or null if no token does.
+         */
+        private Node findPrefix(String prefix) {
+            Node node = root;
+            int matched = 0;
+            while (matched < prefix.length()) {
+                int index = node.childIndex(prefix.charAt(matched));
+                if (index < 0) {
+                    return null;
+                }
+                node = node.children[index];
+                int common = commonLength(node.label, prefix, matched);
+                if (matched + common == prefix.length()) {
+                    return node;
+                }
+                if (common < node.label.length) {
+                    return null;
+                }
+                matched += common;
+            }
+            return node;
+        }
+
+        /**
+         * Remove nodes left without suggestions along a path and merge nodes
+         * left with a single child into it, keeping the trie compressed.
+         */
+        private static void prune(List<Node> path) {
+            for (int i = path.size() - 1; i > 0; i--) {
+                Node node = path.get(i);
+                if (node.postingCount > 0) {
+                    return;
+                }
+                if (node.children.length == 0) {
+                    path.get(i - 1).removeChild(node);
+                    path.remove(i);
+                } else if (node.children.length == 1) {
+                    Node child = node.children[0];
+                    char[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+                    System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+                    node.label = label;
+                    node.children = child.children;
+                    node.postings = child.postings;
+                    node.postingCount = child.postingCount;
+                    node.best = child.best;
+                }
+            }
+        }
+
+        private void refreshBest(List<Node> path) {
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node node = path.get(i);
+                int best = node.postingCount > 0 ? weights[node.postings[0]] : 0;
+                for (Node child : node.children) {
+                    best = Math.max(best, child.best);
+                }
+                node.best = best;
+            }
+        }
+
+        /**
+         * Number of nodes and of nodes that end a token.
+         */
+        int[] countNodes() {
+            int[] counts = new int[2];
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                counts[0]++;
+                if (node.postingCount > 0) {
+                    counts[1]++;
+                }
+                for (Node child : node.children) {
+                    pending.push(child);
+                }
+            }
+            return counts;
+        }
+
+        private static boolean matches(String text, String phrase) {
+            if (text.startsWith(phrase)) {
+                return true;
+            }
+            // The phrase must start at a token, i.e. right after a space
+            for (int from = text.indexOf(phrase); from > 0; from = text.indexOf(phrase, from + 1)) {
+                if (text.charAt(from - 1) == ' ') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean contains(int[] ids, int count, int id) {
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static List<String> distinctTokens(String normalizedText) {
+            List<String> tokens = new ArrayList<>();
+            for (String token : normalizedText.split(" ")) {
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+            }
+            return tokens;
+        }
+
+        private static int commonLength(char[] label, String text, int offset) {
+            int length = Math.min(label.length, text.length() - offset);
+            for (int i = 0; i < length; i++) {
+                if (label[i] != text.charAt(offset + i)) {
+                    return i;
+                }
+            }
+            return length;
+        }
+    }
+
+    /**
+     * Radix trie node. The edge label leads to it from its parent; the
+     * postings are the suggestions containing the token that ends here,
+     * ordered by descending weight and then by number.
+     */
+    private static final class Node {
+
+        char[] label;
+        Node[] children = NO_CHILDREN;
+        int[] postings = NO_POSTINGS;
+        int postingCount;
+        /** Highest weight of any suggestion in this subtree. */
+        int best;
+        /** Number of postings in this subtree. */
+        int size;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        /**
+         * Index of the child whose label starts with the character, or
+         * {@code -(insertion point) - 1} if there is none.
+         */
+        int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char c = children[middle].label[0];
+                if (c < first) {
+                    low = middle + 1;
+                } else if (c > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -low - 1;
+        }
+
+        void insertChild(int index, Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        void removeChild(Node child) {
+            int index = childIndex(child.label[0]);
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, shrunk.length - index);
+            children = shrunk;
+        }
+
+        void insertPosting(int id, int[] weights) {
+            int position = -search(id, weights) - 1;
+            if (postingCount == postings.length) {
+                postings = Arrays.copyOf(postings, Math.max(2, postingCount * 2));
+            }
+            System.arraycopy(postings, position, postings, position + 1, postingCount - position);
+            postings[position] = id;
+            postingCount++;
+        }
+
+        void removePosting(int id, int[] weights) {
+            int position = search(id, weights);
+            System.arraycopy(postings, position + 1, postings, position, postingCount - position - 1);
+            postingCount--;
+        }
+
+        private int search(int id, int[] weights) {
+            int low = 0;
+            int high = postingCount - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int other = postings[middle];
+                int order = weights[other] != weights[id]
+                        ? Integer.compare(weights[id], weights[other])
+                        : Integer.compare(other, id);
+                if (order < 0) {
+                    low = middle + 1;
+                } else if (order > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -low - 1;
+        }
+    }
+
+    /**
+     * Entry of the best-first search: either a node whose subtree is not yet
+     * expanded ({@code index < 0}) or a position in a node's postings.
+     */
+    private record Cursor(Node node, int index, int weight) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.cursordemo.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns titles, author names and search input into normalized tokens.
+ * 
+ * Text is lowercased, stripped of accents and split at every character that
+ * is not a letter or digit, so "Gabriel García Márquez", "gabriel garcia
+ * marquez" and "GARCÍA-MÁRQUEZ, Gabriel" share the tokens "gabriel", "garcia"
+ * and "marquez". Indexes and the queries against them must use the same
+ * analyzer, or the tokens will not match.
+ */
+public final class TextAnalyzer {
+
+    private TextAnalyzer() {}
+
+    /**
+     * Normalize text to its tokens separated by single spaces.
+     * 
+     * @param text the text to normalize, may be null
+     * @return the normalized text, or an empty string if it has no tokens
+     */
+    public static String normalize(String text) {
+        return String.join(" ", tokens(text));
+    }
+
+    /**
+     * Split text into normalized tokens, in the order they occur.
+     * 
+     * @param text the text to split, may be null
+     * @return the tokens, possibly with duplicates
+     */
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean tokenChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Lowercase text and remove accents, keeping all other characters.
+     */
+    private static String fold(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        if (isAscii(lower)) {
+            return lower;
+        }
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,389 @@
+package com.cursordemo.index;
+
+import com.cursordemo.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over lowercase book titles and authors.
+ * 
+ * Every title and author is split into overlapping three-character grams, and
+ * each gram maps to a sorted primitive array of the IDs of the books containing
+ * it. A substring query intersects the posting lists of its own grams, starting
+ * with the shortest, and verifies the few remaining candidates against the stored
+ * text. The work done is proportional to the size of the posting lists involved,
+ * not to the number of books.
+ * 
+ * Queries shorter than three characters have no grams to look up; search methods
+ * return null for them so callers fall back to the database. Postings hold int
+ * IDs, so a book whose ID does not fit in an int is left out and remembered, and
+ * the index stops answering until that book is gone or a rebuild no longer finds it.
+ */
+@Component
+public class TrigramIndex implements BookIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile Fields fields = new Fields();
+    private volatile boolean ready;
+
+    @Override
+    public String getName() {
+        return "trigram";
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Find books whose title contains the query, ignoring case.
+     * 
+     * @param title the substring to search for
+     * @return matching book IDs in ascending order, or null if the index cannot answer
+     */
+    public List<Long> searchTitle(String title) {
+        if (!canAnswer(title)) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return fields.unindexed.isEmpty() ? toIds(fields.title.search(lowercase(title))) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find books whose author contains the query, ignoring case.
+     * 
+     * @param author the substring to search for
+     * @return matching book IDs in ascending order, or null if the index cannot answer
+     */
+    public List<Long> searchAuthor(String author) {
+        if (!canAnswer(author)) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return fields.unindexed.isEmpty() ? toIds(fields.author.search(lowercase(author))) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find books whose title contains the title query or whose author contains
+     * the author query, ignoring case. A null query matches nothing.
+     * 
+     * @param title the title substring, may be null
+     * @param author the author substring, may be null
+     * @return matching book IDs in ascending order, or null if the index cannot answer
+     */
+    public List<Long> searchTitleOrAuthor(String title, String author) {
+        if (!ready || (title != null && !canAnswer(title)) || (author != null && !canAnswer(author))) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (!fields.unindexed.isEmpty()) {
+                return null;
+            }
+            int[] byTitle = title != null ? fields.title.search(lowercase(title)) : new int[0];
+            int[] byAuthor = author != null ? fields.author.search(lowercase(author)) : new int[0];
+            return toIds(union(byTitle, byAuthor));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            fields.put(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            fields.remove(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Loader beginRebuild(long expectedBooks) {
+        Fields fresh = new Fields();
+        return new Loader() {
+            @Override
+            public void add(Book book) {
+                fresh.put(book);
+            }
+
+            @Override
+            public void publish() {
+                lock.writeLock().lock();
+                try {
+                    fields = fresh;
+                    ready = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", ready);
+            stats.put("documents", fields.title.texts.size());
+            stats.put("titleGrams", fields.title.postings.size());
+            stats.put("titlePostings", fields.title.postingCount());
+            stats.put("authorGrams", fields.author.postings.size());
+            stats.put("authorPostings", fields.author.postingCount());
+            stats.put("unindexedBooks", fields.unindexed.size());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean canAnswer(String query) {
+        return ready && query != null && query.length() >= GRAM_LENGTH;
+    }
+
+    private static String lowercase(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Long> toIds(int[] ids) {
+        List<Long> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add((long) id);
+        }
+        return result;
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            int next;
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                next = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                next = b[j++];
+            } else {
+                next = a[i++];
+                j++;
+            }
+            result[n++] = next;
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static long[] grams(String text) {
+        if (text.length() < GRAM_LENGTH) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Title and author postings that are swapped together on rebuild.
+     */
+    private static final class Fields {
+        final FieldPostings title = new FieldPostings();
+        final FieldPostings author = new FieldPostings();
+        /** IDs of books left out because they do not fit in an int posting. */
+        final Set<Long> unindexed = new HashSet<>();
+
+        void put(Book book) {
+            long bookId = book.getId();
+            if (bookId != (int) bookId) {
+                unindexed.add(bookId);
+                return;
+            }
+            title.put((int) bookId, lowercase(book.getTitle()));
+            author.put((int) bookId, lowercase(book.getAuthor()));
+        }
+
+        void remove(long bookId) {
+            if (bookId != (int) bookId) {
+                unindexed.remove(bookId);
+                return;
+            }
+            title.remove((int) bookId);
+            author.remove((int) bookId);
+        }
+    }
+
+    /**
+     * Postings and stored text of one field.
+     */
+    private static final class FieldPostings {
+
+        final Map<Integer, String> texts = new HashMap<>();
+        final Map<Long, PostingList> postings = new HashMap<>();
+
+        void put(int id, String text) {
+            String previous = texts.put(id, text);
+            if (previous != null) {
+                if (previous.equals(text)) {
+                    return;
+                }
+                removeGrams(id, previous);
+            }
+            for (long gram : grams(text)) {
+                postings.computeIfAbsent(gram, key -> new PostingList()).add(id);
+            }
+        }
+
+        void remove(int id) {
+            String previous = texts.remove(id);
+            if (previous != null) {
+                removeGrams(id, previous);
+            }
+        }
+
+        int[] search(String query) {
+            long[] queryGrams = grams(query);
+            PostingList[] lists = new PostingList[queryGrams.length];
+            for (int i = 0; i < queryGrams.length; i++) {
+                lists[i] = postings.get(queryGrams[i]);
+                if (lists[i] == null) {
+                    return new int[0];
+                }
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+            int[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                count = lists[i].retainAll(candidates, count);
+            }
+
+            // Grams only prove the pieces occur; confirm they occur contiguously
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                if (texts.get(candidates[i]).contains(query)) {
+                    candidates[matches++] = candidates[i];
+                }
+            }
+            return Arrays.copyOf(candidates, matches);
+        }
+
+        long postingCount() {
+            long total = 0;
+            for (PostingList list : postings.values()) {
+                total += list.size;
+            }
+            return total;
+        }
+
+        private void removeGrams(int id, String text) {
+            for (long gram : grams(text)) {
+                PostingList list = postings.get(gram);
+                if (list != null && list.remove(id) && list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorted, growable array of book IDs.
+     */
+    private static final class PostingList {
+
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Keep only the candidates that are also in this list.
+         * 
+         * @return the number of candidates kept at the front of the array
+         */
+        int retainAll(int[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count; i++) {
+                int position = Arrays.binarySearch(ids, from, size, candidates[i]);
+                if (position >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            return kept;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+}
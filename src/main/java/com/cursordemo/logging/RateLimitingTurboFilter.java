@@ -0,0 +1,105 @@
+package com.cursordemo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that caps how many INFO and lower lines each logger
+ * may write per second.
+ * 
+ * Only loggers under the configured prefixes are limited, and WARN and ERROR
+ * always pass. Lines over the budget are denied before a logging event is
+ * even created, so a request burst costs a counter increment per line instead
+ * of formatting and writing it. The number of dropped lines is reported by
+ * {@link RequestSummaryLogger}.
+ * 
+ * <pre>
+ * &lt;turboFilter class="com.cursordemo.logging.RateLimitingTurboFilter"&gt;
+ *     &lt;loggers&gt;com.cursordemo.controller,com.cursordemo.service&lt;/loggers&gt;
+ *     &lt;maxPerSecond&gt;20&lt;/maxPerSecond&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private List<String> loggers = List.of();
+    private int maxPerSecond = 20;
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXxxEnabled() checks pass a null format; only real log calls use up the budget
+        if (format == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !isLimited(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), name -> new Window());
+        if (window.tryAcquire(System.nanoTime() / 1_000_000_000L, maxPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    /**
+     * Get the number of lines dropped since the last call, and reset it.
+     */
+    public long drainSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+
+    public void setLoggers(String loggers) {
+        this.loggers = Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    private boolean isLimited(String name) {
+        for (String prefix : loggers) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Count of lines written by one logger in the current second, updated
+     * with compare-and-set so concurrent callers never block.
+     */
+    static final class Window {
+
+        /** Low 32 bits of the second in the high half, lines written in it in the low half. */
+        private final AtomicLong state = new AtomicLong();
+
+        boolean tryAcquire(long now, int max) {
+            int second = (int) now;
+            while (true) {
+                long current = state.get();
+                int count = (int) (current >>> 32) == second ? (int) current : 0;
+                if (count >= max) {
+                    return false;
+                }
+                if (state.compareAndSet(current, (long) second << 32 | (count + 1))) {
+                    return true;
+                }
+            }
+        }
+    }
+}
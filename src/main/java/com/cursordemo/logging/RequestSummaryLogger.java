@@ -0,0 +1,132 @@
+package com.cursordemo.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import com.cursordemo.config.BookProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically logs request counts and latency per endpoint.
+ * 
+ * With per-request INFO lines rate-limited, this summary is what shows the
+ * traffic in the logs. It is computed from the {@code http.server.requests}
+ * timers Spring already records, as the difference since the previous summary,
+ * so it adds nothing to the request path.
+ * 
+ * Enabled by {@code books.request-summary.enabled}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "books.request-summary", name = "enabled", havingValue = "true")
+public class RequestSummaryLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestSummaryLogger.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long intervalMillis;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "request-summary");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Map<String, Totals> previous = new HashMap<>();
+
+    @Autowired
+    public RequestSummaryLogger(MeterRegistry meterRegistry, BookProperties bookProperties) {
+        this.meterRegistry = meterRegistry;
+        this.intervalMillis = bookProperties.getRequestSummary().getInterval().toMillis();
+        scheduler.scheduleAtFixedRate(this::logSummary, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    void logSummary() {
+        try {
+            Map<String, Totals> current = new HashMap<>();
+            for (Timer timer : meterRegistry.find("http.server.requests").timers()) {
+                String endpoint = timer.getId().getTag("method") + " " + timer.getId().getTag("uri");
+                boolean failed = "SERVER_ERROR".equals(timer.getId().getTag("outcome"));
+                current.computeIfAbsent(endpoint, key -> new Totals())
+                        .add(timer.count(), timer.totalTime(TimeUnit.NANOSECONDS), failed ? timer.count() : 0,
+                                timer.max(TimeUnit.MILLISECONDS));
+            }
+
+            List<String> lines = new ArrayList<>();
+            long requests = 0;
+            List<Map.Entry<String, Totals>> endpoints = new ArrayList<>(current.entrySet());
+            endpoints.sort(Comparator.comparingLong(entry -> -entry.getValue().count));
+            for (Map.Entry<String, Totals> entry : endpoints) {
+                Totals now = entry.getValue();
+                Totals before = previous.getOrDefault(entry.getKey(), new Totals());
+                long count = now.count - before.count;
+                if (count <= 0) {
+                    continue;
+                }
+                requests += count;
+                lines.add(String.format("%s count=%d errors=%d avg=%.1fms max=%.1fms", entry.getKey(), count,
+                        now.errors - before.errors, (now.totalNanos - before.totalNanos) / 1e6 / count, now.maxMillis));
+            }
+            previous = current;
+
+            logger.info("{} requests in the last {}s, {} log lines suppressed",
+                    requests, intervalMillis / 1000, drainSuppressedLogLines());
+            for (String line : lines) {
+                logger.info("  {}", line);
+            }
+        } catch (RuntimeException ex) {
+            // Never let one failure cancel the schedule
+            logger.warn("Failed to log request summary", ex);
+        }
+    }
+
+    private static long drainSuppressedLogLines() {
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        long suppressed = 0;
+        if (factory instanceof LoggerContext context) {
+            for (TurboFilter filter : context.getTurboFilterList()) {
+                if (filter instanceof RateLimitingTurboFilter rateLimiter) {
+                    suppressed += rateLimiter.drainSuppressed();
+                }
+            }
+        }
+        return suppressed;
+    }
+
+    /**
+     * Cumulative totals of one endpoint over all its status codes.
+     */
+    private static final class Totals {
+
+        long count;
+        double totalNanos;
+        long errors;
+        double maxMillis;
+
+        void add(long count, double totalNanos, long errors, double maxMillis) {
+            this.count += count;
+            this.totalNanos += totalNanos;
+            this.errors += errors;
+            this.maxMillis = Math.max(this.maxMillis, maxMillis);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.cursordemo.metrics;
+
+import com.cursordemo.dto.BookPageDTO;
+import com.cursordemo.exception.BookNotFoundException;
+import com.cursordemo.exception.DuplicateIsbnException;
+import com.cursordemo.exception.ValidationException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Times every call made through the {@link com.cursordemo.service.BookService}
+ * interface.
+ * 
+ * Each call is recorded in the {@code books.service} timer, tagged with the
+ * method name and an outcome: found, not-found, conflict, invalid or error.
+ * Duplicate ISBNs and optimistic locking failures both count as conflicts.
+ * Calls that return a list of books also record the number of rows in the
+ * {@code books.service.rows} summary, which shows which searches return the
+ * most data.
+ * 
+ * It runs outside {@link com.cursordemo.coalescing.CoalescingAspect}, so a
+ * call that waited for a shared result is timed like any other. Meters are
+ * registered once per method and outcome and then looked up in a map, since
+ * building and registering them costs more than the recording itself.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+public class BookServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> rowSummaries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.cursordemo.service.BookService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "found";
+        try {
+            Object result = joinPoint.proceed();
+            recordRows(method, result);
+            return result;
+        } catch (Throwable ex) {
+            outcome = outcomeOf(ex);
+            throw ex;
+        } finally {
+            sample.stop(timers.computeIfAbsent(new MeterKey(method, outcome), this::newTimer));
+        }
+    }
+
+    private Timer newTimer(MeterKey key) {
+        return Timer.builder("books.service")
+                .description("Time spent in BookService methods")
+                .tag("method", key.method())
+                .tag("outcome", key.outcome())
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary newRowSummary(String method) {
+        return DistributionSummary.builder("books.service.rows")
+                .description("Books returned by BookService methods that return lists")
+                .baseUnit("rows")
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    private void recordRows(String method, Object result) {
+        int rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof BookPageDTO page) {
+            rows = page.getBooks().size();
+        } else {
+            return;
+        }
+        rowSummaries.computeIfAbsent(method, this::newRowSummary).record(rows);
+    }
+
+    private static String outcomeOf(Throwable ex) {
+        if (ex instanceof BookNotFoundException) {
+            return "not-found";
+        }
+        if (ex instanceof DuplicateIsbnException || ex instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        }
+        if (ex instanceof ValidationException || ex instanceof IllegalArgumentException) {
+            return "invalid";
+        }
+        return "error";
+    }
+
+    private record MeterKey(String method, String outcome) {
+    }
+}
@@ -0,0 +1,398 @@
+package com.cursordemo.persistence;
+
+import com.cursordemo.config.BookProperties;
+import com.cursordemo.entity.Book;
+import com.cursordemo.event.BookChangedEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Makes the in-memory books table survive restarts.
+ * 
+ * The change log is a write-ahead log: every change is appended to the
+ * current segment, and forced to the device with {@code sync-on-write}, before
+ * its transaction commits, and a failed append fails the transaction, so no
+ * change is acknowledged without being logged. If the transaction still rolls
+ * back after the append, the book's committed state is logged after it.
+ * 
+ * Periodically, and on shutdown, the log is rotated and the whole table is
+ * written to a compact {@link SnapshotFile}; segments and snapshots it
+ * supersedes are then deleted. On startup, once every bean is created and
+ * before the web server accepts requests or the indexes are built, the latest
+ * snapshot replaces the sample data and the segments written after it are
+ * replayed, so no request can read the sample data or write a change that the
+ * restore then wipes.
+ * 
+ * Replay is idempotent (rows are merged by ID), because changes that commit
+ * while a snapshot is being written may be both in the snapshot and in the log.
+ * The restore commits every batch of rows on its own: a single transaction of
+ * a million rows makes H2 spend longer on the commit than on the inserts. A
+ * failed restore fails the startup, and the database lives in memory, so no
+ * partial restore outlives the process.
+ * 
+ * Enabled by {@code books.persistence.enabled}, which the {@code durable}
+ * profile sets.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(prefix = "books.persistence", name = "enabled", havingValue = "true")
+public class BookPersistenceManager implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookPersistenceManager.class);
+
+    private static final Pattern SNAPSHOT = Pattern.compile("snapshot-(\\d+)\\.bin");
+    private static final Pattern SEGMENT = Pattern.compile("changes-(\\d+)\\.log");
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private static final String INSERT = "INSERT INTO books (" + BookRow.COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String MERGE =
+            "MERGE INTO books (" + BookRow.COLUMNS + ") KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT = "SELECT " + BookRow.COLUMNS + " FROM books ORDER BY id";
+    private static final String SELECT_FOR_UPDATE = "SELECT " + BookRow.COLUMNS + " FROM books WHERE id = ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final BookProperties.Persistence settings;
+    private final Path directory;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-snapshots");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final ReentrantLock logLock = new ReentrantLock();
+
+    /**
+     * Held shared from a change's append until its transaction completes and
+     * exclusively while the log is rotated, so a change logged in a segment
+     * that a snapshot supersedes has committed before the snapshot reads the table.
+     */
+    private final ReentrantReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private ChangeLog log;
+    private long segment;
+
+    @Autowired
+    public BookPersistenceManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  BookProperties bookProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.settings = bookProperties.getPersistence();
+        this.directory = settings.getDirectory();
+    }
+
+    /**
+     * Restore the table before the web server starts.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Restoring the books table failed", ex);
+        }
+    }
+
+    /**
+     * Restore the table, then start a fresh log segment and the snapshot schedule.
+     */
+    void start() throws IOException {
+        Files.createDirectories(directory);
+        Long maxId = restore();
+        if (maxId != null) {
+            jdbcTemplate.execute("ALTER SEQUENCE books_seq RESTART WITH " + (maxId + Book.ID_ALLOCATION_SIZE));
+        }
+
+        long latest = Math.max(highest(SNAPSHOT), highest(SEGMENT));
+        logLock.lock();
+        try {
+            segment = latest + 1;
+            log = ChangeLog.open(segmentPath(segment), settings.isSyncOnWrite());
+        } finally {
+            logLock.unlock();
+        }
+        long interval = settings.getSnapshotInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Append a change to the log before its transaction commits. A failed
+     * append throws, so the transaction rolls back instead of committing a
+     * change the log does not hold.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        if (inTransaction) {
+            // The logged row needs the version and timestamps the flush assigns, and a flush that
+            // fails must fail before anything is logged
+            entityManager.flush();
+        }
+        commitLock.readLock().lock();
+        try {
+            append(event);
+        } catch (RuntimeException ex) {
+            commitLock.readLock().unlock();
+            throw ex;
+        }
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    commitLock.readLock().unlock();
+                }
+            });
+        } else {
+            commitLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Log the committed state of a book whose change was logged but then
+     * rolled back, so replay does not restore a change that never committed.
+     * The row stays locked until the state is logged, so a concurrent change
+     * to the book cannot be logged in between.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onBookChangeRolledBack(BookChangedEvent event) {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                List<BookRow> rows = jdbcTemplate.query(SELECT_FOR_UPDATE,
+                        (resultSet, rowNumber) -> BookRow.of(resultSet), event.getBookId());
+                logLock.lock();
+                try {
+                    if (log == null) {
+                        return;
+                    }
+                    if (rows.isEmpty()) {
+                        log.appendDeleted(event.getBookId());
+                    } else {
+                        log.appendSaved(rows.get(0));
+                    }
+                } finally {
+                    logLock.unlock();
+                }
+            });
+        } catch (RuntimeException ex) {
+            logger.error("Failed to log the committed state of book {} after a rollback", event.getBookId(), ex);
+        }
+    }
+
+    private void append(BookChangedEvent event) {
+        logLock.lock();
+        try {
+            if (log == null) {
+                throw new IllegalStateException("Change log is not open, " + event + " cannot be persisted");
+            }
+            if (event.getType() == BookChangedEvent.Type.SAVED) {
+                log.appendSaved(BookRow.of(event.getBook()));
+            } else {
+                log.appendDeleted(event.getBookId());
+            }
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    /**
+     * Rotate the log, write a snapshot of the table and delete the files it supersedes.
+     * 
+     * @return the number of books in the snapshot
+     */
+    public long snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            long started = System.nanoTime();
+            long firstSegment;
+            commitLock.writeLock().lock();
+            logLock.lock();
+            try {
+                log.close();
+                segment++;
+                log = ChangeLog.open(segmentPath(segment), settings.isSyncOnWrite());
+                firstSegment = segment;
+            } finally {
+                logLock.unlock();
+                commitLock.writeLock().unlock();
+            }
+
+            Path target = directory.resolve(String.format("snapshot-%010d.bin", firstSegment));
+            long rows = SnapshotFile.write(target, firstSegment, writer -> jdbcTemplate.query(SELECT, resultSet -> {
+                try {
+                    writer.write(BookRow.of(resultSet));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+            deleteBefore(firstSegment);
+            logger.info("Wrote snapshot of {} books to {} in {} ms",
+                    rows, target, (System.nanoTime() - started) / 1_000_000);
+            return rows;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        scheduler.shutdownNow();
+        if (settings.isSnapshotOnShutdown() && log != null) {
+            snapshotQuietly();
+        }
+        logLock.lock();
+        try {
+            if (log != null) {
+                log.close();
+                log = null;
+            }
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    /**
+     * Load the latest snapshot and replay the log segments written after it.
+     * 
+     * @return the highest book ID after the restore, or null if there was nothing to restore
+     */
+    private Long restore() throws IOException {
+        long started = System.nanoTime();
+        long snapshotSegment = highest(SNAPSHOT);
+        long firstSegment = 0;
+        long restored = 0;
+        if (snapshotSegment >= 0) {
+            Path snapshot = directory.resolve(String.format("snapshot-%010d.bin", snapshotSegment));
+            firstSegment = SnapshotFile.readFirstSegment(snapshot);
+            jdbcTemplate.update("DELETE FROM books");
+            List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+            restored = SnapshotFile.read(snapshot, row -> {
+                batch.add(row.toArguments());
+                if (batch.size() == INSERT_BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(INSERT, batch);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT, batch);
+            }
+        }
+
+        long replayed = 0;
+        for (long number : segmentsFrom(firstSegment)) {
+            replayed += ChangeLog.replay(segmentPath(number), new ChangeLog.Replay() {
+                @Override
+                public void saved(BookRow row) {
+                    merge(row);
+                }
+
+                @Override
+                public void deleted(long id) {
+                    jdbcTemplate.update("DELETE FROM books WHERE id = ?", id);
+                }
+            });
+        }
+
+        if (snapshotSegment < 0 && replayed == 0) {
+            return null;
+        }
+        logger.info("Restored {} books from snapshot and replayed {} changes in {} ms",
+                restored, replayed, (System.nanoTime() - started) / 1_000_000);
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM books", Long.class);
+    }
+
+    /**
+     * Insert or replace a row. The snapshot may already hold a later state in
+     * which another book owns this ISBN; that book's own later change is in the
+     * log, so it is removed here and restored when its record is replayed.
+     */
+    private void merge(BookRow row) {
+        try {
+            jdbcTemplate.update(MERGE, row.toArguments());
+        } catch (DuplicateKeyException ex) {
+            jdbcTemplate.update("DELETE FROM books WHERE isbn = ? AND id <> ?", row.isbn(), row.id());
+            jdbcTemplate.update(MERGE, row.toArguments());
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException ex) {
+            logger.error("Writing book snapshot failed, keeping the change log", ex);
+        }
+    }
+
+    private void deleteBefore(long firstSegment) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                long number = numberOf(file, SNAPSHOT);
+                if (number < 0) {
+                    number = numberOf(file, SEGMENT);
+                }
+                if (number >= 0 && number < firstSegment) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private List<Long> segmentsFrom(long first) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> numberOf(file, SEGMENT))
+                    .filter(number -> number >= first)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private long highest(Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.mapToLong(file -> numberOf(file, pattern)).max().orElse(-1);
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("changes-%010d.log", number));
+    }
+
+    private static long numberOf(Path file, Pattern pattern) {
+        Matcher matcher = pattern.matcher(file.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+}
@@ -0,0 +1,82 @@
+package com.cursordemo.persistence;
+
+import com.cursordemo.entity.Book;
+import com.cursordemo.util.BookValues;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * One row of the books table in the binary form used by snapshots and the
+ * change log.
+ * 
+ * Prices are stored as long cents and timestamps as epoch microseconds (see
+ * {@link BookValues}), the precision of the table, so a row survives a round
+ * trip unchanged. The version is kept too, so optimistic locking and the
+ * listeners that order changes by version continue where they left off.
+ * Strings are a length-prefixed UTF-8 byte sequence.
+ */
+record BookRow(long id, String title, String author, String isbn, long priceCents,
+               long createdAtMicros, long updatedAtMicros, long version) {
+
+    /**
+     * Columns in the order of {@link #toArguments()}.
+     */
+    static final String COLUMNS = "id, title, author, isbn, price, created_at, updated_at, version";
+
+    static BookRow of(Book book) {
+        return new BookRow(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(),
+                BookValues.toCents(book.getPrice()),
+                BookValues.toMicros(book.getCreatedAt()), BookValues.toMicros(book.getUpdatedAt()),
+                book.getVersion() != null ? book.getVersion() : 0);
+    }
+
+    static BookRow of(ResultSet resultSet) throws SQLException {
+        return new BookRow(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3),
+                resultSet.getString(4), BookValues.toCents(resultSet.getBigDecimal(5)),
+                BookValues.toMicros(resultSet.getTimestamp(6).toLocalDateTime()),
+                BookValues.toMicros(resultSet.getTimestamp(7).toLocalDateTime()), resultSet.getLong(8));
+    }
+
+    static BookRow read(ByteBuffer buffer) {
+        return new BookRow(buffer.getLong(), readString(buffer), readString(buffer), readString(buffer),
+                buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    void write(DataOutput output) throws IOException {
+        output.writeLong(id);
+        writeString(output, title);
+        writeString(output, author);
+        writeString(output, isbn);
+        output.writeLong(priceCents);
+        output.writeLong(createdAtMicros);
+        output.writeLong(updatedAtMicros);
+        output.writeLong(version);
+    }
+
+    /**
+     * JDBC arguments for the columns in {@link #COLUMNS}.
+     */
+    Object[] toArguments() {
+        return new Object[]{id, title, author, isbn, BookValues.fromCents(priceCents),
+                Timestamp.valueOf(BookValues.fromMicros(createdAtMicros)),
+                Timestamp.valueOf(BookValues.fromMicros(updatedAtMicros)), version};
+    }
+
+    private static void writeString(DataOutput output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,137 @@
+package com.cursordemo.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * One append-only segment of the book change log.
+ * 
+ * Each record is a length, a CRC-32 of the payload and the payload: a type
+ * byte followed by a {@link BookRow} for a saved book or the ID of a deleted
+ * one. Replay stops at the first incomplete or corrupt record, which can only
+ * be the tail of a write interrupted by a crash.
+ */
+final class ChangeLog implements AutoCloseable {
+
+    private static final byte SAVED = 1;
+    private static final byte DELETED = 2;
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    private final FileChannel channel;
+    private final boolean sync;
+
+    private ChangeLog(FileChannel channel, boolean sync) {
+        this.channel = channel;
+        this.sync = sync;
+    }
+
+    /**
+     * Receives the changes of a segment during replay.
+     */
+    interface Replay {
+
+        void saved(BookRow row);
+
+        void deleted(long id);
+    }
+
+    /**
+     * Open a segment for appending, creating it if needed.
+     * 
+     * @param segment the segment file
+     * @param sync whether every append is forced to the storage device
+     */
+    static ChangeLog open(Path segment, boolean sync) throws IOException {
+        return new ChangeLog(FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND), sync);
+    }
+
+    void appendSaved(BookRow row) {
+        append(SAVED, output -> row.write(output));
+    }
+
+    void appendDeleted(long id) {
+        append(DELETED, output -> output.writeLong(id));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.force(true);
+        channel.close();
+    }
+
+    /**
+     * Replay every complete record of a segment in order.
+     * 
+     * @param segment the segment file
+     * @param replay receives the changes
+     * @return the number of records replayed
+     */
+    static long replay(Path segment, Replay replay) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            long count = 0;
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                buffer.position(buffer.position() + length);
+
+                byte type = payload.get();
+                if (type == SAVED) {
+                    replay.saved(BookRow.read(payload));
+                } else if (type == DELETED) {
+                    replay.deleted(payload.getLong());
+                } else {
+                    break;
+                }
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private void append(byte type, PayloadWriter writer) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeByte(type);
+            writer.write(output);
+            byte[] payload = bytes.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+            record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private interface PayloadWriter {
+        void write(DataOutputStream output) throws IOException;
+    }
+}
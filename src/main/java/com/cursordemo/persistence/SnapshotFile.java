@@ -0,0 +1,151 @@
+package com.cursordemo.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary snapshot of the books table.
+ * 
+ * Layout: an 8-byte magic, the number of the first change log segment that
+ * must be replayed on top of the snapshot, the {@link BookRow}s in ID order,
+ * and a footer with the row count and an end marker. A snapshot is written to
+ * a temporary file and renamed into place, so a crash never leaves a partial
+ * snapshot behind. It is read through memory-mapped windows, so loading does
+ * not copy the file through the Java heap.
+ */
+final class SnapshotFile {
+
+    private static final long MAGIC = 0x424B534E41503032L; // "BKSNAP02", rows with their version
+    private static final long END = 0x424B534E4150454EL; // "BKSNAPEN"
+    private static final int HEADER_BYTES = 16;
+    private static final int FOOTER_BYTES = 16;
+    private static final long WINDOW_BYTES = 256L * 1024 * 1024;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Receives rows to write into a snapshot.
+     */
+    interface RowSource {
+        void forEach(RowWriter writer) throws IOException;
+    }
+
+    /**
+     * Writes one row into the snapshot being built.
+     */
+    interface RowWriter {
+        void write(BookRow row) throws IOException;
+    }
+
+    /**
+     * Write a snapshot atomically.
+     * 
+     * @param target the snapshot file to create or replace
+     * @param firstSegment the first change log segment not covered by the snapshot
+     * @param rows supplies every row of the table
+     * @return the number of rows written
+     */
+    static long write(Path target, long firstSegment, RowSource rows) throws IOException {
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        long[] count = new long[1];
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream output = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            output.writeLong(MAGIC);
+            output.writeLong(firstSegment);
+            rows.forEach(row -> {
+                row.write(output);
+                count[0]++;
+            });
+            output.writeLong(count[0]);
+            output.writeLong(END);
+            output.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count[0];
+    }
+
+    /**
+     * Read the number of the first change log segment to replay after a snapshot.
+     */
+    static long readFirstSegment(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getLong() != MAGIC) {
+                throw new IOException("Not a book snapshot: " + snapshot);
+            }
+            return header.getLong();
+        }
+    }
+
+    /**
+     * Read every row of a snapshot.
+     * 
+     * @param snapshot the snapshot file
+     * @param consumer receives the rows in ID order
+     * @return the number of rows read
+     * @throws IOException if the file cannot be read or is not a complete snapshot
+     */
+    static long read(Path snapshot, Consumer<BookRow> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + FOOTER_BYTES) {
+                throw new IOException("Truncated book snapshot: " + snapshot);
+            }
+            MappedByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, size - FOOTER_BYTES, FOOTER_BYTES);
+            long expected = footer.getLong();
+            if (footer.getLong() != END) {
+                throw new IOException("Incomplete book snapshot: " + snapshot);
+            }
+
+            long end = size - FOOTER_BYTES;
+            long position = HEADER_BYTES;
+            long count = 0;
+            MappedByteBuffer window = null;
+            long windowStart = 0;
+            while (position < end) {
+                if (window == null || position - windowStart >= window.limit()) {
+                    windowStart = position;
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_BYTES, end - position));
+                }
+                window.position((int) (position - windowStart));
+                BookRow row;
+                try {
+                    row = BookRow.read(window);
+                } catch (BufferUnderflowException ex) {
+                    if (windowStart + window.limit() >= end) {
+                        throw new IOException("Corrupt book snapshot: " + snapshot, ex);
+                    }
+                    // The row straddles the window; map a new one starting at the row
+                    window = null;
+                    continue;
+                }
+                position = windowStart + window.position();
+                consumer.accept(row);
+                count++;
+            }
+            if (count != expected) {
+                throw new IOException("Book snapshot " + snapshot + " has " + count + " rows, expected " + expected);
+            }
+            return count;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.cursordemo.repository;
 
 import com.cursordemo.entity.Book;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,10 +16,12 @@ import java.util.Optional;
  * Repository interface for Book entity.
  * 
  * Provides data access methods for Book operations including
- * CRUD operations and custom search queries.
+ * CRUD operations and custom search queries. Combined filters are
+ * specification queries built from {@link BookSpecifications}.
  */
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>,
+        BookRepositoryCustom {
 
     /**
      * Find a book by its ISBN.
@@ -34,31 +39,70 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      */
     boolean existsByIsbn(String isbn);
 
+    /**
+     * Find which of the given ISBNs are already taken, in a single query.
+     * 
+     * @param isbns the ISBNs to check
+     * @return the ISBNs that belong to existing books
+     */
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    /**
+     * Find the next page of books after the given ID (keyset pagination).
+     * 
+     * Runs as a bounded range scan on the primary key, so the cost is the
+     * same for every page regardless of how deep into the catalog it is.
+     * 
+     * @param afterId the last ID of the previous page (exclusive)
+     * @param limit maximum number of books to return
+     * @return books with ID greater than afterId, ordered by ID
+     */
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
     /**
      * Find books by author name (case-insensitive).
      * 
+     * Compares against the lowercase author column, so the column is not
+     * lowercased row by row. LIKE wildcards in the search text match literally.
+     * The derived-style name is explained at {@link #findByTitleIgnoreCaseContaining}.
+     * 
      * @param author the author name to search for
      * @return list of books by the specified author
      */
-    List<Book> findByAuthorIgnoreCaseContaining(String author);
+    @Query("SELECT b FROM Book b WHERE b.authorLower " +
+           "LIKE LOWER(CONCAT('%', :#{escape(#author)}, '%')) ESCAPE :#{escapeCharacter()}")
+    List<Book> findByAuthorIgnoreCaseContaining(@Param("author") String author);
 
     /**
      * Find books by title (case-insensitive).
      * 
+     * Compares against the lowercase title column, so the column is not
+     * lowercased row by row. LIKE wildcards in the search text match literally.
+     * 
+     * The name is that of the derived query this replaced, kept so callers did
+     * not change; the {@code @Query} takes precedence over query derivation.
+     * 
      * @param title the title to search for
      * @return list of books with matching title
      */
-    List<Book> findByTitleIgnoreCaseContaining(String title);
+    @Query("SELECT b FROM Book b WHERE b.titleLower " +
+           "LIKE LOWER(CONCAT('%', :#{escape(#title)}, '%')) ESCAPE :#{escapeCharacter()}")
+    List<Book> findByTitleIgnoreCaseContaining(@Param("title") String title);
 
     /**
      * Find books by title or author (case-insensitive).
      * 
+     * Compares against the lowercase columns and matches LIKE wildcards in
+     * the search text literally, like the title and author searches.
+     * 
      * @param title the title to search for
      * @param author the author to search for
      * @return list of books matching either title or author
      */
-    @Query("SELECT b FROM Book b WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%')) " +
-           "OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%'))")
+    @Query("SELECT b FROM Book b " +
+           "WHERE b.titleLower LIKE LOWER(CONCAT('%', :#{escape(#title)}, '%')) ESCAPE :#{escapeCharacter()} " +
+           "OR b.authorLower LIKE LOWER(CONCAT('%', :#{escape(#author)}, '%')) ESCAPE :#{escapeCharacter()}")
     List<Book> findByTitleOrAuthorContaining(@Param("title") String title, @Param("author") String author);
 
     /**
@@ -72,6 +116,15 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     List<Book> findByPriceBetween(@Param("minPrice") java.math.BigDecimal minPrice, 
                                   @Param("maxPrice") java.math.BigDecimal maxPrice);
 
+    /**
+     * Count books within a price range.
+     * 
+     * @param minPrice minimum price (inclusive)
+     * @param maxPrice maximum price (inclusive)
+     * @return number of books within the price range
+     */
+    long countByPriceBetween(java.math.BigDecimal minPrice, java.math.BigDecimal maxPrice);
+
     /**
      * Find books with price less than or equal to the specified price.
      * 
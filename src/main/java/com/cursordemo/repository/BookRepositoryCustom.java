@@ -0,0 +1,124 @@
+package com.cursordemo.repository;
+
+import com.cursordemo.entity.Book;
+import com.cursordemo.entity.BookView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Custom repository operations for Book that need the Hibernate session.
+ */
+public interface BookRepositoryCustom {
+
+    /**
+     * Load a book by its ISBN natural id.
+     * 
+     * Unlike {@link BookRepository#findByIsbn(String)}, which always runs a
+     * query, this resolves the ISBN through the natural-id cache and loads the
+     * book through the entity cache, so a cached book needs no database access.
+     * 
+     * @param isbn the ISBN to look up
+     * @return Optional containing the book if found
+     */
+    Optional<Book> findByNaturalIsbn(String isbn);
+
+    /**
+     * Resolve an ISBN natural id to the book's ID.
+     * 
+     * A resolution held in the natural-id cache is answered without loading
+     * the book; otherwise the book is loaded as by {@link #findByNaturalIsbn(String)}.
+     * 
+     * @param isbn the ISBN to look up
+     * @return Optional containing the ID if a book has this ISBN
+     */
+    Optional<Long> findIdByNaturalIsbn(String isbn);
+
+    /**
+     * Load many books by ID in one round trip.
+     * 
+     * Books already in the persistence context or the second-level cache are
+     * taken from there; the rest are loaded with a single IN query.
+     * 
+     * @param ids the IDs to load
+     * @return one element per requested ID, in request order, null where no book exists
+     */
+    List<Book> findAllByIdsInOrder(List<Long> ids);
+
+    /**
+     * Load many books by ISBN natural id in one round trip.
+     * 
+     * All ISBNs are looked up with a single IN query; the matching books are
+     * then put back in request order.
+     * 
+     * @param isbns the ISBNs to load
+     * @return one element per requested ISBN, in request order, null where no book exists
+     */
+    List<Book> findAllByNaturalIsbnsInOrder(List<String> isbns);
+
+    /**
+     * Stream all books ordered by ID over a forward-only cursor.
+     * 
+     * Rows are fetched from the database in batches of {@code fetchSize} and
+     * loaded read-only, so no dirty-checking snapshots are kept, and bypass the
+     * second-level cache, so a full scan does not evict its entries. The stream
+     * must be consumed and closed inside a transaction; callers should clear the
+     * persistence context periodically to keep memory use constant.
+     * 
+     * @param fetchSize number of rows the JDBC driver fetches per round trip
+     * @return stream of all books
+     */
+    Stream<Book> streamAllByOrderByIdAsc(int fetchSize);
+
+    /**
+     * Find books whose title starts with the given prefix, ignoring case.
+     * 
+     * The prefix becomes a range on the indexed lowercase title column, which
+     * the database answers with an index range scan instead of a table scan.
+     * 
+     * @param prefix the start of the title
+     * @param limit maximum number of books to return
+     * @return matching books ordered by lowercase title, then ID
+     */
+    List<Book> findByTitlePrefix(String prefix, Limit limit);
+
+    /**
+     * Find books whose author starts with the given prefix, ignoring case.
+     * 
+     * Answered with an index range scan like {@link #findByTitlePrefix(String, Limit)}.
+     * 
+     * @param prefix the start of the author name
+     * @param limit maximum number of books to return
+     * @return matching books ordered by lowercase author, then ID
+     */
+    List<Book> findByAuthorPrefix(String prefix, Limit limit);
+
+    /**
+     * Read some fields of the books with the given IDs in one query.
+     * 
+     * Only the selected columns are read and no entities are created, so
+     * nothing enters the persistence context or the second-level cache.
+     * 
+     * @param ids the IDs to read
+     * @param fields the fields to read, among {@link BookView#FIELDS}
+     * @return the books found, in no particular order, with null for the fields not read
+     */
+    List<BookView> findViewsById(Collection<Long> ids, Collection<String> fields);
+
+    /**
+     * Read some fields of the books matching a specification, like
+     * {@link #findViewsById(Collection, Collection)}.
+     * 
+     * @param filter the criteria, or null for all books
+     * @param sort the order of the books
+     * @param limit maximum number of books to return
+     * @param fields the fields to read, among {@link BookView#FIELDS}
+     * @return the matching books in order, with null for the fields not read
+     */
+    List<BookView> findViews(Specification<Book> filter, Sort sort, Limit limit, Collection<String> fields);
+}
@@ -0,0 +1,123 @@
+package com.cursordemo.repository;
+
+import com.cursordemo.entity.Book;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Criteria for {@link BookRepository#findBy} and the other specification
+ * queries, written so the database can answer each from an index.
+ * 
+ * Each factory returns null when its arguments leave the criterion open, and
+ * {@link Specification#allOf} ignores null specifications, so a query is the
+ * conjunction of whatever the caller passed. Substring searches compare the
+ * lowercase shadow columns like the repository's own searches, and prefixes
+ * become ranges on the lowercase column indexes or the unique ISBN index.
+ */
+public final class BookSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private BookSpecifications() {}
+
+    public static Specification<Book> titleContains(String title) {
+        return containsIgnoreCase("titleLower", title);
+    }
+
+    public static Specification<Book> authorContains(String author) {
+        return containsIgnoreCase("authorLower", author);
+    }
+
+    /**
+     * Books whose title or author contains its text, or no books when both
+     * texts are absent.
+     */
+    public static Specification<Book> titleOrAuthorContains(String title, String author) {
+        Specification<Book> byTitle = titleContains(title);
+        Specification<Book> byAuthor = authorContains(author);
+        return (root, query, cb) -> cb.or(Stream.of(byTitle, byAuthor)
+                .filter(Objects::nonNull)
+                .map(criterion -> criterion.toPredicate(root, query, cb))
+                .toArray(Predicate[]::new));
+    }
+
+    public static Specification<Book> titleStartsWith(String prefix) {
+        return prefix == null || prefix.isBlank() ? null : startsWith("titleLower", prefix.toLowerCase(Locale.ROOT));
+    }
+
+    public static Specification<Book> authorStartsWith(String prefix) {
+        return prefix == null || prefix.isBlank() ? null : startsWith("authorLower", prefix.toLowerCase(Locale.ROOT));
+    }
+
+    public static Specification<Book> isbnStartsWith(String prefix) {
+        return prefix == null || prefix.isBlank() ? null : startsWith("isbn", prefix);
+    }
+
+    public static Specification<Book> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return between("price", minPrice, maxPrice);
+    }
+
+    public static Specification<Book> updatedBetween(LocalDateTime from, LocalDateTime to) {
+        return between("updatedAt", from, to);
+    }
+
+    public static Specification<Book> idGreaterThan(Long id) {
+        return id == null ? null : (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<Book> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    private static Specification<Book> containsIgnoreCase(String attribute, String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + escape(text.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(root.get(attribute), pattern, ESCAPE);
+    }
+
+    private static Specification<Book> startsWith(String attribute, String prefix) {
+        String to = BookRepositoryCustomImpl.successor(prefix);
+        return (root, query, cb) -> to != null
+                ? cb.and(cb.greaterThanOrEqualTo(root.get(attribute), prefix), cb.lessThan(root.get(attribute), to))
+                : cb.greaterThanOrEqualTo(root.get(attribute), prefix);
+    }
+
+    private static <T extends Comparable<? super T>> Specification<Book> between(String attribute, T min, T max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (min == null) {
+                return cb.lessThanOrEqualTo(root.get(attribute), max);
+            }
+            if (max == null) {
+                return cb.greaterThanOrEqualTo(root.get(attribute), min);
+            }
+            return cb.between(root.get(attribute), min, max);
+        };
+    }
+
+    /**
+     * Escape the LIKE wildcards in a search text so they match literally.
+     */
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,503 @@
+package com.cursordemo.repository.memory;
+
+import com.cursordemo.entity.Book;
+import com.cursordemo.entity.BookView;
+import com.cursordemo.index.PriceIndex;
+import com.cursordemo.index.TrigramIndex;
+import com.cursordemo.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * {@link BookRepository} that answers reads from {@link InMemoryBookStore}.
+ * 
+ * Active with the {@code inmemory} profile, for read replicas that should not
+ * touch the database on the read path. Writes, streaming, the
+ * example/specification/sort/page queries and views by specification go to
+ * the JPA repository, which stays the system of record; the store picks up
+ * each change once it commits, like the indexes.
+ * Until the store has loaded, every call goes to JPA.
+ * 
+ * Writes must go through {@link com.cursordemo.service.BookService}, which
+ * publishes the change events the store depends on.
+ */
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryBookRepository implements BookRepository {
+
+    private static final Comparator<BookSnapshot> BY_PRICE =
+            Comparator.comparingLong(BookSnapshot::priceCents).thenComparingLong(BookSnapshot::id);
+
+    private final BookRepository jpaRepository;
+    private final InMemoryBookStore store;
+    private final TrigramIndex trigramIndex;
+    private final PriceIndex priceIndex;
+
+    @Autowired
+    public InMemoryBookRepository(@Qualifier("bookRepository") BookRepository jpaRepository, InMemoryBookStore store,
+                                  TrigramIndex trigramIndex, PriceIndex priceIndex) {
+        this.jpaRepository = jpaRepository;
+        this.store = store;
+        this.trigramIndex = trigramIndex;
+        this.priceIndex = priceIndex;
+    }
+
+    // Reads served from memory
+
+    @Override
+    public Optional<Book> findById(Long id) {
+        if (!store.isReady()) {
+            return jpaRepository.findById(id);
+        }
+        return Optional.ofNullable(store.get(id)).map(BookSnapshot::toBook);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.isReady() ? store.get(id) != null : jpaRepository.existsById(id);
+    }
+
+    @Override
+    public List<Book> findAllById(Iterable<Long> ids) {
+        if (!store.isReady()) {
+            return jpaRepository.findAllById(ids);
+        }
+        Set<Long> distinct = new LinkedHashSet<>();
+        ids.forEach(distinct::add);
+        return toBooks(distinct);
+    }
+
+    @Override
+    public List<Book> findAllByIdsInOrder(List<Long> ids) {
+        if (!store.isReady()) {
+            return jpaRepository.findAllByIdsInOrder(ids);
+        }
+        List<Book> books = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BookSnapshot snapshot = store.get(id);
+            books.add(snapshot != null ? snapshot.toBook() : null);
+        }
+        return books;
+    }
+
+    @Override
+    public List<BookView> findViewsById(Collection<Long> ids, Collection<String> fields) {
+        if (!store.isReady()) {
+            return jpaRepository.findViewsById(ids, fields);
+        }
+        // The store holds whole rows, so every field is read at no extra cost
+        return new ArrayList<>(toBooks(new LinkedHashSet<>(ids)));
+    }
+
+    @Override
+    public List<Book> findAll() {
+        if (!store.isReady()) {
+            return jpaRepository.findAll();
+        }
+        return store.all().stream().map(BookSnapshot::toBook).toList();
+    }
+
+    @Override
+    public long count() {
+        return store.isReady() ? store.size() : jpaRepository.count();
+    }
+
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        if (!store.isReady()) {
+            return jpaRepository.findByIsbn(isbn);
+        }
+        return Optional.ofNullable(store.getByIsbn(isbn)).map(BookSnapshot::toBook);
+    }
+
+    @Override
+    public Optional<Book> findByNaturalIsbn(String isbn) {
+        if (!store.isReady()) {
+            return jpaRepository.findByNaturalIsbn(isbn);
+        }
+        return Optional.ofNullable(store.getByIsbn(isbn)).map(BookSnapshot::toBook);
+    }
+
+    @Override
+    public Optional<Long> findIdByNaturalIsbn(String isbn) {
+        if (!store.isReady()) {
+            return jpaRepository.findIdByNaturalIsbn(isbn);
+        }
+        return Optional.ofNullable(store.getByIsbn(isbn)).map(BookSnapshot::id);
+    }
+
+    @Override
+    public List<Book> findAllByNaturalIsbnsInOrder(List<String> isbns) {
+        if (!store.isReady()) {
+            return jpaRepository.findAllByNaturalIsbnsInOrder(isbns);
+        }
+        List<Book> books = new ArrayList<>(isbns.size());
+        for (String isbn : isbns) {
+            BookSnapshot snapshot = store.getByIsbn(isbn);
+            books.add(snapshot != null ? snapshot.toBook() : null);
+        }
+        return books;
+    }
+
+    @Override
+    public boolean existsByIsbn(String isbn) {
+        return store.isReady() ? store.getByIsbn(isbn) != null : jpaRepository.existsByIsbn(isbn);
+    }
+
+    @Override
+    public List<String> findExistingIsbns(Collection<String> isbns) {
+        if (!store.isReady()) {
+            return jpaRepository.findExistingIsbns(isbns);
+        }
+        return isbns.stream()
+                .distinct()
+                .filter(isbn -> store.getByIsbn(isbn) != null)
+                .toList();
+    }
+
+    @Override
+    public List<Book> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit) {
+        if (!store.isReady()) {
+            return jpaRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit);
+        }
+        Stream<BookSnapshot> page = store.byId().tailMap(afterId, false).values().stream();
+        if (limit.isLimited()) {
+            page = page.limit(limit.max());
+        }
+        return page.map(BookSnapshot::toBook).toList();
+    }
+
+    @Override
+    public List<Book> findByTitleIgnoreCaseContaining(String title) {
+        if (!store.isReady()) {
+            return jpaRepository.findByTitleIgnoreCaseContaining(title);
+        }
+        return search(trigramIndex.searchTitle(title), snapshot -> containsIgnoreCase(snapshot.title(), title));
+    }
+
+    @Override
+    public List<Book> findByAuthorIgnoreCaseContaining(String author) {
+        if (!store.isReady()) {
+            return jpaRepository.findByAuthorIgnoreCaseContaining(author);
+        }
+        return search(trigramIndex.searchAuthor(author), snapshot -> containsIgnoreCase(snapshot.author(), author));
+    }
+
+    @Override
+    public List<Book> findByTitleOrAuthorContaining(String title, String author) {
+        if (!store.isReady()) {
+            return jpaRepository.findByTitleOrAuthorContaining(title, author);
+        }
+        return search(trigramIndex.searchTitleOrAuthor(title, author),
+                snapshot -> containsIgnoreCase(snapshot.title(), title) || containsIgnoreCase(snapshot.author(), author));
+    }
+
+    @Override
+    public List<Book> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!store.isReady()) {
+            return jpaRepository.findByPriceBetween(minPrice, maxPrice);
+        }
+        return minPrice != null && maxPrice != null ? searchByPrice(minPrice, maxPrice) : List.of();
+    }
+
+    @Override
+    public List<Book> findByPriceLessThanEqualOrderByPrice(BigDecimal maxPrice) {
+        if (!store.isReady()) {
+            return jpaRepository.findByPriceLessThanEqualOrderByPrice(maxPrice);
+        }
+        return maxPrice != null ? searchByPrice(null, maxPrice) : List.of();
+    }
+
+    @Override
+    public List<Book> findByPriceGreaterThanEqualOrderByPrice(BigDecimal minPrice) {
+        if (!store.isReady()) {
+            return jpaRepository.findByPriceGreaterThanEqualOrderByPrice(minPrice);
+        }
+        return minPrice != null ? searchByPrice(minPrice, null) : List.of();
+    }
+
+    @Override
+    public long countByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!store.isReady()) {
+            return jpaRepository.countByPriceBetween(minPrice, maxPrice);
+        }
+        if (minPrice == null || maxPrice == null) {
+            return 0;
+        }
+        Long count = priceIndex.countBetween(minPrice, maxPrice);
+        return count != null ? count : store.all().stream().filter(inPriceRange(minPrice, maxPrice)).count();
+    }
+
+    // Everything else goes to JPA
+
+    @Override
+    public List<Book> findByTitlePrefix(String prefix, Limit limit) {
+        // The store keeps no sorted titles; an index range scan beats scanning every snapshot
+        return jpaRepository.findByTitlePrefix(prefix, limit);
+    }
+
+    @Override
+    public List<Book> findByAuthorPrefix(String prefix, Limit limit) {
+        return jpaRepository.findByAuthorPrefix(prefix, limit);
+    }
+
+    @Override
+    public Stream<Book> streamAllByOrderByIdAsc(int fetchSize) {
+        // Used by the export, which must page through the table with a cursor
+        return jpaRepository.streamAllByOrderByIdAsc(fetchSize);
+    }
+
+    @Override
+    public <S extends Book> S save(S entity) {
+        return jpaRepository.save(entity);
+    }
+
+    @Override
+    public <S extends Book> List<S> saveAll(Iterable<S> entities) {
+        return jpaRepository.saveAll(entities);
+    }
+
+    @Override
+    public <S extends Book> S saveAndFlush(S entity) {
+        return jpaRepository.saveAndFlush(entity);
+    }
+
+    @Override
+    public <S extends Book> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return jpaRepository.saveAllAndFlush(entities);
+    }
+
+    @Override
+    public void flush() {
+        jpaRepository.flush();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        jpaRepository.deleteById(id);
+    }
+
+    @Override
+    public void delete(Book entity) {
+        jpaRepository.delete(entity);
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        jpaRepository.deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Book> entities) {
+        jpaRepository.deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAll() {
+        jpaRepository.deleteAll();
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Book> entities) {
+        jpaRepository.deleteAllInBatch(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        jpaRepository.deleteAllByIdInBatch(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        jpaRepository.deleteAllInBatch();
+    }
+
+    @Override
+    @Deprecated
+    public Book getOne(Long id) {
+        return jpaRepository.getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Book getById(Long id) {
+        return jpaRepository.getReferenceById(id);
+    }
+
+    @Override
+    public Book getReferenceById(Long id) {
+        return jpaRepository.getReferenceById(id);
+    }
+
+    @Override
+    public List<Book> findAll(Sort sort) {
+        return jpaRepository.findAll(sort);
+    }
+
+    @Override
+    public Page<Book> findAll(Pageable pageable) {
+        return jpaRepository.findAll(pageable);
+    }
+
+    @Override
+    public <S extends Book> Optional<S> findOne(Example<S> example) {
+        return jpaRepository.findOne(example);
+    }
+
+    @Override
+    public <S extends Book> List<S> findAll(Example<S> example) {
+        return jpaRepository.findAll(example);
+    }
+
+    @Override
+    public <S extends Book> List<S> findAll(Example<S> example, Sort sort) {
+        return jpaRepository.findAll(example, sort);
+    }
+
+    @Override
+    public <S extends Book> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return jpaRepository.findAll(example, pageable);
+    }
+
+    @Override
+    public <S extends Book> long count(Example<S> example) {
+        return jpaRepository.count(example);
+    }
+
+    @Override
+    public <S extends Book> boolean exists(Example<S> example) {
+        return jpaRepository.exists(example);
+    }
+
+    @Override
+    public <S extends Book, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return jpaRepository.findBy(example, queryFunction);
+    }
+
+    @Override
+    public Optional<Book> findOne(Specification<Book> spec) {
+        return jpaRepository.findOne(spec);
+    }
+
+    @Override
+    public List<Book> findAll(Specification<Book> spec) {
+        return jpaRepository.findAll(spec);
+    }
+
+    @Override
+    public Page<Book> findAll(Specification<Book> spec, Pageable pageable) {
+        return jpaRepository.findAll(spec, pageable);
+    }
+
+    @Override
+    public List<Book> findAll(Specification<Book> spec, Sort sort) {
+        return jpaRepository.findAll(spec, sort);
+    }
+
+    @Override
+    public long count(Specification<Book> spec) {
+        return jpaRepository.count(spec);
+    }
+
+    @Override
+    public boolean exists(Specification<Book> spec) {
+        return jpaRepository.exists(spec);
+    }
+
+    @Override
+    public long delete(Specification<Book> spec) {
+        return jpaRepository.delete(spec);
+    }
+
+    @Override
+    public <S extends Book, R> R findBy(Specification<Book> spec,
+                                        Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return jpaRepository.findBy(spec, queryFunction);
+    }
+
+    @Override
+    public List<BookView> findViews(Specification<Book> filter, Sort sort, Limit limit, Collection<String> fields) {
+        return jpaRepository.findViews(filter, sort, limit, fields);
+    }
+
+    private List<Book> toBooks(Collection<Long> ids) {
+        List<Book> books = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BookSnapshot snapshot = store.get(id);
+            if (snapshot != null) {
+                books.add(snapshot.toBook());
+            }
+        }
+        return books;
+    }
+
+    /**
+     * Resolve index hits, or scan every book when the index cannot answer. Hits
+     * are checked again because the index and the store are updated one after
+     * the other.
+     */
+    private List<Book> search(List<Long> indexHits, Predicate<BookSnapshot> matches) {
+        Stream<BookSnapshot> candidates = indexHits != null
+                ? indexHits.stream().map(store::get).filter(snapshot -> snapshot != null)
+                : store.all().stream();
+        return candidates.filter(matches).map(BookSnapshot::toBook).toList();
+    }
+
+    /**
+     * Books priced within the bounds, cheapest first. A null bound is open here;
+     * callers check for null arguments, which match nothing in SQL.
+     */
+    private List<Book> searchByPrice(BigDecimal minPrice, BigDecimal maxPrice) {
+        List<Long> indexHits = priceIndex.findIdsBetween(minPrice, maxPrice, 0, null);
+        if (indexHits != null) {
+            return search(indexHits, inPriceRange(minPrice, maxPrice));
+        }
+        return store.all().stream()
+                .filter(inPriceRange(minPrice, maxPrice))
+                .sorted(BY_PRICE)
+                .map(BookSnapshot::toBook)
+                .toList();
+    }
+
+    /**
+     * Stored prices have two decimals, so rounding the bounds inwards to whole
+     * cents selects exactly the prices within the original bounds.
+     */
+    private static Predicate<BookSnapshot> inPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        long minCents = minPrice == null ? Long.MIN_VALUE
+                : minPrice.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+        long maxCents = maxPrice == null ? Long.MAX_VALUE
+                : maxPrice.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact();
+        return snapshot -> snapshot.priceCents() >= minCents && snapshot.priceCents() <= maxCents;
+    }
+
+    private static boolean containsIgnoreCase(String text, String query) {
+        return text != null && query != null
+                && text.toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,154 @@
+package com.cursordemo.repository.memory;
+
+import com.cursordemo.entity.Book;
+import com.cursordemo.index.BookIndex;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Complete in-memory copy of the books table.
+ * 
+ * Books are kept as immutable {@link BookSnapshot}s in a lock-free skip list
+ * ordered by ID, with a concurrent map from ISBN to ID beside it. A change
+ * replaces the whole snapshot of a book, so readers never see a half-applied
+ * update and need no locks.
+ * 
+ * The store is a {@link BookIndex}, so {@link com.cursordemo.index.BookIndexManager}
+ * loads it at startup, applies every committed change and rebuilds it on demand
+ * without losing concurrent writes. The manager drops changes older than the
+ * one already applied to a book, so a save or delete that finishes out of
+ * commit order cannot leave a stale or deleted book here. Snapshots keep the
+ * version, so books read from the store can be saved back through JPA. The
+ * database stays the system of record.
+ */
+@Component
+@Profile("inmemory")
+public class InMemoryBookStore implements BookIndex {
+
+    private volatile Tables tables = new Tables();
+    private volatile boolean ready;
+
+    @Override
+    public String getName() {
+        return "in-memory-store";
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Get the snapshot of a book.
+     * 
+     * @param id the book ID
+     * @return the snapshot, or null if no such book exists
+     */
+    BookSnapshot get(long id) {
+        return tables.byId.get(id);
+    }
+
+    /**
+     * Get the snapshot of the book with exactly this ISBN.
+     * 
+     * @param isbn the ISBN as stored
+     * @return the snapshot, or null if no such book exists
+     */
+    BookSnapshot getByIsbn(String isbn) {
+        Tables current = tables;
+        Long id = current.idByIsbn.get(isbn);
+        if (id == null) {
+            return null;
+        }
+        // The ISBN may have just moved to another book; trust only a matching snapshot
+        BookSnapshot snapshot = current.byId.get(id);
+        return snapshot != null && snapshot.isbn().equals(isbn) ? snapshot : null;
+    }
+
+    /**
+     * All snapshots in ascending ID order, as a live view.
+     */
+    NavigableMap<Long, BookSnapshot> byId() {
+        return tables.byId;
+    }
+
+    /**
+     * All snapshots in ascending ID order.
+     */
+    Collection<BookSnapshot> all() {
+        return tables.byId.values();
+    }
+
+    long size() {
+        return tables.byId.size();
+    }
+
+    @Override
+    public void index(Book book) {
+        tables.put(BookSnapshot.of(book));
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        tables.remove(bookId);
+    }
+
+    @Override
+    public Loader beginRebuild(long expectedBooks) {
+        Tables fresh = new Tables();
+        return new Loader() {
+            @Override
+            public void add(Book book) {
+                fresh.put(BookSnapshot.of(book));
+            }
+
+            @Override
+            public void publish() {
+                tables = fresh;
+                ready = true;
+            }
+        };
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Tables current = tables;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("books", current.byId.size());
+        stats.put("isbns", current.idByIsbn.size());
+        return stats;
+    }
+
+    /**
+     * The ID and ISBN maps that are swapped together on rebuild.
+     */
+    private static final class Tables {
+
+        final ConcurrentSkipListMap<Long, BookSnapshot> byId = new ConcurrentSkipListMap<>();
+        final ConcurrentMap<String, Long> idByIsbn = new ConcurrentHashMap<>();
+
+        void put(BookSnapshot snapshot) {
+            BookSnapshot previous = byId.put(snapshot.id(), snapshot);
+            if (previous != null && !previous.isbn().equals(snapshot.isbn())) {
+                idByIsbn.remove(previous.isbn(), snapshot.id());
+            }
+            idByIsbn.put(snapshot.isbn(), snapshot.id());
+        }
+
+        void remove(long id) {
+            BookSnapshot previous = byId.remove(id);
+            if (previous != null) {
+                idByIsbn.remove(previous.isbn(), id);
+            }
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.cursordemo.service;
 
+import com.cursordemo.cache.SerializedBook;
+import com.cursordemo.dto.BookBatchGetRequestDTO;
+import com.cursordemo.dto.BookBatchGetResponseDTO;
+import com.cursordemo.dto.BookBulkResultDTO;
+import com.cursordemo.dto.BookPageDTO;
+import com.cursordemo.dto.BookQueryDTO;
 import com.cursordemo.dto.BookRequestDTO;
 import com.cursordemo.dto.BookResponseDTO;
+import com.cursordemo.dto.SuggestionDTO;
 import com.cursordemo.entity.Book;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -23,6 +32,18 @@ public interface BookService {
      */
     BookResponseDTO createBook(BookRequestDTO bookRequestDTO);
 
+    /**
+     * Create many books at once.
+     * 
+     * Each book is validated and checked for ISBN conflicts individually; the
+     * valid ones are inserted together in JDBC batches.
+     * 
+     * @param bookRequestDTOs the books to create
+     * @return one result per submitted book, in request order
+     * @throws com.cursordemo.exception.ValidationException if the request is empty or too large
+     */
+    List<BookBulkResultDTO> createBooks(List<BookRequestDTO> bookRequestDTOs);
+
     /**
      * Get a book by its ID.
      * 
@@ -32,6 +53,63 @@ public interface BookService {
      */
     BookResponseDTO getBookById(Long id);
 
+    /**
+     * Get a book by its ID as ready-to-send JSON.
+     * 
+     * The serialized response is cached until the book changes, so repeated
+     * reads skip both the DTO conversion and JSON serialization.
+     * 
+     * @param id the book ID
+     * @return the serialized book response and its ETag
+     * @throws com.cursordemo.exception.BookNotFoundException if book not found
+     */
+    SerializedBook getSerializedBookById(Long id);
+
+    /**
+     * Get the current ETag of a book, for answering conditional GETs.
+     * 
+     * The ETag is derived from the book ID and its last update time and is
+     * cached until the book changes, so checking it usually needs no query.
+     * 
+     * @param id the book ID
+     * @return the quoted strong ETag
+     * @throws com.cursordemo.exception.BookNotFoundException if book not found
+     */
+    String getBookEtag(Long id);
+
+    /**
+     * Get the current ETag of the book with an ISBN, for answering conditional GETs.
+     * 
+     * The ISBN is resolved to the book ID through the natural-id cache, so a
+     * 304 needs neither the book nor its response.
+     * 
+     * @param isbn the book ISBN
+     * @return the quoted strong ETag
+     * @throws com.cursordemo.exception.BookNotFoundException if book not found
+     */
+    String getBookEtagByIsbn(String isbn);
+
+    /**
+     * Get the weak ETag shared by all collection responses.
+     * 
+     * It changes whenever any book is created, updated or deleted.
+     * 
+     * @return the quoted weak ETag of the current catalog version
+     */
+    String getCatalogEtag();
+
+    /**
+     * Get many books by ID and/or ISBN in one call.
+     * 
+     * Cached books are served from the second-level cache and the rest are
+     * loaded with one IN query per key type, never one query per book.
+     * 
+     * @param request the IDs and ISBNs to fetch
+     * @return the books in request order, with missing keys marked
+     * @throws com.cursordemo.exception.ValidationException if no keys or too many keys are given
+     */
+    BookBatchGetResponseDTO batchGetBooks(BookBatchGetRequestDTO request);
+
     /**
      * Get a book by its ISBN.
      * 
@@ -48,6 +126,28 @@ public interface BookService {
      */
     List<BookResponseDTO> getAllBooks();
 
+    /**
+     * Get a page of books ordered by ID, starting after the given ID.
+     * 
+     * @param afterId the last ID of the previous page, or null to start from the beginning
+     * @param limit the page size, or null for the configured default
+     * @param fields comma-separated fields to return, such as "id,title", or null for whole books
+     * @return the page of books and the cursor for the following page
+     * @throws com.cursordemo.exception.ValidationException if afterId or limit is out of range or a field is unknown
+     */
+    BookPageDTO getBooksAfter(Long afterId, Integer limit, String fields);
+
+    /**
+     * Write every book to the given stream as newline-delimited JSON.
+     * 
+     * Books are read over a database cursor and written as they arrive,
+     * so memory use does not depend on the size of the catalog.
+     * 
+     * @param outputStream the stream to write to; it is flushed but not closed
+     * @throws IOException if writing to the stream fails
+     */
+    void exportBooks(OutputStream outputStream) throws IOException;
+
     /**
      * Update a book by its ID.
      * 
@@ -70,51 +170,171 @@ public interface BookService {
      * Search books by title.
      * 
      * @param title the title to search for
+     * @param fields comma-separated fields to return, such as "id,title", or null for whole books
      * @return list of books matching the title
+     * @throws com.cursordemo.exception.ValidationException if a field is unknown
      */
-    List<BookResponseDTO> searchBooksByTitle(String title);
+    List<BookResponseDTO> searchBooksByTitle(String title, String fields);
 
     /**
      * Search books by author.
      * 
      * @param author the author to search for
+     * @param fields comma-separated fields to return, such as "id,title", or null for whole books
      * @return list of books by the author
+     * @throws com.cursordemo.exception.ValidationException if a field is unknown
+     */
+    List<BookResponseDTO> searchBooksByAuthor(String author, String fields);
+
+    /**
+     * Search books whose title starts with a prefix, ignoring case.
+     * 
+     * @param prefix the start of the title
+     * @param limit maximum number of books to return, or null for the default page size
+     * @param fields comma-separated fields to return, such as "id,title", or null for whole books
+     * @return matching books ordered by title
+     * @throws com.cursordemo.exception.ValidationException if the prefix is blank, or the limit or a field is invalid
+     */
+    List<BookResponseDTO> searchBooksByTitlePrefix(String prefix, Integer limit, String fields);
+
+    /**
+     * Search books whose author starts with a prefix, ignoring case.
+     * 
+     * @param prefix the start of the author name
+     * @param limit maximum number of books to return, or null for the default page size
+     * @param fields comma-separated fields to return, such as "id,title", or null for whole books
+     * @return matching books ordered by author
+     * @throws com.cursordemo.exception.ValidationException if the prefix is blank, or the limit or a field is invalid
+     */
+    List<BookResponseDTO> searchBooksByAuthorPrefix(String prefix, Integer limit, String fields);
+
+    /**
+     * Search books by title, tolerating typos.
+     * 
+     * Every word of the query must occur in the title, or a word a few edits
+     * away from it: one edit for words of three to five characters, two for
+     * longer words, and none for shorter words or words containing digits.
+     * 
+     * @param title the title words to search for, possibly misspelled
+     * @param limit maximum number of books to return, or null for the default page size
+     * @param fields comma-separated fields to return, such as "id,title", or null for whole books
+     * @return matching books, fewest edits first and then by ID
+     * @throws com.cursordemo.exception.ValidationException if the title is blank, or the limit or a field is invalid
+     */
+    List<BookResponseDTO> searchBooksByTitleFuzzy(String title, Integer limit, String fields);
+
+    /**
+     * Search books by author, tolerating typos.
+     * 
+     * Every word of the query must occur in the author name, or a word a few
+     * edits away from it, as for {@link #searchBooksByTitleFuzzy}.
+     * 
+     * @param author the author words to search for, possibly misspelled
+     * @param limit maximum number of books to return, or null for the default page size
+     * @param fields comma-separated fields to return, such as "id,title", or null for whole books
+     * @return matching books, fewest edits first and then by ID
+     * @throws com.cursordemo.exception.ValidationException if the author is blank, or the limit or a field is invalid
      */
-    List<BookResponseDTO> searchBooksByAuthor(String author);
+    List<BookResponseDTO> searchBooksByAuthorFuzzy(String author, Integer limit, String fields);
+
+    /**
+     * Suggest titles and authors that complete the typed text.
+     * 
+     * @param query the text typed so far
+     * @param limit maximum number of suggestions, or null for the default
+     * @return suggestions ordered by descending number of books, empty for blank text
+     * @throws com.cursordemo.exception.ValidationException if the limit is out of range
+     */
+    List<SuggestionDTO> suggest(String query, Integer limit);
 
     /**
      * Search books by title or author.
      * 
      * @param title the title to search for
      * @param author the author to search for
+     * @param fields comma-separated fields to return, such as "id,title", or null for whole books
      * @return list of books matching either title or author
+     * @throws com.cursordemo.exception.ValidationException if a field is unknown
+     */
+    List<BookResponseDTO> searchBooksByTitleOrAuthor(String title, String author, String fields);
+
+    /**
+     * Search books by words in their title or author, most relevant first.
+     * 
+     * Books match if their title or author contains any word of the query,
+     * ignoring case and accents, and are ranked by BM25: rare words count
+     * more than common ones, a word in a short title more than the same word
+     * in a long one, and title matches more than author matches. While the
+     * full-text index is loading, books containing the whole query text are
+     * returned unranked instead.
+     * 
+     * @param query the words to search for
+     * @param limit maximum number of books to return, or null for the default page size
+     * @param fields comma-separated fields to return, such as "id,title", or null for whole books
+     * @return matching books, most relevant first
+     * @throws com.cursordemo.exception.ValidationException if the query is blank, or the limit or a field is invalid
+     */
+    List<BookResponseDTO> searchBooksFullText(String query, Integer limit, String fields);
+
+    /**
+     * Find books matching all given criteria of a combined query.
+     * 
+     * Title and author match substrings ignoring case, the ISBN matches a
+     * prefix, and the price and last-update ranges are inclusive. Books are
+     * ordered by the requested sort fields and then by ID.
+     * 
+     * @param query the criteria, sort order, limit and fields; absent criteria match every book
+     * @return matching books in the requested order
+     * @throws com.cursordemo.exception.ValidationException if a field or sort field is unknown or the limit is out of range
      */
-    List<BookResponseDTO> searchBooksByTitleOrAuthor(String title, String author);
+    List<BookResponseDTO> queryBooks(BookQueryDTO query);
 
     /**
-     * Search books by price range.
+     * Search books by price range, cheapest first.
      * 
      * @param minPrice minimum price (inclusive)
      * @param maxPrice maximum price (inclusive)
+     * @param offset number of matches to skip, or null for none
+     * @param limit maximum number of books to return, or null for all
+     * @param fields comma-separated fields to return, such as "id,title", or null for whole books
      * @return list of books within the price range
+     * @throws com.cursordemo.exception.ValidationException if offset or limit is out of range or a field is unknown
      */
-    List<BookResponseDTO> searchBooksByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
+    List<BookResponseDTO> searchBooksByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Integer offset, Integer limit,
+                                                  String fields);
 
     /**
-     * Search books by maximum price.
+     * Search books by maximum price, cheapest first.
      * 
      * @param maxPrice maximum price (inclusive)
+     * @param offset number of matches to skip, or null for none
+     * @param limit maximum number of books to return, or null for all
+     * @param fields comma-separated fields to return, such as "id,title", or null for whole books
      * @return list of books with price <= maxPrice
+     * @throws com.cursordemo.exception.ValidationException if offset or limit is out of range or a field is unknown
      */
-    List<BookResponseDTO> searchBooksByMaxPrice(BigDecimal maxPrice);
+    List<BookResponseDTO> searchBooksByMaxPrice(BigDecimal maxPrice, Integer offset, Integer limit, String fields);
 
     /**
-     * Search books by minimum price.
+     * Search books by minimum price, cheapest first.
      * 
      * @param minPrice minimum price (inclusive)
+     * @param offset number of matches to skip, or null for none
+     * @param limit maximum number of books to return, or null for all
+     * @param fields comma-separated fields to return, such as "id,title", or null for whole books
      * @return list of books with price >= minPrice
+     * @throws com.cursordemo.exception.ValidationException if offset or limit is out of range or a field is unknown
+     */
+    List<BookResponseDTO> searchBooksByMinPrice(BigDecimal minPrice, Integer offset, Integer limit, String fields);
+
+    /**
+     * Count books within a price range.
+     * 
+     * @param minPrice minimum price (inclusive)
+     * @param maxPrice maximum price (inclusive)
+     * @return number of books within the price range
      */
-    List<BookResponseDTO> searchBooksByMinPrice(BigDecimal minPrice);
+    long countBooksByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
 
     /**
      * Check if a book exists by ISBN.
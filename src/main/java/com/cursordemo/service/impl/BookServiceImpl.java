@@ -1,20 +1,79 @@
 package com.cursordemo.service.impl;
 
+import com.cursordemo.cache.BookResponseCache;
+import com.cursordemo.cache.BookVersionCache;
+import com.cursordemo.cache.SerializedBook;
+import com.cursordemo.coalescing.Coalesced;
+import com.cursordemo.config.BookProperties;
+import com.cursordemo.dto.BookBatchGetRequestDTO;
+import com.cursordemo.dto.BookBatchGetResponseDTO;
+import com.cursordemo.dto.BookBulkResultDTO;
+import com.cursordemo.dto.BookPageDTO;
+import com.cursordemo.dto.BookQueryDTO;
 import com.cursordemo.dto.BookRequestDTO;
 import com.cursordemo.dto.BookResponseDTO;
+import com.cursordemo.dto.SuggestionDTO;
 import com.cursordemo.entity.Book;
+import com.cursordemo.entity.BookView;
+import com.cursordemo.event.BookChangedEvent;
 import com.cursordemo.exception.BookNotFoundException;
+import com.cursordemo.exception.DuplicateIsbnException;
+import com.cursordemo.exception.ValidationException;
+import com.cursordemo.index.FullTextIndex;
+import com.cursordemo.index.IsbnBloomFilter;
+import com.cursordemo.index.PriceIndex;
+import com.cursordemo.index.SuggestionIndex;
+import com.cursordemo.index.TextAnalyzer;
+import com.cursordemo.index.TrigramIndex;
 import com.cursordemo.repository.BookRepository;
+import com.cursordemo.repository.BookSpecifications;
 import com.cursordemo.service.BookService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of BookService interface.
@@ -28,11 +87,57 @@ public class BookServiceImpl implements BookService {
 
     private static final Logger logger = LoggerFactory.getLogger(BookServiceImpl.class);
 
+    /** Fields a combined query may be sorted by, with their order for index candidates. */
+    private static final Map<String, Comparator<BookView>> SORT_FIELDS = Map.of(
+            "id", Comparator.comparing(BookView::getId),
+            "title", Comparator.comparing(BookView::getTitle, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "author", Comparator.comparing(BookView::getAuthor, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "isbn", Comparator.comparing(BookView::getIsbn, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "price", Comparator.comparing(BookView::getPrice, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "createdAt", Comparator.comparing(BookView::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "updatedAt", Comparator.comparing(BookView::getUpdatedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+
     private final BookRepository bookRepository;
+    private final BookProperties bookProperties;
+    private final ObjectMapper objectMapper;
+    private final IsbnBloomFilter isbnBloomFilter;
+    private final TrigramIndex trigramIndex;
+    private final PriceIndex priceIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final FullTextIndex fullTextIndex;
+    private final BookResponseCache bookResponseCache;
+    private final BookVersionCache bookVersionCache;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer dtoConversionTimer;
+    private final TransactionTemplate transaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public BookServiceImpl(BookRepository bookRepository) {
+    public BookServiceImpl(BookRepository bookRepository, BookProperties bookProperties, ObjectMapper objectMapper,
+                           IsbnBloomFilter isbnBloomFilter, TrigramIndex trigramIndex, PriceIndex priceIndex,
+                           SuggestionIndex suggestionIndex, FullTextIndex fullTextIndex,
+                           BookResponseCache bookResponseCache, BookVersionCache bookVersionCache,
+                           Validator validator, ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                           PlatformTransactionManager transactionManager) {
         this.bookRepository = bookRepository;
+        this.bookProperties = bookProperties;
+        this.objectMapper = objectMapper;
+        this.isbnBloomFilter = isbnBloomFilter;
+        this.trigramIndex = trigramIndex;
+        this.priceIndex = priceIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.fullTextIndex = fullTextIndex;
+        this.bookResponseCache = bookResponseCache;
+        this.bookVersionCache = bookVersionCache;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.dtoConversionTimer = Timer.builder("books.dto.conversion")
+                .description("Time spent converting the books of a list response to DTOs")
+                .register(meterRegistry);
+        this.transaction = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -40,19 +145,111 @@ public class BookServiceImpl implements BookService {
         logger.info("Creating new book with ISBN: {}", bookRequestDTO.getIsbn());
         
         // Check if book with same ISBN already exists
-        if (bookRepository.existsByIsbn(bookRequestDTO.getIsbn())) {
+        if (isbnExists(bookRequestDTO.getIsbn())) {
             logger.warn("Book with ISBN {} already exists", bookRequestDTO.getIsbn());
-            throw new IllegalArgumentException("Book with ISBN " + bookRequestDTO.getIsbn() + " already exists");
+            throw new DuplicateIsbnException(bookRequestDTO.getIsbn());
         }
 
         Book book = convertToEntity(bookRequestDTO);
         Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.saved(savedBook));
         
         logger.info("Book created successfully with ID: {}", savedBook.getId());
         return convertToResponseDTO(savedBook);
     }
 
+    /**
+     * Create the books in one batched transaction. If a book with one of their
+     * ISBNs is committed after the check, the unique constraint fails that
+     * transaction; the books are then inserted one per transaction, so only
+     * the ones that clash are reported as conflicts.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BookBulkResultDTO> createBooks(List<BookRequestDTO> bookRequestDTOs) {
+        int maxItems = bookProperties.getBulk().getMaxItems();
+        if (bookRequestDTOs == null || bookRequestDTOs.isEmpty()) {
+            throw new ValidationException("At least one book is required");
+        }
+        if (bookRequestDTOs.size() > maxItems) {
+            throw new ValidationException("A bulk request may contain at most " + maxItems + " books");
+        }
+        logger.info("Creating {} books in bulk", bookRequestDTOs.size());
+
+        BookBulkResultDTO[] results = new BookBulkResultDTO[bookRequestDTOs.size()];
+        Set<String> isbns = new HashSet<>();
+        for (BookRequestDTO bookRequestDTO : bookRequestDTOs) {
+            if (bookRequestDTO != null && bookRequestDTO.getIsbn() != null) {
+                isbns.add(bookRequestDTO.getIsbn());
+            }
+        }
+        // One IN query for the whole batch instead of an existsByIsbn round trip per book
+        Set<String> takenIsbns = new HashSet<>(bookRepository.findExistingIsbns(isbns));
+
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < bookRequestDTOs.size(); i++) {
+            BookRequestDTO bookRequestDTO = bookRequestDTOs.get(i);
+            String violations = validate(bookRequestDTO);
+            if (violations != null) {
+                results[i] = BookBulkResultDTO.rejected(i, BookBulkResultDTO.Status.INVALID, violations);
+            } else if (!takenIsbns.add(bookRequestDTO.getIsbn())) {
+                // Either already stored or repeated earlier in this request
+                results[i] = isbnConflict(i, bookRequestDTO);
+            } else {
+                positions.add(i);
+            }
+        }
+
+        int created;
+        try {
+            created = transaction.execute(status -> insertBooks(bookRequestDTOs, positions, results));
+        } catch (DataIntegrityViolationException ex) {
+            logger.warn("Bulk insert hit a constraint, inserting {} books one by one: {}",
+                    positions.size(), ex.getMostSpecificCause().getMessage());
+            created = 0;
+            for (int position : positions) {
+                try {
+                    created += transaction.execute(status -> insertBooks(bookRequestDTOs, List.of(position), results));
+                } catch (DataIntegrityViolationException conflict) {
+                    results[position] = isbnConflict(position, bookRequestDTOs.get(position));
+                }
+            }
+        }
+
+        logger.info("Bulk create finished: {} created, {} rejected", created, bookRequestDTOs.size() - created);
+        return List.of(results);
+    }
+
+    /**
+     * Insert the requested books at the given positions in the current
+     * transaction and record them as created.
+     * 
+     * @return the number of books inserted
+     */
+    private int insertBooks(List<BookRequestDTO> bookRequestDTOs, List<Integer> positions,
+                            BookBulkResultDTO[] results) {
+        List<Book> books = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            books.add(convertToEntity(bookRequestDTOs.get(position)));
+        }
+        // Ids come from the pooled sequence, so Hibernate sends these as batched inserts
+        List<Book> savedBooks = bookRepository.saveAll(books);
+        bookRepository.flush();
+        for (int i = 0; i < savedBooks.size(); i++) {
+            Book savedBook = savedBooks.get(i);
+            eventPublisher.publishEvent(BookChangedEvent.saved(savedBook));
+            results[positions.get(i)] = BookBulkResultDTO.created(positions.get(i), convertToResponseDTO(savedBook));
+        }
+        return savedBooks.size();
+    }
+
+    private static BookBulkResultDTO isbnConflict(int position, BookRequestDTO bookRequestDTO) {
+        return BookBulkResultDTO.rejected(position, BookBulkResultDTO.Status.CONFLICT,
+                "Book with ISBN " + bookRequestDTO.getIsbn() + " already exists");
+    }
+
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
     public BookResponseDTO getBookById(Long id) {
         logger.info("Fetching book by ID: {}", id);
@@ -69,10 +266,100 @@ public class BookServiceImpl implements BookService {
 
     @Override
     @Transactional(readOnly = true)
+    public SerializedBook getSerializedBookById(Long id) {
+        return bookResponseCache.get(id, this::loadSerializedBook);
+    }
+
+    /**
+     * Load and serialize a book for the response cache. Reads through the
+     * repository, since a call to {@link #getBookById(Long)} on this instance
+     * would bypass its proxy.
+     */
+    private SerializedBook loadSerializedBook(Long id) {
+        Book book = bookRepository.findById(id)
+                .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
+        BookResponseDTO response = convertToResponseDTO(book);
+        try {
+            return new SerializedBook(objectMapper.writeValueAsBytes(response),
+                    BookVersionCache.etagOf(response.getId(), response.getUpdatedAt()));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize book " + id, ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getBookEtag(Long id) {
+        // A miss serializes the book into the response cache, so the GET that follows does not reload it
+        return bookVersionCache.getEtag(id, bookId -> bookResponseCache.get(bookId, this::loadSerializedBook).getEtag());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getBookEtagByIsbn(String isbn) {
+        Long id = bookRepository.findIdByNaturalIsbn(isbn)
+                .orElseThrow(() -> new BookNotFoundException("Book not found with ISBN: " + isbn));
+        return getBookEtag(id);
+    }
+
+    @Override
+    public String getCatalogEtag() {
+        return bookVersionCache.getCatalogEtag();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookBatchGetResponseDTO batchGetBooks(BookBatchGetRequestDTO request) {
+        List<Long> ids = request.getIds() != null ? request.getIds() : List.of();
+        List<String> isbns = request.getIsbns() != null ? request.getIsbns() : List.of();
+        int maxItems = bookProperties.getBulk().getMaxItems();
+        if (ids.isEmpty() && isbns.isEmpty()) {
+            throw new ValidationException("At least one ID or ISBN is required");
+        }
+        if (ids.size() + isbns.size() > maxItems) {
+            throw new ValidationException("A batch get may request at most " + maxItems + " books");
+        }
+        if (ids.contains(null) || isbns.contains(null)) {
+            throw new ValidationException("IDs and ISBNs must not be null");
+        }
+        logger.info("Fetching {} books by ID and {} by ISBN", ids.size(), isbns.size());
+
+        List<BookResponseDTO> byId = new ArrayList<>(ids.size());
+        List<Long> missingIds = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            List<Book> books = bookRepository.findAllByIdsInOrder(ids);
+            for (int i = 0; i < ids.size(); i++) {
+                Book book = books.get(i);
+                byId.add(book != null ? convertToResponseDTO(book) : null);
+                if (book == null) {
+                    missingIds.add(ids.get(i));
+                }
+            }
+        }
+
+        List<BookResponseDTO> byIsbn = new ArrayList<>(isbns.size());
+        List<String> missingIsbns = new ArrayList<>();
+        if (!isbns.isEmpty()) {
+            List<Book> books = bookRepository.findAllByNaturalIsbnsInOrder(isbns);
+            for (int i = 0; i < isbns.size(); i++) {
+                Book book = books.get(i);
+                byIsbn.add(book != null ? convertToResponseDTO(book) : null);
+                if (book == null) {
+                    missingIsbns.add(isbns.get(i));
+                }
+            }
+        }
+
+        return new BookBatchGetResponseDTO(byId, byIsbn, missingIds, missingIsbns);
+    }
+
+    @Override
+    @Coalesced
+    @Transactional(readOnly = true)
     public BookResponseDTO getBookByIsbn(String isbn) {
         logger.info("Fetching book by ISBN: {}", isbn);
         
-        Book book = bookRepository.findByIsbn(isbn)
+        Book book = bookRepository.findByNaturalIsbn(isbn)
                 .orElseThrow(() -> {
                     logger.warn("Book not found with ISBN: {}", isbn);
                     return new BookNotFoundException("Book not found with ISBN: " + isbn);
@@ -90,9 +377,72 @@ public class BookServiceImpl implements BookService {
         List<Book> books = bookRepository.findAll();
         logger.info("Found {} books", books.size());
         
-        return books.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(books, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookPageDTO getBooksAfter(Long afterId, Integer limit, String fields) {
+        BookProperties.Pagination pagination = bookProperties.getPagination();
+        long after = afterId != null ? afterId : 0L;
+        int pageSize = limit != null ? limit : pagination.getDefaultLimit();
+
+        if (after < 0) {
+            throw new ValidationException("Cursor 'after' must not be negative");
+        }
+        if (pageSize < 1 || pageSize > pagination.getMaxLimit()) {
+            throw new ValidationException("Limit must be between 1 and " + pagination.getMaxLimit());
+        }
+
+        Set<String> selected = selectedFields(fields);
+
+        logger.info("Fetching books after ID: {} with limit: {}", after, pageSize);
+
+        // Fetch one extra row to find out whether another page follows
+        List<? extends BookView> books = findBooks(columnsFor(selected, List.of()),
+                BookSpecifications.idGreaterThan(after), Sort.by("id"), Limit.of(pageSize + 1),
+                () -> bookRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(pageSize + 1)));
+        boolean hasMore = books.size() > pageSize;
+        if (hasMore) {
+            books = books.subList(0, pageSize);
+        }
+        logger.info("Found {} books", books.size());
+
+        List<BookResponseDTO> page = toResponseDTOs(books, selected);
+        Long nextCursor = hasMore ? books.get(books.size() - 1).getId() : null;
+        return new BookPageDTO(page, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooks(OutputStream outputStream) throws IOException {
+        logger.info("Exporting all books");
+
+        int batchSize = bookProperties.getExport().getBatchSize();
+        ObjectWriter writer = objectMapper.writerFor(BookResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+
+        try (Stream<Book> books = bookRepository.streamAllByOrderByIdAsc(batchSize);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            // The servlet container owns the response stream; one JSON document per line
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, convertToResponseDTO(iterator.next()));
+                generator.writeRaw('\n');
+
+                if (++count % batchSize == 0) {
+                    // Drop the exported entities so the persistence context does not grow with the catalog
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+        }
+
+        logger.info("Exported {} books", count);
     }
 
     @Override
@@ -107,9 +457,9 @@ public class BookServiceImpl implements BookService {
 
         // Check if ISBN is being changed and if the new ISBN already exists
         if (!existingBook.getIsbn().equals(bookRequestDTO.getIsbn()) && 
-            bookRepository.existsByIsbn(bookRequestDTO.getIsbn())) {
+            isbnExists(bookRequestDTO.getIsbn())) {
             logger.warn("Book with ISBN {} already exists", bookRequestDTO.getIsbn());
-            throw new IllegalArgumentException("Book with ISBN " + bookRequestDTO.getIsbn() + " already exists");
+            throw new DuplicateIsbnException(bookRequestDTO.getIsbn());
         }
 
         // Update book fields
@@ -119,6 +469,7 @@ public class BookServiceImpl implements BookService {
         existingBook.setPrice(bookRequestDTO.getPrice());
 
         Book updatedBook = bookRepository.save(existingBook);
+        eventPublisher.publishEvent(BookChangedEvent.saved(updatedBook));
         
         logger.info("Book updated successfully with ID: {}", id);
         return convertToResponseDTO(updatedBook);
@@ -128,111 +479,694 @@ public class BookServiceImpl implements BookService {
     public void deleteBook(Long id) {
         logger.info("Deleting book with ID: {}", id);
         
-        if (!bookRepository.existsById(id)) {
-            logger.warn("Book not found with ID: {}", id);
-            throw new BookNotFoundException("Book not found with ID: " + id);
-        }
+        Book book = bookRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.warn("Book not found with ID: {}", id);
+                    return new BookNotFoundException("Book not found with ID: " + id);
+                });
 
-        bookRepository.deleteById(id);
+        bookRepository.delete(book);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id, book.getVersion()));
         logger.info("Book deleted successfully with ID: {}", id);
     }
 
     @Override
+    @Coalesced(ignoreCase = true)
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> searchBooksByTitle(String title) {
+    public List<BookResponseDTO> searchBooksByTitle(String title, String fields) {
         logger.info("Searching books by title: {}", title);
+        Set<String> selected = selectedFields(fields);
+        Set<String> columns = columnsFor(selected, List.of("title"));
         
-        List<Book> books = bookRepository.findByTitleIgnoreCaseContaining(title);
+        List<Long> ids = trigramIndex.searchTitle(title);
+        List<? extends BookView> books = ids != null
+                ? findAllByIdInOrder(ids, columns, book -> containsIgnoreCase(book.getTitle(), title))
+                : findBooks(columns, BookSpecifications.titleContains(title), Sort.by("id"), Limit.unlimited(),
+                        () -> bookRepository.findByTitleIgnoreCaseContaining(title));
         logger.info("Found {} books matching title: {}", books.size(), title);
         
-        return books.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(books, selected);
     }
 
     @Override
+    @Coalesced(ignoreCase = true)
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> searchBooksByAuthor(String author) {
+    public List<BookResponseDTO> searchBooksByAuthor(String author, String fields) {
         logger.info("Searching books by author: {}", author);
+        Set<String> selected = selectedFields(fields);
+        Set<String> columns = columnsFor(selected, List.of("author"));
         
-        List<Book> books = bookRepository.findByAuthorIgnoreCaseContaining(author);
+        List<Long> ids = trigramIndex.searchAuthor(author);
+        List<? extends BookView> books = ids != null
+                ? findAllByIdInOrder(ids, columns, book -> containsIgnoreCase(book.getAuthor(), author))
+                : findBooks(columns, BookSpecifications.authorContains(author), Sort.by("id"), Limit.unlimited(),
+                        () -> bookRepository.findByAuthorIgnoreCaseContaining(author));
         logger.info("Found {} books by author: {}", books.size(), author);
         
-        return books.stream()
-                .map(this::convertToResponseDTO)
+        return toResponseDTOs(books, selected);
+    }
+
+    @Override
+    @Coalesced(ignoreCase = true)
+    @Transactional(readOnly = true)
+    public List<BookResponseDTO> searchBooksByTitlePrefix(String prefix, Integer limit, String fields) {
+        logger.info("Searching books by title prefix: {}", prefix);
+        String text = requirePrefix(prefix);
+        Limit size = resultLimit(limit);
+        Set<String> selected = selectedFields(fields);
+        
+        List<? extends BookView> books = findBooks(columnsFor(selected, List.of()),
+                BookSpecifications.titleStartsWith(text), Sort.by("titleLower", "id"), size,
+                () -> bookRepository.findByTitlePrefix(text, size));
+        logger.info("Found {} books with title prefix: {}", books.size(), prefix);
+        
+        return toResponseDTOs(books, selected);
+    }
+
+    @Override
+    @Coalesced(ignoreCase = true)
+    @Transactional(readOnly = true)
+    public List<BookResponseDTO> searchBooksByAuthorPrefix(String prefix, Integer limit, String fields) {
+        logger.info("Searching books by author prefix: {}", prefix);
+        String text = requirePrefix(prefix);
+        Limit size = resultLimit(limit);
+        Set<String> selected = selectedFields(fields);
+        
+        List<? extends BookView> books = findBooks(columnsFor(selected, List.of()),
+                BookSpecifications.authorStartsWith(text), Sort.by("authorLower", "id"), size,
+                () -> bookRepository.findByAuthorPrefix(text, size));
+        logger.info("Found {} books with author prefix: {}", books.size(), prefix);
+        
+        return toResponseDTOs(books, selected);
+    }
+
+    @Override
+    @Coalesced(ignoreCase = true)
+    @Transactional(readOnly = true)
+    public List<BookResponseDTO> searchBooksByTitleFuzzy(String title, Integer limit, String fields) {
+        logger.info("Fuzzy searching books by title: {}", title);
+        String text = requireText(title, "Title");
+        Limit size = resultLimit(limit);
+        Set<String> selected = selectedFields(fields);
+        
+        List<? extends BookView> books = findFuzzy(text, SuggestionIndex.Field.TITLE, size,
+                columnsFor(selected, List.of("title")), BookSpecifications::titleContains);
+        logger.info("Found {} books with title close to: {}", books.size(), title);
+        
+        return toResponseDTOs(books, selected);
+    }
+
+    @Override
+    @Coalesced(ignoreCase = true)
+    @Transactional(readOnly = true)
+    public List<BookResponseDTO> searchBooksByAuthorFuzzy(String author, Integer limit, String fields) {
+        logger.info("Fuzzy searching books by author: {}", author);
+        String text = requireText(author, "Author");
+        Limit size = resultLimit(limit);
+        Set<String> selected = selectedFields(fields);
+        
+        List<? extends BookView> books = findFuzzy(text, SuggestionIndex.Field.AUTHOR, size,
+                columnsFor(selected, List.of("author")), BookSpecifications::authorContains);
+        logger.info("Found {} books with author close to: {}", books.size(), author);
+        
+        return toResponseDTOs(books, selected);
+    }
+
+    /**
+     * Runs without a transaction: the index answers without the database, and
+     * the fallback queries need none.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<SuggestionDTO> suggest(String query, Integer limit) {
+        BookProperties.Suggest settings = bookProperties.getSuggest();
+        int size = limit != null ? limit : settings.getDefaultLimit();
+        if (size < 1 || size > settings.getMaxLimit()) {
+            throw new ValidationException("Limit must be between 1 and " + settings.getMaxLimit());
+        }
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        logger.debug("Suggesting completions for: {}", query);
+
+        List<SuggestionIndex.Suggestion> suggestions = suggestionIndex.suggest(query, size);
+        if (suggestions == null) {
+            suggestions = suggestFromDatabase(query.trim(), size);
+        }
+        return suggestions.stream()
+                .map(suggestion -> new SuggestionDTO(suggestion.text(),
+                        suggestion.field().name().toLowerCase(Locale.ROOT), suggestion.weight()))
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Coalesced(ignoreCase = true)
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> searchBooksByTitleOrAuthor(String title, String author) {
+    public List<BookResponseDTO> searchBooksByTitleOrAuthor(String title, String author, String fields) {
         logger.info("Searching books by title: {} or author: {}", title, author);
+        Set<String> selected = selectedFields(fields);
+        Set<String> columns = columnsFor(selected, List.of("title", "author"));
         
-        List<Book> books = bookRepository.findByTitleOrAuthorContaining(title, author);
+        List<Long> ids = trigramIndex.searchTitleOrAuthor(title, author);
+        List<? extends BookView> books = ids != null
+                ? findAllByIdInOrder(ids, columns, book -> containsIgnoreCase(book.getTitle(), title)
+                        || containsIgnoreCase(book.getAuthor(), author))
+                : findBooks(columns, BookSpecifications.titleOrAuthorContains(title, author), Sort.unsorted(),
+                        Limit.unlimited(), () -> bookRepository.findByTitleOrAuthorContaining(title, author));
         logger.info("Found {} books matching title or author criteria", books.size());
         
-        return books.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(books, selected);
+    }
+
+    @Override
+    @Coalesced(ignoreCase = true)
+    @Transactional(readOnly = true)
+    public List<BookResponseDTO> searchBooksFullText(String query, Integer limit, String fields) {
+        logger.info("Full-text search for: {}", query);
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("Query is required");
+        }
+        Limit size = resultLimit(limit);
+        Set<String> selected = selectedFields(fields);
+        Set<String> columns = columnsFor(selected, List.of("title", "author"));
+
+        List<Long> ids = fullTextIndex.search(query, size.max());
+        List<? extends BookView> books;
+        if (ids != null) {
+            Set<String> terms = new HashSet<>(TextAnalyzer.tokens(query));
+            books = findAllByIdInOrder(ids, columns, book -> containsAnyTerm(book.getTitle(), terms)
+                    || containsAnyTerm(book.getAuthor(), terms));
+        } else {
+            String text = query.trim();
+            books = findFirstBooks(columns, BookSpecifications.titleOrAuthorContains(text, text), Sort.by("id"), size);
+        }
+        logger.info("Found {} books for full-text query: {}", books.size(), query);
+
+        return toResponseDTOs(books, selected);
     }
 
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> searchBooksByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+    public List<BookResponseDTO> queryBooks(BookQueryDTO query) {
+        logger.info("Querying books: {}", query);
+        Sort sort = querySort(query.getSort());
+        Limit limit = resultLimit(query.getLimit());
+        Set<String> selected = selectedFields(query.getFields());
+
+        Specification<Book> filter = Specification.allOf(
+                BookSpecifications.titleContains(query.getTitle()),
+                BookSpecifications.authorContains(query.getAuthor()),
+                BookSpecifications.isbnStartsWith(query.getIsbnPrefix()),
+                BookSpecifications.priceBetween(query.getMinPrice(), query.getMaxPrice()),
+                BookSpecifications.updatedBetween(query.getMinUpdatedAt(), query.getMaxUpdatedAt()));
+        // With a few candidates from the indexes, reading them by primary key and
+        // checking the rest in memory beats letting the database combine the
+        // ID list with a wide range on another index
+        List<Long> candidates = findQueryCandidates(query);
+        List<? extends BookView> books;
+        if (candidates != null) {
+            books = findAllByIdInOrder(candidates, columnsFor(selected, queryColumns(sort)), queryMatcher(query))
+                    .stream()
+                    .sorted(queryComparator(sort))
+                    .limit(limit.max())
+                    .collect(Collectors.toList());
+        } else {
+            books = findBooks(columnsFor(selected, List.of()), filter, sort, limit, () -> bookRepository.findBy(filter,
+                    (FluentQuery.FetchableFluentQuery<Book> matches) -> matches.sortBy(sort).limit(limit.max()).all()));
+        }
+        logger.info("Found {} books for query", books.size());
+
+        return toResponseDTOs(books, selected);
+    }
+
+    @Override
+    @Coalesced
+    @Transactional(readOnly = true)
+    public List<BookResponseDTO> searchBooksByPriceRange(BigDecimal minPrice, BigDecimal maxPrice,
+                                                         Integer offset, Integer limit, String fields) {
         logger.info("Searching books by price range: {} - {}", minPrice, maxPrice);
+        Set<String> selected = selectedFields(fields);
         
-        List<Book> books = bookRepository.findByPriceBetween(minPrice, maxPrice);
+        List<? extends BookView> books = findByPrice(minPrice, maxPrice, offset, limit, selected,
+                () -> bookRepository.findByPriceBetween(minPrice, maxPrice));
         logger.info("Found {} books within price range", books.size());
         
-        return books.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(books, selected);
     }
 
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> searchBooksByMaxPrice(BigDecimal maxPrice) {
+    public List<BookResponseDTO> searchBooksByMaxPrice(BigDecimal maxPrice, Integer offset, Integer limit,
+                                                       String fields) {
         logger.info("Searching books by max price: {}", maxPrice);
+        Set<String> selected = selectedFields(fields);
         
-        List<Book> books = bookRepository.findByPriceLessThanEqualOrderByPrice(maxPrice);
+        List<? extends BookView> books = findByPrice(null, maxPrice, offset, limit, selected,
+                () -> bookRepository.findByPriceLessThanEqualOrderByPrice(maxPrice));
         logger.info("Found {} books with price <= {}", books.size(), maxPrice);
         
-        return books.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(books, selected);
     }
 
     @Override
+    @Coalesced
     @Transactional(readOnly = true)
-    public List<BookResponseDTO> searchBooksByMinPrice(BigDecimal minPrice) {
+    public List<BookResponseDTO> searchBooksByMinPrice(BigDecimal minPrice, Integer offset, Integer limit,
+                                                       String fields) {
         logger.info("Searching books by min price: {}", minPrice);
+        Set<String> selected = selectedFields(fields);
         
-        List<Book> books = bookRepository.findByPriceGreaterThanEqualOrderByPrice(minPrice);
+        List<? extends BookView> books = findByPrice(minPrice, null, offset, limit, selected,
+                () -> bookRepository.findByPriceGreaterThanEqualOrderByPrice(minPrice));
         logger.info("Found {} books with price >= {}", books.size(), minPrice);
         
-        return books.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(books, selected);
+    }
+
+    @Override
+    @Coalesced
+    @Transactional(readOnly = true)
+    public long countBooksByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        logger.debug("Counting books by price range: {} - {}", minPrice, maxPrice);
+
+        Long count = priceIndex.countBetween(minPrice, maxPrice);
+        return count != null ? count : bookRepository.countByPriceBetween(minPrice, maxPrice);
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean bookExistsByIsbn(String isbn) {
         logger.debug("Checking if book exists by ISBN: {}", isbn);
-        return bookRepository.existsByIsbn(isbn);
+        return isbnExists(isbn);
+    }
+
+    /**
+     * Validate a bulk item the same way @Valid validates a single request.
+     * 
+     * @return the violations as a message, or null if the item is valid
+     */
+    private String validate(BookRequestDTO bookRequestDTO) {
+        if (bookRequestDTO == null) {
+            return "Book is required";
+        }
+        Set<ConstraintViolation<BookRequestDTO>> violations = validator.validate(bookRequestDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Check ISBN existence, asking the database only when the Bloom filter
+     * cannot rule the ISBN out.
+     */
+    private boolean isbnExists(String isbn) {
+        return isbnBloomFilter.mightContain(isbn) && bookRepository.existsByIsbn(isbn);
+    }
+
+    private static String requirePrefix(String prefix) {
+        return requireText(prefix, "Prefix");
+    }
+
+    private static String requireText(String text, String name) {
+        if (text == null || text.isBlank()) {
+            throw new ValidationException(name + " is required");
+        }
+        return text;
+    }
+
+    /**
+     * Resolve the page size of a prefix or full-text search, which would
+     * otherwise return the whole catalog for a one-letter prefix or a common word.
+     */
+    private Limit resultLimit(Integer limit) {
+        BookProperties.Pagination pagination = bookProperties.getPagination();
+        int pageSize = limit != null ? limit : pagination.getDefaultLimit();
+        if (pageSize < 1 || pageSize > pagination.getMaxLimit()) {
+            throw new ValidationException("Limit must be between 1 and " + pagination.getMaxLimit());
+        }
+        return Limit.of(pageSize);
+    }
+
+    /**
+     * Suggest titles and authors starting with the query from the prefix
+     * searches, while the suggestion index is loading. Weights only count
+     * the books fetched, at most {@code limit} per field.
+     */
+    private List<SuggestionIndex.Suggestion> suggestFromDatabase(String query, int limit) {
+        List<SuggestionIndex.Suggestion> suggestions = new ArrayList<>();
+        suggestions.addAll(groupSuggestions(bookRepository.findByTitlePrefix(query, Limit.of(limit)),
+                Book::getTitle, SuggestionIndex.Field.TITLE));
+        suggestions.addAll(groupSuggestions(bookRepository.findByAuthorPrefix(query, Limit.of(limit)),
+                Book::getAuthor, SuggestionIndex.Field.AUTHOR));
+        suggestions.sort(Comparator.comparingInt(SuggestionIndex.Suggestion::weight).reversed());
+        return suggestions.subList(0, Math.min(limit, suggestions.size()));
+    }
+
+    private static List<SuggestionIndex.Suggestion> groupSuggestions(List<Book> books, Function<Book, String> text,
+                                                                     SuggestionIndex.Field field) {
+        Map<String, List<String>> byKey = books.stream()
+                .map(text)
+                .collect(Collectors.groupingBy(value -> value.toLowerCase(Locale.ROOT), LinkedHashMap::new,
+                        Collectors.toList()));
+        return byKey.values().stream()
+                .map(values -> new SuggestionIndex.Suggestion(values.get(0), field, values.size()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Find books by typo-tolerant words in a field from the full-text index,
+     * or the first books containing the exact text while it is loading.
+     * Loaded books are checked against the query again, since a book may have
+     * been edited to no longer contain any of the close words after the index
+     * answered.
+     */
+    private List<? extends BookView> findFuzzy(String text, SuggestionIndex.Field field, Limit limit,
+                                               Set<String> columns, Function<String, Specification<Book>> filter) {
+        List<Long> ids = fullTextIndex.searchFuzzy(text, field, limit.max());
+        if (ids != null) {
+            return findAllByIdInOrder(ids, columns, book -> fullTextIndex.matchesFuzzy(text,
+                    field == SuggestionIndex.Field.TITLE ? book.getTitle() : book.getAuthor()));
+        }
+        return findFirstBooks(columns, filter.apply(text.trim()), Sort.by("id"), limit);
+    }
+
+    /**
+     * Narrow a combined query to a few book IDs with the in-memory indexes, or
+     * return null if they cannot narrow it to {@code books.query.max-candidates}.
+     * The price index counts its matches before listing them, so it is tried
+     * first and used alone when selective enough; otherwise the trigram hits for
+     * title and author are intersected and then narrowed to the price range.
+     * Candidates are only a superset of the matches, so every criterion is still
+     * checked on the loaded books.
+     */
+    private List<Long> findQueryCandidates(BookQueryDTO query) {
+        int maxCandidates = bookProperties.getQuery().getMaxCandidates();
+        if (query.getMinPrice() != null || query.getMaxPrice() != null) {
+            // One read of the index, so the range cannot grow between counting and listing it
+            List<Long> inRange = priceIndex.findIdsBetween(query.getMinPrice(), query.getMaxPrice(), 0,
+                    maxCandidates + 1);
+            if (inRange != null && inRange.size() <= maxCandidates) {
+                return inRange;
+            }
+        }
+        List<Long> candidates = null;
+        if (query.getTitle() != null && !query.getTitle().isBlank()) {
+            candidates = trigramIndex.searchTitle(query.getTitle());
+        }
+        if (query.getAuthor() != null && !query.getAuthor().isBlank()) {
+            List<Long> byAuthor = trigramIndex.searchAuthor(query.getAuthor());
+            if (byAuthor != null) {
+                candidates = candidates != null ? intersectAscending(candidates, byAuthor) : byAuthor;
+            }
+        }
+        if (candidates != null && (query.getMinPrice() != null || query.getMaxPrice() != null)) {
+            List<Long> inRange = priceIndex.retainBetween(candidates, query.getMinPrice(), query.getMaxPrice());
+            if (inRange != null) {
+                candidates = inRange;
+            }
+        }
+        return candidates != null && candidates.size() <= maxCandidates ? candidates : null;
+    }
+
+    private static List<Long> intersectAscending(List<Long> first, List<Long> second) {
+        List<Long> both = new ArrayList<>(Math.min(first.size(), second.size()));
+        int i = 0;
+        int j = 0;
+        while (i < first.size() && j < second.size()) {
+            int order = first.get(i).compareTo(second.get(j));
+            if (order == 0) {
+                both.add(first.get(i));
+            }
+            if (order <= 0) {
+                i++;
+            }
+            if (order >= 0) {
+                j++;
+            }
+        }
+        return both;
+    }
+
+    /**
+     * Parse the sort parameter of a combined query, such as "-price,title",
+     * adding the ID as the last key so equal books keep a stable order.
+     */
+    private static Sort querySort(String sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        boolean byId = false;
+        if (sort != null && !sort.isBlank()) {
+            for (String part : sort.split(",")) {
+                String field = part.trim();
+                boolean descending = field.startsWith("-");
+                if (descending) {
+                    field = field.substring(1);
+                }
+                if (!SORT_FIELDS.containsKey(field)) {
+                    throw new ValidationException("Cannot sort by '" + field + "'");
+                }
+                orders.add(descending ? Sort.Order.desc(field) : Sort.Order.asc(field));
+                byId |= field.equals("id");
+            }
+        }
+        if (!byId) {
+            orders.add(Sort.Order.asc("id"));
+        }
+        return Sort.by(orders);
+    }
+
+    /**
+     * The criteria of a combined query as a check on a loaded book, matching
+     * what the specifications ask of the database.
+     */
+    private static Predicate<BookView> queryMatcher(BookQueryDTO query) {
+        String title = query.getTitle();
+        String author = query.getAuthor();
+        String isbnPrefix = query.getIsbnPrefix();
+        return book -> (title == null || title.isBlank() || containsIgnoreCase(book.getTitle(), title))
+                && (author == null || author.isBlank() || containsIgnoreCase(book.getAuthor(), author))
+                && (isbnPrefix == null || isbnPrefix.isBlank()
+                        || (book.getIsbn() != null && book.getIsbn().startsWith(isbnPrefix)))
+                && within(book.getPrice(), query.getMinPrice(), query.getMaxPrice())
+                && within(book.getUpdatedAt(), query.getMinUpdatedAt(), query.getMaxUpdatedAt());
+    }
+
+    /**
+     * Columns {@link #queryMatcher} and {@link #queryComparator} read from the
+     * candidates of a combined query.
+     */
+    private static List<String> queryColumns(Sort sort) {
+        List<String> columns = new ArrayList<>(List.of("title", "author", "isbn", "price", "updatedAt"));
+        sort.forEach(order -> columns.add(order.getProperty()));
+        return columns;
+    }
+
+    private static <T extends Comparable<? super T>> boolean within(T value, T min, T max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null && (min == null || value.compareTo(min) >= 0) && (max == null || value.compareTo(max) <= 0);
+    }
+
+    private static Comparator<BookView> queryComparator(Sort sort) {
+        Comparator<BookView> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<BookView> next = SORT_FIELDS.get(order.getProperty());
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator != null ? comparator.thenComparing(next) : next;
+        }
+        return comparator;
+    }
+
+    /**
+     * Find books in a price range, cheapest first, from the price index when it is
+     * loaded and from the given repository query otherwise, reading only the
+     * columns of the selected fields when there are any.
+     */
+    private List<? extends BookView> findByPrice(BigDecimal minPrice, BigDecimal maxPrice, Integer offset,
+                                                 Integer limit, Set<String> fields, Supplier<List<Book>> fallback) {
+        int skip = offset != null ? offset : 0;
+        if (skip < 0) {
+            throw new ValidationException("Offset must not be negative");
+        }
+        int maxLimit = bookProperties.getPagination().getMaxLimit();
+        if (limit != null && (limit < 1 || limit > maxLimit)) {
+            throw new ValidationException("Limit must be between 1 and " + maxLimit);
+        }
+
+        Set<String> columns = columnsFor(fields, List.of("price"));
+        List<Long> ids = priceIndex.findIdsBetween(minPrice, maxPrice, skip, limit);
+        if (ids != null) {
+            return findAllByIdInOrder(ids, columns, book -> (minPrice == null || book.getPrice().compareTo(minPrice) >= 0)
+                    && (maxPrice == null || book.getPrice().compareTo(maxPrice) <= 0));
+        }
+
+        List<? extends BookView> books = findBooks(columns, BookSpecifications.priceBetween(minPrice, maxPrice),
+                Sort.by("price", "id"), Limit.unlimited(), fallback);
+        int from = Math.min(skip, books.size());
+        int to = limit != null ? (int) Math.min(books.size(), (long) from + limit) : books.size();
+        return books.subList(from, to);
+    }
+
+    /**
+     * Load the books with the given IDs in a single query, keeping the order of
+     * the IDs and dropping rows that were deleted or no longer match since the
+     * index produced the IDs. Whole books are loaded when {@code columns} is
+     * null, and only those columns otherwise.
+     */
+    private List<BookView> findAllByIdInOrder(List<Long> ids, Set<String> columns, Predicate<BookView> stillMatches) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, BookView> booksById = new HashMap<>();
+        Iterable<? extends BookView> found = columns != null
+                ? bookRepository.findViewsById(ids, columns)
+                : bookRepository.findAllById(ids);
+        for (BookView book : found) {
+            booksById.put(book.getId(), book);
+        }
+        List<BookView> books = new ArrayList<>(booksById.size());
+        for (Long id : ids) {
+            BookView book = booksById.get(id);
+            if (book != null && stillMatches.test(book)) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
+    /**
+     * Run a repository query for whole books when {@code columns} is null, or
+     * read only those columns of the books matching the equivalent specification.
+     */
+    private List<? extends BookView> findBooks(Set<String> columns, Specification<Book> filter, Sort sort, Limit limit,
+                                               Supplier<List<Book>> query) {
+        return columns != null ? bookRepository.findViews(filter, sort, limit, columns) : query.get();
+    }
+
+    /**
+     * Read the first books matching a specification, whole when {@code columns}
+     * is null, with the limit applied by the database.
+     */
+    private List<? extends BookView> findFirstBooks(Set<String> columns, Specification<Book> filter, Sort sort,
+                                                    Limit limit) {
+        if (columns != null) {
+            return bookRepository.findViews(filter, sort, limit, columns);
+        }
+        return bookRepository.findBy(filter, query -> query.sortBy(sort).limit(limit.max()).all());
+    }
+
+    /**
+     * Parse a field selection such as "id,title,price", ignoring case, or return
+     * null for whole books when no fields are given.
+     */
+    private static Set<String> selectedFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> selected = new HashSet<>();
+        for (String part : fields.split(",")) {
+            String name = part.trim();
+            String field = BookView.FIELDS.stream()
+                    .filter(name::equalsIgnoreCase)
+                    .findFirst()
+                    .orElseThrow(() -> new ValidationException("Unknown field '" + name + "'"));
+            selected.add(field);
+        }
+        return selected;
+    }
+
+    /**
+     * Columns to read for a field selection: the selected fields, the ID and the
+     * fields the service reads itself, or null to load whole books.
+     */
+    private static Set<String> columnsFor(Set<String> fields, Collection<String> needed) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> columns = new HashSet<>(fields);
+        columns.add("id");
+        columns.addAll(needed);
+        return columns;
+    }
+
+    /**
+     * Convert the books of a list response, timed once per response rather
+     * than per book, so the timer costs the same for one book or a thousand.
+     */
+    private List<BookResponseDTO> toResponseDTOs(List<? extends BookView> books, Set<String> fields) {
+        long start = System.nanoTime();
+        List<BookResponseDTO> dtos = new ArrayList<>(books.size());
+        for (BookView book : books) {
+            dtos.add(convertToResponseDTO(book, fields));
+        }
+        dtoConversionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return dtos;
+    }
+
+    private static boolean containsIgnoreCase(String value, String query) {
+        return value != null && query != null
+                && value.toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean containsAnyTerm(String value, Set<String> terms) {
+        return TextAnalyzer.tokens(value).stream().anyMatch(terms::contains);
     }
 
     @Override
     public BookResponseDTO convertToResponseDTO(Book book) {
-        return new BookResponseDTO(
-                book.getId(),
-                book.getTitle(),
-                book.getAuthor(),
-                book.getIsbn(),
-                book.getPrice(),
-                book.getCreatedAt(),
-                book.getUpdatedAt()
-        );
+        return convertToResponseDTO(book, null);
+    }
+
+    /**
+     * Convert a book to a response holding only the selected fields, or all of
+     * them when {@code fields} is null. Fields left out are null and are not
+     * written to the JSON.
+     */
+    private BookResponseDTO convertToResponseDTO(BookView book, Set<String> fields) {
+        BookResponseDTO dto;
+        if (fields == null) {
+            dto = new BookResponseDTO(
+                    book.getId(),
+                    book.getTitle(),
+                    book.getAuthor(),
+                    book.getIsbn(),
+                    book.getPrice(),
+                    book.getCreatedAt(),
+                    book.getUpdatedAt()
+            );
+        } else {
+            dto = new BookResponseDTO();
+            if (fields.contains("id")) {
+                dto.setId(book.getId());
+            }
+            if (fields.contains("title")) {
+                dto.setTitle(book.getTitle());
+            }
+            if (fields.contains("author")) {
+                dto.setAuthor(book.getAuthor());
+            }
+            if (fields.contains("isbn")) {
+                dto.setIsbn(book.getIsbn());
+            }
+            if (fields.contains("price")) {
+                dto.setPrice(book.getPrice());
+            }
+            if (fields.contains("createdAt")) {
+                dto.setCreatedAt(book.getCreatedAt());
+            }
+            if (fields.contains("updatedAt")) {
+                dto.setUpdatedAt(book.getUpdatedAt());
+            }
+        }
+        return dto;
     }
 
     @Override
@@ -0,0 +1,159 @@
+package com.cursordemo.coalescing;
+
+import com.cursordemo.config.BookProperties;
+import com.cursordemo.dto.BookResponseDTO;
+import com.cursordemo.event.BookChangedEvent;
+import com.cursordemo.exception.BookNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that concurrent identical calls share one execution, that every
+ * waiter gets its own copy of the result or exception, and that callers
+ * arriving after a change never join a call that started before it.
+ */
+class CoalescingAspectTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private SlowBooks target;
+    private SlowBooks books;
+    private CoalescingAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        target = new SlowBooks();
+        aspect = new CoalescingAspect(new BookProperties(), new SimpleMeterRegistry());
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(aspect);
+        books = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalCalls_ShareOneExecution() throws Exception {
+        List<Future<List<BookResponseDTO>>> calls = startCalls(CALLERS, () -> books.search("gatsby"));
+        target.release.countDown();
+
+        List<List<BookResponseDTO>> results = new ArrayList<>();
+        for (Future<List<BookResponseDTO>> call : calls) {
+            results.add(call.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, target.executions.get());
+        for (List<BookResponseDTO> result : results) {
+            assertEquals("Result 1", result.get(0).getTitle());
+        }
+        // Every caller owns its list and books
+        results.get(0).get(0).setTitle("Changed by one caller");
+        for (int i = 1; i < results.size(); i++) {
+            assertNotSame(results.get(0), results.get(i));
+            assertEquals("Result 1", results.get(i).get(0).getTitle());
+        }
+    }
+
+    @Test
+    void differentArguments_RunSeparately() throws Exception {
+        target.release.countDown();
+
+        books.search("gatsby");
+        books.search("mockingbird");
+
+        assertEquals(2, target.executions.get());
+    }
+
+    @Test
+    void sharedException_IsCopiedPerWaiter() throws Exception {
+        target.failure = "Book not found with ID: 42";
+        List<Future<List<BookResponseDTO>>> calls = startCalls(CALLERS, () -> books.search("missing"));
+        target.release.countDown();
+
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<List<BookResponseDTO>> call : calls) {
+            Exception ex = assertThrows(Exception.class, () -> call.get(5, TimeUnit.SECONDS));
+            failures.add(ex.getCause());
+        }
+
+        assertEquals(1, target.executions.get());
+        for (Throwable failure : failures) {
+            assertInstanceOf(BookNotFoundException.class, failure);
+            assertEquals("Book not found with ID: 42", failure.getMessage());
+        }
+        assertEquals(CALLERS, failures.stream().distinct().count());
+    }
+
+    @Test
+    void callerAfterChange_DoesNotJoinEarlierCall() throws Exception {
+        List<Future<List<BookResponseDTO>>> before = startCalls(1, () -> books.search("gatsby"));
+
+        aspect.beforeBookChangeCommits(BookChangedEvent.deleted(1L, 0));
+        aspect.onBookChanged(BookChangedEvent.deleted(1L, 0));
+        List<Future<List<BookResponseDTO>>> after = startCalls(2, () -> books.search("gatsby"));
+        target.release.countDown();
+
+        assertEquals("Result 1", before.get(0).get(5, TimeUnit.SECONDS).get(0).getTitle());
+        for (Future<List<BookResponseDTO>> call : after) {
+            assertEquals("Result 2", call.get(5, TimeUnit.SECONDS).get(0).getTitle());
+        }
+        assertEquals(2, target.executions.get());
+    }
+
+    /**
+     * Start concurrent callers and wait until they are running or waiting.
+     */
+    private List<Future<List<BookResponseDTO>>> startCalls(int count, Callable<List<BookResponseDTO>> call)
+            throws InterruptedException {
+        List<Future<List<BookResponseDTO>>> calls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            calls.add(executor.submit(call));
+        }
+        // The first caller of a generation blocks inside the method; give the others time to join it
+        assertTrue(target.entered.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        return calls;
+    }
+
+    /**
+     * Search that blocks until released and numbers its executions.
+     */
+    static class SlowBooks {
+
+        final AtomicInteger executions = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch entered = new CountDownLatch(1);
+        volatile String failure;
+
+        @Coalesced(ignoreCase = true)
+        public List<BookResponseDTO> search(String title) throws InterruptedException {
+            int execution = executions.incrementAndGet();
+            entered.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            if (failure != null) {
+                throw new BookNotFoundException(failure);
+            }
+            BookResponseDTO book = new BookResponseDTO();
+            book.setTitle("Result " + execution);
+            return List.of(book);
+        }
+    }
+}
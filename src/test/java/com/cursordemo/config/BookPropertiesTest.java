@@ -0,0 +1,43 @@
+package com.cursordemo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the {@code books.*} properties bind and that invalid values
+ * stop the application at startup instead of failing later.
+ */
+class BookPropertiesTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+            .withUserConfiguration(PropertiesConfiguration.class);
+
+    @Test
+    void exportBatchSize_Binds() {
+        contextRunner.withPropertyValues("books.export.batch-size=250").run(context ->
+                assertEquals(250, context.getBean(BookProperties.class).getExport().getBatchSize()));
+    }
+
+    @Test
+    void exportBatchSize_RejectsZeroAndNegative() {
+        for (String batchSize : new String[]{"0", "-1"}) {
+            contextRunner.withPropertyValues("books.export.batch-size=" + batchSize).run(context -> {
+                assertNotNull(context.getStartupFailure());
+                assertTrue(context.getStartupFailure().getMessage().contains("books"),
+                        context.getStartupFailure().getMessage());
+            });
+        }
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(BookProperties.class)
+    static class PropertiesConfiguration {
+    }
+}
@@ -0,0 +1,150 @@
+package com.cursordemo.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that verified credentials are served from the cache as a new token
+ * per request, that wrong passwords are never cached, and that changing a
+ * user's credentials, roles or account state evicts the cached entry at once.
+ */
+class CachingAuthenticationProviderTest {
+
+    private CountingPasswordEncoder passwordEncoder;
+    private InMemoryUserDetailsManager users;
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = new CountingPasswordEncoder();
+        users = new InMemoryUserDetailsManager(user("secret", true));
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider(passwordEncoder);
+        daoProvider.setUserDetailsService(users);
+        provider = new CachingAuthenticationProvider(daoProvider, users, new BookProperties().getAuthCache(),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void repeatedLogin_IsVerifiedOnce() {
+        Authentication first = provider.authenticate(token("secret"));
+        Authentication second = provider.authenticate(token("secret"));
+
+        assertTrue(first.isAuthenticated());
+        assertTrue(second.isAuthenticated());
+        assertEquals("alice", second.getName());
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+        assertEquals(1, passwordEncoder.matches.get());
+    }
+
+    @Test
+    void cacheHit_ReturnsNewTokenWithDetailsOfItsRequest() {
+        Authentication first = provider.authenticate(token("secret", "10.0.0.1"));
+        Authentication second = provider.authenticate(token("secret", "10.0.0.2"));
+
+        assertNotSame(first, second);
+        assertEquals("10.0.0.1", first.getDetails());
+        assertEquals("10.0.0.2", second.getDetails());
+        // Erasing one request's credentials leaves the next hit untouched
+        ((UsernamePasswordAuthenticationToken) second).eraseCredentials();
+        Authentication third = provider.authenticate(token("secret", "10.0.0.3"));
+        assertEquals("secret", third.getCredentials());
+        assertEquals(1, passwordEncoder.matches.get());
+    }
+
+    @Test
+    void roleChange_EvictsCachedAuthorities() {
+        provider.authenticate(token("secret"));
+
+        users.updateUser(User.withUserDetails(users.loadUserByUsername("alice")).roles("ADMIN").build());
+
+        assertEquals(List.of("ROLE_ADMIN"), provider.authenticate(token("secret")).getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).toList());
+        assertEquals(2, passwordEncoder.matches.get());
+    }
+
+    @Test
+    void wrongPassword_IsNeverCached() {
+        provider.authenticate(token("secret"));
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("guess")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("guess")));
+        assertEquals(3, passwordEncoder.matches.get());
+        // The right password is still cached
+        provider.authenticate(token("secret"));
+        assertEquals(3, passwordEncoder.matches.get());
+    }
+
+    @Test
+    void passwordChange_EvictsOldPassword() {
+        provider.authenticate(token("secret"));
+
+        users.updateUser(user("changed", true));
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("secret")));
+        assertTrue(provider.authenticate(token("changed")).isAuthenticated());
+        assertTrue(provider.authenticate(token("changed")).isAuthenticated());
+        assertEquals(3, passwordEncoder.matches.get());
+    }
+
+    @Test
+    void disabledOrRemovedUser_IsEvicted() {
+        provider.authenticate(token("secret"));
+
+        users.updateUser(user("secret", false));
+        assertThrows(DisabledException.class, () -> provider.authenticate(token("secret")));
+
+        users.deleteUser("alice");
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("secret")));
+    }
+
+    private User user(String password, boolean enabled) {
+        return (User) User.withUsername("alice")
+                .password(passwordEncoder.encode(password))
+                .disabled(!enabled)
+                .roles("USER")
+                .build();
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String password) {
+        return token(password, null);
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String password, Object details) {
+        UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated("alice", password);
+        token.setDetails(details);
+        return token;
+    }
+
+    /**
+     * BCrypt at its lowest cost that counts the passwords it checks.
+     */
+    private static final class CountingPasswordEncoder extends BCryptPasswordEncoder {
+
+        final AtomicInteger matches = new AtomicInteger();
+
+        CountingPasswordEncoder() {
+            super(4);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            matches.incrementAndGet();
+            return super.matches(rawPassword, encodedPassword);
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.cursordemo.controller;
 
+import com.cursordemo.cache.SerializedBook;
+import com.cursordemo.dto.BookBatchGetRequestDTO;
+import com.cursordemo.dto.BookBatchGetResponseDTO;
+import com.cursordemo.dto.BookBulkResultDTO;
+import com.cursordemo.dto.BookPageDTO;
+import com.cursordemo.dto.BookQueryDTO;
 import com.cursordemo.dto.BookRequestDTO;
 import com.cursordemo.dto.BookResponseDTO;
+import com.cursordemo.dto.SuggestionDTO;
 import com.cursordemo.exception.BookNotFoundException;
 import com.cursordemo.service.BookService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,7 +23,9 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -98,26 +107,79 @@ class BookControllerTest {
         verify(bookService, never()).createBook(any(BookRequestDTO.class));
     }
 
+    @Test
+    void createBooks_Success() throws Exception {
+        List<BookBulkResultDTO> results = Arrays.asList(
+                BookBulkResultDTO.created(0, bookResponseDTO),
+                BookBulkResultDTO.rejected(1, BookBulkResultDTO.Status.CONFLICT, "Book with ISBN 978-1234567890 already exists"));
+        when(bookService.createBooks(anyList())).thenReturn(results);
+
+        mockMvc.perform(post("/api/v1/books/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(bookRequestDTO, bookRequestDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].book.id").value(1))
+                .andExpect(jsonPath("$[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].index").value(1));
+
+        verify(bookService, times(1)).createBooks(anyList());
+    }
+
+    @Test
+    void batchGetBooks_Success() throws Exception {
+        BookBatchGetResponseDTO response = new BookBatchGetResponseDTO(
+                Arrays.asList(bookResponseDTO, null), List.of(bookResponseDTO), List.of(99L), List.of());
+        when(bookService.batchGetBooks(any(BookBatchGetRequestDTO.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/v1/books/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookBatchGetRequestDTO(List.of(1L, 99L), List.of("978-1234567890")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byId[0].id").value(1))
+                .andExpect(jsonPath("$.byId[1]").doesNotExist())
+                .andExpect(jsonPath("$.byIsbn[0].isbn").value("978-1234567890"))
+                .andExpect(jsonPath("$.missingIds[0]").value(99));
+
+        verify(bookService, times(1)).batchGetBooks(any(BookBatchGetRequestDTO.class));
+    }
+
     @Test
     void getBookById_Success() throws Exception {
-        when(bookService.getBookById(1L)).thenReturn(bookResponseDTO);
+        SerializedBook serializedBook = new SerializedBook(
+                "{\"id\":1,\"title\":\"Test Book\"}".getBytes(StandardCharsets.UTF_8), "\"abc123\"");
+        when(bookService.getSerializedBookById(1L)).thenReturn(serializedBook);
 
         mockMvc.perform(get("/api/v1/books/1"))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"abc123\""))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.title").value("Test Book"));
 
-        verify(bookService, times(1)).getBookById(1L);
+        verify(bookService, times(1)).getSerializedBookById(1L);
     }
 
     @Test
     void getBookById_NotFound() throws Exception {
-        when(bookService.getBookById(999L)).thenThrow(new BookNotFoundException("Book not found"));
+        when(bookService.getSerializedBookById(999L)).thenThrow(new BookNotFoundException("Book not found"));
 
         mockMvc.perform(get("/api/v1/books/999"))
                 .andExpect(status().isNotFound());
 
-        verify(bookService, times(1)).getBookById(999L);
+        verify(bookService, times(1)).getSerializedBookById(999L);
+    }
+
+    @Test
+    void getBookById_IfNoneMatchCurrent_ReturnsNotModified() throws Exception {
+        when(bookService.getBookEtag(1L)).thenReturn("\"1-1700000000000000\"");
+
+        mockMvc.perform(get("/api/v1/books/1")
+                .header("If-None-Match", "\"1-1700000000000000\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-1700000000000000\""));
+
+        verify(bookService, never()).getSerializedBookById(anyLong());
     }
 
     @Test
@@ -131,17 +193,134 @@ class BookControllerTest {
         verify(bookService, times(1)).getBookByIsbn("978-1234567890");
     }
 
+    @Test
+    void getBookByIsbn_IfNoneMatchCurrent_ReturnsNotModified() throws Exception {
+        when(bookService.getBookEtagByIsbn("978-1234567890")).thenReturn("\"1-1700000000000000\"");
+
+        mockMvc.perform(get("/api/v1/books/isbn/978-1234567890")
+                .header("If-None-Match", "\"1-1700000000000000\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-1700000000000000\""));
+
+        verify(bookService, never()).getBookByIsbn(anyString());
+    }
+
     @Test
     void getAllBooks_Success() throws Exception {
         List<BookResponseDTO> books = Arrays.asList(bookResponseDTO);
-        when(bookService.getAllBooks()).thenReturn(books);
+        when(bookService.getBooksAfter(null, null, null)).thenReturn(new BookPageDTO(books, null));
 
         mockMvc.perform(get("/api/v1/books"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookController.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].title").value("Test Book"));
 
-        verify(bookService, times(1)).getAllBooks();
+        verify(bookService, times(1)).getBooksAfter(null, null, null);
+    }
+
+    @Test
+    void getAllBooks_WithCursor_ReturnsNextCursorHeader() throws Exception {
+        List<BookResponseDTO> books = Arrays.asList(bookResponseDTO);
+        when(bookService.getBooksAfter(0L, 1, null)).thenReturn(new BookPageDTO(books, 1L));
+
+        mockMvc.perform(get("/api/v1/books")
+                .param("after", "0")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookController.NEXT_CURSOR_HEADER, "1"))
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        verify(bookService, times(1)).getBooksAfter(0L, 1, null);
+    }
+
+    @Test
+    void searchBooksByTitle_IfNoneMatchCatalog_ReturnsNotModified() throws Exception {
+        when(bookService.getCatalogEtag()).thenReturn("W/\"1700000000000-7\"");
+
+        mockMvc.perform(get("/api/v1/books/search/title")
+                .param("title", "Test")
+                .header("If-None-Match", "W/\"1700000000000-7\""))
+                .andExpect(status().isNotModified());
+
+        verify(bookService, never()).searchBooksByTitle(anyString(), any());
+    }
+
+    @Test
+    void suggest_Success() throws Exception {
+        when(bookService.suggest("great ga", 5))
+                .thenReturn(List.of(new SuggestionDTO("The Great Gatsby", "title", 1)));
+
+        mockMvc.perform(get("/api/v1/books/suggest")
+                .param("q", "great ga")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value("The Great Gatsby"))
+                .andExpect(jsonPath("$[0].field").value("title"))
+                .andExpect(jsonPath("$[0].weight").value(1));
+
+        verify(bookService, times(1)).suggest("great ga", 5);
+    }
+
+    @Test
+    void searchBooksFullText_Success() throws Exception {
+        when(bookService.searchBooksFullText("gatsby fitzgerald", 5, null)).thenReturn(List.of(bookResponseDTO));
+
+        mockMvc.perform(get("/api/v1/books/search/text")
+                .param("q", "gatsby fitzgerald")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L));
+
+        verify(bookService, times(1)).searchBooksFullText("gatsby fitzgerald", 5, null);
+    }
+
+    @Test
+    void searchBooksByAuthorFuzzy_Success() throws Exception {
+        when(bookService.searchBooksByAuthorFuzzy("Test Athor", null, null)).thenReturn(List.of(bookResponseDTO));
+
+        mockMvc.perform(get("/api/v1/books/search/author/fuzzy")
+                .param("author", "Test Athor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].author").value("Test Author"));
+
+        verify(bookService, times(1)).searchBooksByAuthorFuzzy("Test Athor", null, null);
+    }
+
+    @Test
+    void queryBooks_Success() throws Exception {
+        BookQueryDTO query = new BookQueryDTO();
+        query.setAuthor("Test");
+        query.setMinPrice(new BigDecimal("10.00"));
+        query.setMaxPrice(new BigDecimal("30.00"));
+        query.setSort("-price");
+        when(bookService.queryBooks(query)).thenReturn(List.of(bookResponseDTO));
+
+        mockMvc.perform(get("/api/v1/books/query")
+                .param("author", "Test")
+                .param("minPrice", "10.00")
+                .param("maxPrice", "30.00")
+                .param("sort", "-price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L));
+
+        verify(bookService, times(1)).queryBooks(query);
+    }
+
+    @Test
+    void exportBooks_Success() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(bookService).exportBooks(any(OutputStream.class));
+
+        mockMvc.perform(get("/api/v1/books/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+
+        verify(bookService, times(1)).exportBooks(any(OutputStream.class));
     }
 
     @Test
@@ -170,33 +349,33 @@ class BookControllerTest {
     @Test
     void searchBooksByTitle_Success() throws Exception {
         List<BookResponseDTO> books = Arrays.asList(bookResponseDTO);
-        when(bookService.searchBooksByTitle("Test")).thenReturn(books);
+        when(bookService.searchBooksByTitle("Test", null)).thenReturn(books);
 
         mockMvc.perform(get("/api/v1/books/search/title")
                 .param("title", "Test"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].title").value("Test Book"));
 
-        verify(bookService, times(1)).searchBooksByTitle("Test");
+        verify(bookService, times(1)).searchBooksByTitle("Test", null);
     }
 
     @Test
     void searchBooksByAuthor_Success() throws Exception {
         List<BookResponseDTO> books = Arrays.asList(bookResponseDTO);
-        when(bookService.searchBooksByAuthor("Test Author")).thenReturn(books);
+        when(bookService.searchBooksByAuthor("Test Author", null)).thenReturn(books);
 
         mockMvc.perform(get("/api/v1/books/search/author")
                 .param("author", "Test Author"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].author").value("Test Author"));
 
-        verify(bookService, times(1)).searchBooksByAuthor("Test Author");
+        verify(bookService, times(1)).searchBooksByAuthor("Test Author", null);
     }
 
     @Test
     void searchBooksByTitleOrAuthor_Success() throws Exception {
         List<BookResponseDTO> books = Arrays.asList(bookResponseDTO);
-        when(bookService.searchBooksByTitleOrAuthor("Test", "Author")).thenReturn(books);
+        when(bookService.searchBooksByTitleOrAuthor("Test", "Author", null)).thenReturn(books);
 
         mockMvc.perform(get("/api/v1/books/search")
                 .param("title", "Test")
@@ -204,13 +383,13 @@ class BookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].title").value("Test Book"));
 
-        verify(bookService, times(1)).searchBooksByTitleOrAuthor("Test", "Author");
+        verify(bookService, times(1)).searchBooksByTitleOrAuthor("Test", "Author", null);
     }
 
     @Test
     void searchBooksByPriceRange_Success() throws Exception {
         List<BookResponseDTO> books = Arrays.asList(bookResponseDTO);
-        when(bookService.searchBooksByPriceRange(any(BigDecimal.class), any(BigDecimal.class))).thenReturn(books);
+        when(bookService.searchBooksByPriceRange(any(BigDecimal.class), any(BigDecimal.class), isNull(), isNull(), isNull())).thenReturn(books);
 
         mockMvc.perform(get("/api/v1/books/search/price-range")
                 .param("minPrice", "10.00")
@@ -218,33 +397,83 @@ class BookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].price").value(29.99));
 
-        verify(bookService, times(1)).searchBooksByPriceRange(any(BigDecimal.class), any(BigDecimal.class));
+        verify(bookService, times(1)).searchBooksByPriceRange(any(BigDecimal.class), any(BigDecimal.class), isNull(), isNull(), isNull());
+    }
+
+    @Test
+    void searchBooksByPriceRange_WithOffsetAndLimit_Success() throws Exception {
+        List<BookResponseDTO> books = Arrays.asList(bookResponseDTO);
+        when(bookService.searchBooksByPriceRange(any(BigDecimal.class), any(BigDecimal.class), eq(10), eq(5), isNull())).thenReturn(books);
+
+        mockMvc.perform(get("/api/v1/books/search/price-range")
+                .param("minPrice", "10.00")
+                .param("maxPrice", "50.00")
+                .param("offset", "10")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].price").value(29.99));
+
+        verify(bookService, times(1)).searchBooksByPriceRange(any(BigDecimal.class), any(BigDecimal.class), eq(10), eq(5), isNull());
+    }
+
+    @Test
+    void searchBooksByPriceRange_WithFields_OmitsOtherFields() throws Exception {
+        BookResponseDTO sparse = new BookResponseDTO();
+        sparse.setId(1L);
+        sparse.setTitle("Test Book");
+        when(bookService.searchBooksByPriceRange(any(BigDecimal.class), any(BigDecimal.class), isNull(), isNull(),
+                eq("id,title"))).thenReturn(List.of(sparse));
+
+        mockMvc.perform(get("/api/v1/books/search/price-range")
+                .param("minPrice", "10.00")
+                .param("maxPrice", "50.00")
+                .param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Test Book"))
+                .andExpect(jsonPath("$[0].price").doesNotExist())
+                .andExpect(jsonPath("$[0].author").doesNotExist());
+
+        verify(bookService, times(1)).searchBooksByPriceRange(any(BigDecimal.class), any(BigDecimal.class), isNull(),
+                isNull(), eq("id,title"));
+    }
+
+    @Test
+    void countBooksByPriceRange_Success() throws Exception {
+        when(bookService.countBooksByPriceRange(any(BigDecimal.class), any(BigDecimal.class))).thenReturn(7L);
+
+        mockMvc.perform(get("/api/v1/books/search/price-range/count")
+                .param("minPrice", "10.00")
+                .param("maxPrice", "50.00"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("7"));
+
+        verify(bookService, times(1)).countBooksByPriceRange(any(BigDecimal.class), any(BigDecimal.class));
     }
 
     @Test
     void searchBooksByMaxPrice_Success() throws Exception {
         List<BookResponseDTO> books = Arrays.asList(bookResponseDTO);
-        when(bookService.searchBooksByMaxPrice(any(BigDecimal.class))).thenReturn(books);
+        when(bookService.searchBooksByMaxPrice(any(BigDecimal.class), isNull(), isNull(), isNull())).thenReturn(books);
 
         mockMvc.perform(get("/api/v1/books/search/price-max")
                 .param("maxPrice", "50.00"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].price").value(29.99));
 
-        verify(bookService, times(1)).searchBooksByMaxPrice(any(BigDecimal.class));
+        verify(bookService, times(1)).searchBooksByMaxPrice(any(BigDecimal.class), isNull(), isNull(), isNull());
     }
 
     @Test
     void searchBooksByMinPrice_Success() throws Exception {
         List<BookResponseDTO> books = Arrays.asList(bookResponseDTO);
-        when(bookService.searchBooksByMinPrice(any(BigDecimal.class))).thenReturn(books);
+        when(bookService.searchBooksByMinPrice(any(BigDecimal.class), isNull(), isNull(), isNull())).thenReturn(books);
 
         mockMvc.perform(get("/api/v1/books/search/price-min")
                 .param("minPrice", "10.00"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].price").value(29.99));
 
-        verify(bookService, times(1)).searchBooksByMinPrice(any(BigDecimal.class));
+        verify(bookService, times(1)).searchBooksByMinPrice(any(BigDecimal.class), isNull(), isNull(), isNull());
     }
 
     @Test
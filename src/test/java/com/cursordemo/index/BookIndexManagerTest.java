@@ -0,0 +1,206 @@
+package com.cursordemo.index;
+
+import com.cursordemo.config.BookProperties;
+import com.cursordemo.entity.Book;
+import com.cursordemo.event.BookChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the index manager applies changes in version order, keeps
+ * deletes as tombstones and replays the changes committed during a rebuild
+ * without letting older ones win.
+ */
+class BookIndexManagerTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TitleIndex index;
+    private BookIndexManager manager;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:index-manager-test;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE books (id BIGINT PRIMARY KEY, title VARCHAR(255), author VARCHAR(255), "
+                + "isbn VARCHAR(20), price DECIMAL(10, 2), created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                + "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, version BIGINT)");
+        index = new TitleIndex();
+        manager = new BookIndexManager(List.of(index), dataSource, new BookProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE books");
+    }
+
+    @Test
+    void olderSave_IsDropped() {
+        manager.onBookChanged(BookChangedEvent.saved(book(1L, "Second", 2)));
+        manager.onBookChanged(BookChangedEvent.saved(book(1L, "First", 1)));
+
+        assertEquals("Second", index.titles.get(1L));
+    }
+
+    @Test
+    void delete_KeepsTombstoneAgainstLateSave() {
+        manager.onBookChanged(BookChangedEvent.saved(book(1L, "Saved", 3)));
+        manager.onBookChanged(BookChangedEvent.deleted(1L, 3));
+        manager.onBookChanged(BookChangedEvent.saved(book(1L, "Late", 3)));
+        manager.onBookChanged(BookChangedEvent.saved(book(1L, "Older", 2)));
+
+        assertFalse(index.titles.containsKey(1L));
+    }
+
+    @Test
+    void rebuild_LoadsTableAndDropsChangesNotNewerThanRows() {
+        insert(1L, "Loaded", 5);
+
+        manager.rebuild();
+        manager.onBookChanged(BookChangedEvent.saved(book(1L, "Stale", 5)));
+
+        assertEquals("Loaded", index.titles.get(1L));
+        manager.onBookChanged(BookChangedEvent.saved(book(1L, "Newer", 6)));
+        assertEquals("Newer", index.titles.get(1L));
+    }
+
+    @Test
+    void rebuild_KeepsTombstonesOfDeletedBooks() {
+        manager.onBookChanged(BookChangedEvent.deleted(7L, 4));
+
+        manager.rebuild();
+        manager.onBookChanged(BookChangedEvent.saved(book(7L, "Late", 4)));
+
+        assertFalse(index.titles.containsKey(7L));
+    }
+
+    @Test
+    void rebuild_ReplaysChangesCommittedWhileLoading() throws Exception {
+        insert(1L, "Row 1", 1);
+        insert(2L, "Row 2", 1);
+        insert(3L, "Row 3", 1);
+        index.blockLoading();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuild = executor.submit(manager::rebuild);
+            assertTrue(index.loading.await(5, TimeUnit.SECONDS));
+
+            // Committed while the rebuild reads the table: book 1 after its row was read,
+            // book 2 in the same version as the row it is about to read, book 3 deleted
+            manager.onBookChanged(BookChangedEvent.saved(book(1L, "Updated 1", 2)));
+            jdbcTemplate.update("UPDATE books SET title = 'Row 2 updated', version = 2 WHERE id = 2");
+            manager.onBookChanged(BookChangedEvent.saved(book(2L, "Row 2 updated", 2)));
+            jdbcTemplate.update("DELETE FROM books WHERE id = 3");
+            manager.onBookChanged(BookChangedEvent.deleted(3L, 1));
+            index.resumeLoading();
+            rebuild.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("Updated 1", index.titles.get(1L));
+        assertEquals("Row 2 updated", index.titles.get(2L));
+        assertFalse(index.titles.containsKey(3L));
+        manager.onBookChanged(BookChangedEvent.saved(book(1L, "Updated 1 again", 2)));
+        assertEquals("Updated 1", index.titles.get(1L));
+    }
+
+    private void insert(long id, String title, long version) {
+        jdbcTemplate.update("INSERT INTO books (id, title, author, isbn, price, version) VALUES (?, ?, ?, ?, ?, ?)",
+                id, title, "Author", "978-0-00-00000" + id, new BigDecimal("10.00"), version);
+    }
+
+    private static Book book(long id, String title, long version) {
+        Book book = new Book(title, "Author", "978-0-00-00000" + id, new BigDecimal("10.00"));
+        book.setId(id);
+        book.setVersion(version);
+        return book;
+    }
+
+    /**
+     * Index of book titles whose rebuild can be held after its first book.
+     */
+    private static final class TitleIndex implements BookIndex {
+
+        private volatile Map<Long, String> titles = new ConcurrentHashMap<>();
+
+        private final CountDownLatch loading = new CountDownLatch(1);
+        private final CountDownLatch resume = new CountDownLatch(1);
+        private volatile boolean blocking;
+
+        void blockLoading() {
+            blocking = true;
+        }
+
+        void resumeLoading() {
+            resume.countDown();
+        }
+
+        @Override
+        public String getName() {
+            return "titles";
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void index(Book book) {
+            titles.put(book.getId(), book.getTitle());
+        }
+
+        @Override
+        public void remove(Long bookId) {
+            titles.remove(bookId);
+        }
+
+        @Override
+        public Loader beginRebuild(long expectedBooks) {
+            Map<Long, String> fresh = new ConcurrentHashMap<>();
+            return new Loader() {
+                @Override
+                public void add(Book book) {
+                    fresh.put(book.getId(), book.getTitle());
+                    if (blocking) {
+                        blocking = false;
+                        loading.countDown();
+                        try {
+                            assertTrue(resume.await(5, TimeUnit.SECONDS));
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException(ex);
+                        }
+                    }
+                }
+
+                @Override
+                public void publish() {
+                    titles = fresh;
+                }
+            };
+        }
+
+        @Override
+        public Map<String, Object> getStats() {
+            return Map.of("entries", titles.size());
+        }
+    }
+}
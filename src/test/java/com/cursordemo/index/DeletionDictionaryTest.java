@@ -0,0 +1,100 @@
+package com.cursordemo.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the deletion dictionary finds exactly the terms within the edit
+ * distance of a word, the same ones a direct comparison with every term finds.
+ */
+class DeletionDictionaryTest {
+
+    @Test
+    void distance_CountsEditsAndTranspositions() {
+        assertEquals(0, DeletionDictionary.distance("tolkien", "tolkien", 2));
+        assertEquals(1, DeletionDictionary.distance("tolkein", "tolkien", 2));
+        assertEquals(1, DeletionDictionary.distance("orwel", "orwell", 2));
+        assertEquals(1, DeletionDictionary.distance("hemingway", "hemmingway", 2));
+        assertEquals(2, DeletionDictionary.distance("austin", "ostin", 2));
+        assertEquals(3, DeletionDictionary.distance("gatsby", "zzzzzz", 2));
+        assertEquals(3, DeletionDictionary.distance("a", "abcdef", 2));
+    }
+
+    @Test
+    void lookup_FindsTermsWithinDistance() {
+        DeletionDictionary dictionary = new DeletionDictionary(2);
+        for (String term : new String[]{"tolkien", "orwell", "austen", "huxley", "bradbury"}) {
+            dictionary.add(term);
+        }
+
+        assertEquals(Map.of("tolkien", 1), dictionary.lookup("tolkein", 2));
+        assertEquals(Map.of("orwell", 2), dictionary.lookup("orwl", 2));
+        assertEquals(Map.of(), dictionary.lookup("orwl", 1));
+        assertEquals(Map.of("bradbury", 0), dictionary.lookup("bradbury", 2));
+        assertEquals(Map.of(), dictionary.lookup("dickens", 2));
+    }
+
+    @Test
+    void remove_ForgetsTermAndItsDeletions() {
+        DeletionDictionary dictionary = new DeletionDictionary(2);
+        dictionary.add("orwell");
+        dictionary.add("orwill");
+        int size = dictionary.size();
+
+        dictionary.remove("orwill");
+
+        assertEquals(Map.of("orwell", 1), dictionary.lookup("orwel", 1));
+        assertTrue(dictionary.size() < size);
+        dictionary.remove("orwell");
+        assertEquals(0, dictionary.size());
+    }
+
+    @Test
+    void termsWithDigits_AreNotStored() {
+        DeletionDictionary dictionary = new DeletionDictionary(2);
+        dictionary.add("1984");
+
+        assertFalse(DeletionDictionary.isFuzzy("1984"));
+        assertEquals(0, dictionary.size());
+        assertEquals(Map.of(), dictionary.lookup("1985", 2));
+    }
+
+    @Test
+    void lookup_MatchesExhaustiveComparison() {
+        Random random = new Random(7);
+        String[] terms = new String[2_000];
+        DeletionDictionary dictionary = new DeletionDictionary(2);
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = randomWord(random);
+            dictionary.add(terms[i]);
+        }
+
+        for (int query = 0; query < 200; query++) {
+            String word = randomWord(random);
+            for (int distance = 0; distance <= 2; distance++) {
+                Map<String, Integer> found = dictionary.lookup(word, distance);
+                for (String term : terms) {
+                    int expected = DeletionDictionary.distance(word, term, distance);
+                    if (expected <= distance) {
+                        assertEquals(expected, found.get(term), word + " -> " + term);
+                    } else {
+                        assertFalse(found.containsKey(term), word + " -> " + term);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        // A small alphabet, so many words are within a couple of edits
+        char[] word = new char[3 + random.nextInt(5)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(4));
+        }
+        return new String(word);
+    }
+}
@@ -0,0 +1,163 @@
+package com.cursordemo.index;
+
+import com.cursordemo.config.BookProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.cursordemo.index.IndexTestBooks.book;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the full-text index: BM25 ranking, pruning that must not change
+ * the results of an exhaustive scan, typo-tolerant search by field, and the
+ * check of loaded books against a fuzzy query.
+ */
+class FullTextIndexTest {
+
+    private FullTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FullTextIndex(new BookProperties());
+        BookIndex.Loader loader = index.beginRebuild(5);
+        loader.add(book(1L, "The Hobbit", "J.R.R. Tolkien"));
+        loader.add(book(2L, "The Lord of the Rings", "J.R.R. Tolkien"));
+        loader.add(book(3L, "Nineteen Eighty-Four", "George Orwell"));
+        loader.add(book(4L, "Animal Farm", "George Orwell"));
+        loader.add(book(5L, "1984 Revisited", "Tolkein Scholar"));
+        loader.publish();
+    }
+
+    @Test
+    void notReady_ReturnsNull() {
+        FullTextIndex loading = new FullTextIndex(new BookProperties());
+
+        assertNull(loading.search("hobbit", 10));
+        assertNull(loading.searchFuzzy("hobbit", SuggestionIndex.Field.TITLE, 10));
+    }
+
+    @Test
+    void search_RanksTitleAndRareTermsFirst() {
+        // "tolkien" is in two authors, "hobbit" in one title
+        assertEquals(List.of(1L, 2L), index.search("hobbit tolkien", 10));
+        // A title match outweighs an author match of the same term
+        FullTextIndex ranked = new FullTextIndex(new BookProperties());
+        BookIndex.Loader loader = ranked.beginRebuild(3);
+        loader.add(book(1L, "Essays", "Orwell"));
+        loader.add(book(2L, "Orwell", "Biographer"));
+        loader.add(book(3L, "Unrelated", "Someone"));
+        loader.publish();
+        assertEquals(List.of(2L, 1L), ranked.search("orwell", 10));
+    }
+
+    @Test
+    void search_IgnoresCaseAccentsAndUnknownTerms() {
+        assertEquals(List.of(4L), index.search("ANIMAL fárm", 10));
+        assertEquals(List.of(), index.search("dickens", 10));
+        assertEquals(List.of(), index.search("  ", 10));
+    }
+
+    @Test
+    void search_FollowsUpdatesAndRemovals() {
+        index.index(book(1L, "There and Back Again", "J.R.R. Tolkien"));
+        index.remove(4L);
+
+        assertEquals(List.of(), index.search("hobbit", 10));
+        assertEquals(List.of(1L), index.search("again", 10));
+        assertEquals(List.of(), index.search("animal", 10));
+        assertEquals(List.of(3L), index.search("orwell", 10));
+    }
+
+    @Test
+    void search_PrunedTopKMatchesExhaustiveScan() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[30];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = "word" + (char) ('a' + i % 26) + (char) ('a' + i / 26);
+        }
+        FullTextIndex large = new FullTextIndex(new BookProperties());
+        int books = 250;
+        BookIndex.Loader loader = large.beginRebuild(books);
+        for (long id = 1; id <= books; id++) {
+            // Every title has its own length, so no two books tie on score
+            List<String> words = new ArrayList<>();
+            for (int i = 0; i < id; i++) {
+                // Skewed choice: low words are common, high words rare
+                words.add(vocabulary[(int) (vocabulary.length * Math.pow(random.nextDouble(), 3))]);
+            }
+            loader.add(book(id, String.join(" ", words), "Author"));
+        }
+        loader.publish();
+
+        for (int query = 0; query < 100; query++) {
+            String text = vocabulary[random.nextInt(vocabulary.length)] + " "
+                    + vocabulary[random.nextInt(vocabulary.length)] + " " + vocabulary[random.nextInt(5)];
+            List<Long> exhaustive = large.search(text, books);
+            for (int limit : new int[]{1, 5, 20}) {
+                List<Long> expected = exhaustive.subList(0, Math.min(limit, exhaustive.size()));
+                assertEquals(expected, large.search(text, limit), text + ", limit " + limit);
+            }
+        }
+    }
+
+    @Test
+    void searchFuzzy_FindsMisspelledWordsClosestFirst() {
+        // "tolkein" is 0 edits from book 5's author and 1 from Tolkien
+        assertEquals(List.of(5L, 1L, 2L), index.searchFuzzy("tolkein", SuggestionIndex.Field.AUTHOR, 10));
+        assertEquals(List.of(5L, 1L), index.searchFuzzy("tolkein", SuggestionIndex.Field.AUTHOR, 2));
+        assertEquals(List.of(3L, 4L), index.searchFuzzy("orwel", SuggestionIndex.Field.AUTHOR, 10));
+    }
+
+    @Test
+    void searchFuzzy_RequiresEveryWordInTheField() {
+        assertEquals(List.of(4L), index.searchFuzzy("animl farn", SuggestionIndex.Field.TITLE, 10));
+        assertEquals(List.of(), index.searchFuzzy("animl orwell", SuggestionIndex.Field.TITLE, 10));
+        assertEquals(List.of(), index.searchFuzzy("hobbit", SuggestionIndex.Field.AUTHOR, 10));
+    }
+
+    @Test
+    void searchFuzzy_MatchesNumbersExactly() {
+        assertEquals(List.of(5L), index.searchFuzzy("1984", SuggestionIndex.Field.TITLE, 10));
+        assertEquals(List.of(), index.searchFuzzy("1985", SuggestionIndex.Field.TITLE, 10));
+    }
+
+    @Test
+    void searchFuzzy_FollowsUpdatesAndRemovals() {
+        index.index(book(4L, "Homage to Catalonia", "George Orwell"));
+        index.remove(1L);
+
+        assertEquals(List.of(), index.searchFuzzy("animal farm", SuggestionIndex.Field.TITLE, 10));
+        assertEquals(List.of(4L), index.searchFuzzy("catalona", SuggestionIndex.Field.TITLE, 10));
+        assertEquals(List.of(5L, 2L), index.searchFuzzy("tolkein", SuggestionIndex.Field.AUTHOR, 10));
+    }
+
+    @Test
+    void matchesFuzzy_ChecksEveryWordWithinItsDistance() {
+        assertTrue(index.matchesFuzzy("tolkein", "J.R.R. Tolkien"));
+        assertTrue(index.matchesFuzzy("animl farn", "Animal Farm"));
+        assertFalse(index.matchesFuzzy("animl farn", "Animal House"));
+        assertFalse(index.matchesFuzzy("1985", "1984 Revisited"));
+        // Two-letter words must match exactly
+        assertFalse(index.matchesFuzzy("lord od", "The Lord of the Rings"));
+    }
+
+    @Test
+    void idAboveIntRange_StopsAnsweringUntilRemoved() {
+        long largeId = Integer.MAX_VALUE + 1L;
+        BookIndex.Loader loader = index.beginRebuild(2);
+        loader.add(book(1L, "The Hobbit", "J.R.R. Tolkien"));
+        loader.add(book(largeId, "The Silmarillion", "J.R.R. Tolkien"));
+        loader.publish();
+
+        assertNull(index.search("tolkien", 10));
+        assertNull(index.searchFuzzy("tolkien", SuggestionIndex.Field.AUTHOR, 10));
+        assertEquals(1, index.getStats().get("unindexedBooks"));
+
+        index.remove(largeId);
+        assertEquals(List.of(1L), index.search("tolkien", 10));
+    }
+}
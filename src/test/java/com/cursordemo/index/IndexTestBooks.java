@@ -0,0 +1,21 @@
+package com.cursordemo.index;
+
+import com.cursordemo.entity.Book;
+
+import java.math.BigDecimal;
+
+/**
+ * Books for the index tests, identified by ID and carrying only the title and
+ * author that the text indexes read.
+ */
+final class IndexTestBooks {
+
+    private IndexTestBooks() {
+    }
+
+    static Book book(Long id, String title, String author) {
+        Book book = new Book(title, author, "978-0-00-00000" + id, new BigDecimal("10.00"));
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,107 @@
+package com.cursordemo.index;
+
+import com.cursordemo.config.BookProperties;
+import com.cursordemo.entity.Book;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the ISBN Bloom filter never reports a stored ISBN as absent and
+ * keeps its false-positive rate near the configured target.
+ */
+class IsbnBloomFilterTest {
+
+    private static final int BOOKS = 10_000;
+
+    private IsbnBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        BookProperties properties = new BookProperties();
+        properties.getIndex().getIsbnBloom().setExpectedInsertions(BOOKS);
+        properties.getIndex().getIsbnBloom().setFalsePositiveProbability(0.01);
+        filter = new IsbnBloomFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void notReady_AnswersMaybe() {
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("978-0-00-000000-0"));
+    }
+
+    @Test
+    void rebuild_HasNoFalseNegativesAndFewFalsePositives() {
+        BookIndex.Loader loader = filter.beginRebuild(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            loader.add(book(isbn(i)));
+        }
+        loader.prepare();
+        loader.publish();
+
+        assertTrue(filter.isReady());
+        for (int i = 0; i < BOOKS; i++) {
+            assertTrue(filter.mightContain(isbn(i)), isbn(i));
+        }
+        int falsePositives = 0;
+        for (int i = BOOKS; i < 2 * BOOKS; i++) {
+            if (filter.mightContain(isbn(i))) {
+                falsePositives++;
+            }
+        }
+        // Sized for twice the loaded books, so well under the 1% target
+        assertTrue(falsePositives < BOOKS / 100, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void normalizedIsbn_MatchesAnySpelling() {
+        filter.beginRebuild(0).publish();
+        filter.index(book("978-0-13-468599-1"));
+
+        assertTrue(filter.mightContain("9780134685991"));
+        assertTrue(filter.mightContain("978 0 13 468599 1"));
+    }
+
+    @Test
+    void rebuild_DropsRemovedIsbns() {
+        filter.beginRebuild(0).publish();
+        filter.index(book("978-0-13-468599-1"));
+        filter.remove(1L);
+        assertTrue(filter.mightContain("978-0-13-468599-1"));
+
+        BookIndex.Loader loader = filter.beginRebuild(0);
+        loader.add(book("978-0-596-52068-7"));
+        loader.publish();
+
+        assertFalse(filter.mightContain("978-0-13-468599-1"));
+        assertTrue(filter.mightContain("978-0-596-52068-7"));
+    }
+
+    @Test
+    void stats_ReportInsertionsAndFill() {
+        BookIndex.Loader loader = filter.beginRebuild(100);
+        for (int i = 0; i < 100; i++) {
+            loader.add(book(isbn(i)));
+        }
+        loader.publish();
+
+        Map<String, Object> stats = filter.getStats();
+        assertEquals(true, stats.get("ready"));
+        assertEquals(100L, stats.get("insertions"));
+        double fillRatio = (double) stats.get("fillRatio");
+        assertTrue(fillRatio > 0 && fillRatio < 0.5, "fill ratio: " + fillRatio);
+    }
+
+    private static String isbn(int i) {
+        return String.format("978-1-%07d-0", i);
+    }
+
+    private static Book book(String isbn) {
+        return new Book("Title", "Author", isbn, new BigDecimal("10.00"));
+    }
+}
@@ -0,0 +1,157 @@
+package com.cursordemo.index;
+
+import com.cursordemo.entity.Book;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the sorted price arrays: the bulk sort of a rebuild, the binary
+ * searches for range bounds, and in-place inserts and removals, checked
+ * against a plain model of the books.
+ */
+class PriceIndexTest {
+
+    @Test
+    void notReady_ReturnsNull() {
+        PriceIndex index = new PriceIndex();
+
+        assertNull(index.countBetween(null, null));
+        assertNull(index.findIdsBetween(null, null, 0, null));
+        assertNull(index.retainBetween(List.of(1L), null, null));
+    }
+
+    @Test
+    void rebuild_SortsByPriceThenId() {
+        PriceIndex index = new PriceIndex();
+        BookIndex.Loader loader = index.beginRebuild(6);
+        loader.add(book(30L, "9.99"));
+        loader.add(book(10L, "19.99"));
+        loader.add(book(50L, "9.99"));
+        loader.add(book(20L, "5.00"));
+        loader.add(book(Long.MAX_VALUE, "9.99"));
+        loader.add(book(40L, "1000000000.00"));
+        loader.prepare();
+        loader.publish();
+
+        assertEquals(List.of(20L, 30L, 50L, Long.MAX_VALUE, 10L, 40L), index.findIdsBetween(null, null, 0, null));
+    }
+
+    @Test
+    void ranges_AreInclusiveAndRoundedToCents() {
+        PriceIndex index = loaded(book(1L, "5.00"), book(2L, "9.99"), book(3L, "10.00"), book(4L, "10.01"));
+
+        assertEquals(2L, index.countBetween(new BigDecimal("9.99"), new BigDecimal("10.00")));
+        assertEquals(List.of(2L, 3L), index.findIdsBetween(new BigDecimal("9.985"), new BigDecimal("10.009"), 0, null));
+        assertEquals(0L, index.countBetween(new BigDecimal("10.02"), null));
+        assertEquals(0L, index.countBetween(new BigDecimal("11"), new BigDecimal("10")));
+        assertEquals(List.of(3L), index.findIdsBetween(null, null, 2, 1));
+        assertEquals(List.of(), index.findIdsBetween(null, null, 10, 5));
+        assertEquals(List.of(4L, 2L), index.retainBetween(List.of(4L, 1L, 2L, 99L), new BigDecimal("9"), null));
+    }
+
+    @Test
+    void binarySearches_FindBoundsAmongDuplicates() {
+        PriceIndex.Entries entries = new PriceIndex.Entries(4);
+        long[] prices = {100, 200, 200, 200, 300};
+        for (int i = 0; i < prices.length; i++) {
+            entries.append(i + 1, prices[i]);
+        }
+        entries.sort();
+
+        assertEquals(0, entries.firstAtOrAbove(Long.MIN_VALUE));
+        assertEquals(1, entries.firstAtOrAbove(101));
+        assertEquals(1, entries.firstAtOrAbove(200));
+        assertEquals(4, entries.firstAbove(200));
+        assertEquals(5, entries.firstAbove(300));
+        assertEquals(5, entries.firstAtOrAbove(301));
+        assertEquals(2, entries.position(200, 3));
+        assertEquals(-(4 + 1), entries.position(200, 9));
+        assertEquals(-(0 + 1), entries.position(50, 9));
+    }
+
+    @Test
+    void putAndRemove_KeepArraysSortedAtEveryPosition() {
+        PriceIndex.Entries entries = new PriceIndex.Entries(2);
+        entries.put(2, 200);
+        entries.put(1, 300);
+        entries.put(3, 100);
+        entries.put(4, 200);
+        assertEntries(entries, new long[]{100, 200, 200, 300}, new long[]{3, 2, 4, 1});
+
+        // Move an entry from the end to the front, then remove at the front, middle and end
+        entries.put(1, 50);
+        assertEntries(entries, new long[]{50, 100, 200, 200}, new long[]{1, 3, 2, 4});
+        entries.remove(1);
+        entries.remove(2);
+        entries.remove(4);
+        entries.remove(99);
+        assertEntries(entries, new long[]{100}, new long[]{3});
+        entries.remove(3);
+        assertEntries(entries, new long[]{}, new long[]{});
+    }
+
+    @Test
+    void randomChanges_MatchModel() {
+        Random random = new Random(11);
+        PriceIndex index = loaded();
+        Map<Long, Long> model = new TreeMap<>();
+        for (int step = 0; step < 5_000; step++) {
+            long id = 1 + random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                model.remove(id);
+            } else {
+                long cents = 100 + random.nextInt(50);
+                index.index(book(id, BigDecimal.valueOf(cents, 2).toPlainString()));
+                model.put(id, cents);
+            }
+        }
+
+        List<Map.Entry<Long, Long>> expected = new ArrayList<>(model.entrySet());
+        expected.sort(Map.Entry.<Long, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        assertEquals(expected.stream().map(Map.Entry::getKey).toList(), index.findIdsBetween(null, null, 0, null));
+        long inRange = model.values().stream().filter(cents -> cents >= 110 && cents <= 120).count();
+        assertEquals(inRange, index.countBetween(new BigDecimal("1.10"), new BigDecimal("1.20")));
+        assertEquals(expected.stream()
+                        .filter(entry -> entry.getValue() >= 110 && entry.getValue() <= 120)
+                        .sorted(Comparator.comparing(Map.Entry::getKey))
+                        .map(Map.Entry::getKey).toList(),
+                index.retainBetween(new ArrayList<>(model.keySet()), new BigDecimal("1.10"), new BigDecimal("1.20")));
+    }
+
+    private static void assertEntries(PriceIndex.Entries entries, long[] cents, long[] ids) {
+        assertEquals(cents.length, entries.size);
+        for (int i = 0; i < cents.length; i++) {
+            assertEquals(cents[i], entries.cents[i], "price at " + i);
+            assertEquals(ids[i], entries.ids[i], "id at " + i);
+            assertEquals(cents[i], entries.centsById.get(ids[i], -1));
+        }
+        assertEquals(cents.length, entries.centsById.size());
+    }
+
+    private static PriceIndex loaded(Book... books) {
+        PriceIndex index = new PriceIndex();
+        BookIndex.Loader loader = index.beginRebuild(books.length);
+        for (Book book : books) {
+            loader.add(book);
+        }
+        loader.prepare();
+        loader.publish();
+        return index;
+    }
+
+    private static Book book(Long id, String price) {
+        Book book = new Book("Title " + id, "Author", "978-0-00-00000" + id, new BigDecimal(price));
+        book.setId(id);
+        return book;
+    }
+}
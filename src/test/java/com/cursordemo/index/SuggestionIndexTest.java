@@ -0,0 +1,126 @@
+package com.cursordemo.index;
+
+import com.cursordemo.index.SuggestionIndex.Field;
+import com.cursordemo.index.SuggestionIndex.Suggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.cursordemo.index.IndexTestBooks.book;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the autocomplete trie: inserts that split edges, removals that
+ * prune and merge nodes again, and top-K order after weights change.
+ */
+class SuggestionIndexTest {
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestionIndex();
+        index.beginRebuild(0).publish();
+    }
+
+    @Test
+    void notReady_ReturnsNull() {
+        assertNull(new SuggestionIndex().suggest("gat", 5));
+    }
+
+    @Test
+    void suggest_CompletesAnyTokenOfTitleOrAuthor() {
+        index.index(book(1L, "The Great Gatsby", "F. Scott Fitzgerald"));
+        index.index(book(2L, "Gathering Storm", "Winston Churchill"));
+
+        // Equal weights list the newer suggestion first
+        assertEquals(List.of(new Suggestion("Gathering Storm", Field.TITLE, 1),
+                new Suggestion("The Great Gatsby", Field.TITLE, 1)), index.suggest("gat", 5));
+        assertEquals(List.of(new Suggestion("The Great Gatsby", Field.TITLE, 1)), index.suggest("great gats", 5));
+        assertEquals(List.of(new Suggestion("F. Scott Fitzgerald", Field.AUTHOR, 1)), index.suggest("fitz", 5));
+        // Only the last token may be incomplete, and tokens must follow each other
+        assertEquals(List.of(), index.suggest("gre gats", 5));
+        assertEquals(List.of(), index.suggest("gatsby great", 5));
+        assertEquals(List.of(), index.suggest("   ", 5));
+    }
+
+    @Test
+    void insert_SplitsSharedPrefixes() {
+        index.index(book(1L, "Gatsby", "Author One"));
+        int nodesBefore = nodes();
+
+        // "gate" splits the "gatsby" edge at "gat"
+        index.index(book(2L, "Gate", "Author One"));
+
+        assertEquals(nodesBefore + 2, nodes());
+        assertEquals(List.of("Gate", "Gatsby"), texts(index.suggest("gat", 5)));
+        assertEquals(List.of("Gate"), texts(index.suggest("gate", 5)));
+        assertEquals(List.of("Gatsby"), texts(index.suggest("gats", 5)));
+        assertEquals(List.of(), texts(index.suggest("gatx", 5)));
+    }
+
+    @Test
+    void remove_PrunesAndMergesNodes() {
+        index.index(book(1L, "Gatsby", "Author One"));
+        Map<String, Object> before = index.getStats();
+        index.index(book(2L, "Gate", "Author Two"));
+
+        index.remove(2L);
+        index.remove(99L);
+
+        Map<String, Object> after = index.getStats();
+        assertEquals(before.get("nodes"), after.get("nodes"));
+        assertEquals(before.get("postings"), after.get("postings"));
+        assertEquals(1, after.get("books"));
+        assertEquals(2, after.get("suggestions"));
+        assertEquals(List.of("Gatsby"), texts(index.suggest("gat", 5)));
+        assertEquals(List.of(), index.suggest("two", 5));
+
+        index.remove(1L);
+        assertEquals(1, index.getStats().get("nodes"));
+        assertEquals(List.of(), index.suggest("gat", 5));
+    }
+
+    @Test
+    void weights_ReorderTopKAfterUpdates() {
+        index.index(book(1L, "Emma", "Jane Austen"));
+        index.index(book(2L, "Persuasion", "Jane Austen"));
+        index.index(book(3L, "Jane Eyre", "Charlotte Bronte"));
+        index.index(book(4L, "Villette", "Charlotte Bronte"));
+        index.index(book(5L, "Shirley", "Charlotte Bronte"));
+
+        assertEquals(List.of(new Suggestion("Charlotte Bronte", Field.AUTHOR, 3)), index.suggest("bronte", 5));
+        assertEquals(List.of("Jane Austen", "Jane Eyre"), texts(index.suggest("jane", 2)));
+
+        // Two Bronte books move to Austen: Austen overtakes
+        index.index(book(4L, "Villette", "Jane Austen"));
+        index.index(book(5L, "Shirley", "Jane Austen"));
+        assertEquals(List.of(new Suggestion("Jane Austen", Field.AUTHOR, 4)), index.suggest("jane", 1));
+        assertEquals(List.of(new Suggestion("Charlotte Bronte", Field.AUTHOR, 1)), index.suggest("charl", 5));
+
+        // The last book of an author leaves, and the author with it
+        index.index(book(3L, "Jane Eyre", "Jane Austen"));
+        assertEquals(List.of("Jane Austen", "Jane Eyre"), texts(index.suggest("jane", 5)));
+        assertEquals(List.of(), index.suggest("charl", 5));
+    }
+
+    @Test
+    void idsAboveIntRange_AreIndexed() {
+        index.index(book(Integer.MAX_VALUE + 10L, "Big Catalog", "Someone"));
+        index.index(book(10L, "Big Catalog", "Someone"));
+
+        assertEquals(List.of(new Suggestion("Big Catalog", Field.TITLE, 2)), index.suggest("big", 5));
+        index.remove(Integer.MAX_VALUE + 10L);
+        assertEquals(List.of(new Suggestion("Big Catalog", Field.TITLE, 1)), index.suggest("big", 5));
+    }
+
+    private int nodes() {
+        return (int) index.getStats().get("nodes");
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+}
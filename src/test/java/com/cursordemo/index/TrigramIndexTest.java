@@ -0,0 +1,80 @@
+package com.cursordemo.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.cursordemo.index.IndexTestBooks.book;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the trigram index: substring matches confirmed against the stored
+ * text, updates and removals, and books whose IDs do not fit in a posting.
+ */
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        BookIndex.Loader loader = index.beginRebuild(3);
+        loader.add(book(1L, "The Great Gatsby", "F. Scott Fitzgerald"));
+        loader.add(book(2L, "Great Expectations", "Charles Dickens"));
+        loader.add(book(3L, "Tender Is the Night", "F. Scott Fitzgerald"));
+        loader.publish();
+    }
+
+    @Test
+    void notReadyOrShortQuery_ReturnsNull() {
+        assertNull(new TrigramIndex().searchTitle("great"));
+        assertNull(index.searchTitle("gr"));
+        assertNull(index.searchTitleOrAuthor("great", "di"));
+    }
+
+    @Test
+    void search_MatchesSubstringsIgnoringCase() {
+        assertEquals(List.of(1L, 2L), index.searchTitle("GREAT"));
+        assertEquals(List.of(1L, 3L), index.searchAuthor("scott fitz"));
+        assertEquals(List.of(2L, 3L), index.searchTitleOrAuthor("night", "dickens"));
+        assertEquals(List.of(2L), index.searchTitleOrAuthor(null, "dickens"));
+    }
+
+    @Test
+    void search_RequiresGramsInOrder() {
+        // "gre" and "the" both occur in "The Great Gatsby", but not next to each other
+        assertEquals(List.of(), index.searchTitle("gre the"));
+        assertEquals(List.of(), index.searchTitle("xyz"));
+    }
+
+    @Test
+    void updateAndRemove_ReplacePostings() {
+        index.index(book(2L, "Bleak House", "Charles Dickens"));
+        assertEquals(List.of(1L), index.searchTitle("great"));
+        assertEquals(List.of(2L), index.searchTitle("bleak"));
+
+        index.remove(1L);
+        assertEquals(List.of(), index.searchTitle("great"));
+        assertEquals(List.of(3L), index.searchAuthor("fitzgerald"));
+    }
+
+    @Test
+    void idAboveIntRange_IsSkippedWithoutFailingTheRebuild() {
+        long largeId = Integer.MAX_VALUE + 1L;
+        BookIndex.Loader loader = index.beginRebuild(2);
+        loader.add(book(largeId, "The Beautiful and Damned", "F. Scott Fitzgerald"));
+        loader.add(book(1L, "The Great Gatsby", "F. Scott Fitzgerald"));
+        loader.publish();
+
+        // The index would miss that book, so callers must ask the database
+        assertTrue(index.isReady());
+        assertNull(index.searchAuthor("fitzgerald"));
+        assertNull(index.searchTitleOrAuthor("great", null));
+        assertEquals(1, index.getStats().get("unindexedBooks"));
+
+        index.remove(largeId);
+        assertEquals(List.of(1L), index.searchAuthor("fitzgerald"));
+        assertEquals(0, index.getStats().get("unindexedBooks"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.cursordemo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the log rate limit grants exactly its budget per second, also
+ * under contention, and only limits the configured loggers and levels.
+ */
+class RateLimitingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+
+    @Test
+    void window_GrantsBudgetPerSecond() {
+        RateLimitingTurboFilter.Window window = new RateLimitingTurboFilter.Window();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(window.tryAcquire(100, 3));
+        }
+        assertFalse(window.tryAcquire(100, 3));
+        assertTrue(window.tryAcquire(101, 3));
+        assertTrue(window.tryAcquire(101, 3));
+        assertFalse(window.tryAcquire(101, 0));
+    }
+
+    @Test
+    void window_GrantsExactBudgetUnderContention() throws Exception {
+        RateLimitingTurboFilter.Window window = new RateLimitingTurboFilter.Window();
+        int threads = 8;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10_000; i++) {
+                        if (window.tryAcquire(7, 1_000)) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1_000, granted.get());
+    }
+
+    @Test
+    void decide_LimitsOnlyConfiguredLoggersBelowWarn() {
+        RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+        filter.setLoggers("com.cursordemo.service, com.cursordemo.controller");
+        filter.setMaxPerSecond(0);
+        Logger limited = context.getLogger("com.cursordemo.service.impl.BookServiceImpl");
+        Logger other = context.getLogger("org.hibernate.SQL");
+        limited.setLevel(Level.DEBUG);
+        other.setLevel(Level.DEBUG);
+
+        assertEquals(FilterReply.DENY, filter.decide(null, limited, Level.INFO, "Fetching {}", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, limited, Level.DEBUG, "Fetching {}", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, limited, Level.WARN, "Not found", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, limited, Level.INFO, null, null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.INFO, "select", null, null));
+        assertEquals(2, filter.drainSuppressed());
+        assertEquals(0, filter.drainSuppressed());
+    }
+
+    @Test
+    void decide_DisabledLevel_DoesNotUseBudget() {
+        RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+        filter.setLoggers("com.cursordemo");
+        filter.setMaxPerSecond(0);
+        Logger logger = context.getLogger("com.cursordemo.controller.BookController");
+        logger.setLevel(Level.INFO);
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.DEBUG, "Details {}", null, null));
+        assertEquals(0, filter.drainSuppressed());
+    }
+}
@@ -0,0 +1,73 @@
+package com.cursordemo.metrics;
+
+import com.cursordemo.dto.BookRequestDTO;
+import com.cursordemo.dto.BookResponseDTO;
+import com.cursordemo.exception.BookNotFoundException;
+import com.cursordemo.service.BookService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that service calls are timed under the outcome they ended with.
+ */
+class BookServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private BookService target;
+    private BookService books;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        target = mock(BookService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(BookService.class);
+        factory.addAspect(new BookServiceMetricsAspect(registry));
+        books = factory.getProxy();
+    }
+
+    @Test
+    void successfulCall_TaggedFound() {
+        when(target.getBookById(1L)).thenReturn(new BookResponseDTO());
+
+        books.getBookById(1L);
+
+        assertEquals(1, count("getBookById", "found"));
+    }
+
+    @Test
+    void missingBook_TaggedNotFound() {
+        when(target.getBookById(anyLong())).thenThrow(new BookNotFoundException("Book not found"));
+
+        assertThrows(BookNotFoundException.class, () -> books.getBookById(2L));
+
+        assertEquals(1, count("getBookById", "not-found"));
+    }
+
+    @Test
+    void optimisticLockingFailure_TaggedConflict() {
+        when(target.updateBook(anyLong(), any(BookRequestDTO.class)))
+                .thenThrow(new OptimisticLockingFailureException("Book was modified concurrently"));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> books.updateBook(3L, new BookRequestDTO()));
+
+        assertEquals(1, count("updateBook", "conflict"));
+        assertNull(registry.find("books.service").tag("outcome", "error").timer());
+    }
+
+    private long count(String method, String outcome) {
+        Timer timer = registry.find("books.service").tag("method", method).tag("outcome", outcome).timer();
+        assertNotNull(timer, () -> "no timer for " + method + " with outcome " + outcome);
+        return timer.count();
+    }
+}
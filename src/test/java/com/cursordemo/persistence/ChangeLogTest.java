@@ -0,0 +1,108 @@
+package com.cursordemo.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that a change log segment replays its records in order and stops at
+ * a torn or corrupt tail.
+ */
+class ChangeLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replay_ReturnsRecordsInAppendOrder() throws IOException {
+        Path segment = directory.resolve("changes-0000000001.log");
+        try (ChangeLog log = ChangeLog.open(segment, false)) {
+            log.appendSaved(row(1, "First"));
+            log.appendDeleted(1);
+            log.appendSaved(row(2, "Second"));
+        }
+        try (ChangeLog log = ChangeLog.open(segment, true)) {
+            log.appendSaved(row(2, "Second, reopened"));
+        }
+
+        List<String> changes = replay(segment);
+
+        assertEquals(List.of("saved 1 First", "deleted 1", "saved 2 Second", "saved 2 Second, reopened"), changes);
+    }
+
+    @Test
+    void replay_StopsAtTornRecord() throws IOException {
+        Path segment = directory.resolve("changes-0000000001.log");
+        try (ChangeLog log = ChangeLog.open(segment, false)) {
+            log.appendSaved(row(1, "Complete"));
+            log.appendSaved(row(2, "Torn"));
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        assertEquals(List.of("saved 1 Complete"), replay(segment));
+    }
+
+    @Test
+    void replay_StopsAtChecksumMismatch() throws IOException {
+        Path segment = directory.resolve("changes-0000000001.log");
+        try (ChangeLog log = ChangeLog.open(segment, false)) {
+            log.appendSaved(row(1, "Intact"));
+            log.appendSaved(row(2, "Corrupt"));
+            log.appendSaved(row(3, "After corruption"));
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        int firstRecord = recordLength(bytes, 0);
+        // Flip a byte inside the payload of the second record
+        bytes[firstRecord + 8 + 10] ^= 0x5A;
+        Files.write(segment, bytes);
+
+        assertEquals(List.of("saved 1 Intact"), replay(segment));
+    }
+
+    @Test
+    void replay_EmptySegment_ReplaysNothing() throws IOException {
+        Path segment = directory.resolve("changes-0000000001.log");
+        ChangeLog.open(segment, false).close();
+
+        assertEquals(List.of(), replay(segment));
+    }
+
+    private static int recordLength(byte[] bytes, int offset) {
+        int length = ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+        return 8 + length;
+    }
+
+    private static List<String> replay(Path segment) throws IOException {
+        List<String> changes = new ArrayList<>();
+        long count = ChangeLog.replay(segment, new ChangeLog.Replay() {
+            @Override
+            public void saved(BookRow row) {
+                changes.add("saved " + row.id() + " " + row.title());
+            }
+
+            @Override
+            public void deleted(long id) {
+                changes.add("deleted " + id);
+            }
+        });
+        assertEquals(changes.size(), count);
+        return changes;
+    }
+
+    static BookRow row(long id, String title) {
+        return new BookRow(id, title, "Author " + id, "978-0-00-" + String.format("%06d", id) + "-0",
+                1999 + id, 1_700_000_000_000_000L + id, 1_700_000_000_000_000L + id * 2, id % 5);
+    }
+}
@@ -0,0 +1,79 @@
+package com.cursordemo.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that snapshots round-trip their rows in order and that incomplete
+ * snapshots are rejected instead of half-restored.
+ */
+class SnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void write_ThenRead_ReturnsRowsInOrder() throws IOException {
+        Path snapshot = directory.resolve("snapshot-0000000007.bin");
+        List<BookRow> rows = new ArrayList<>();
+        for (long id = 1; id <= 1_000; id++) {
+            rows.add(ChangeLogTest.row(id, "Title " + id + " é书"));
+        }
+
+        long written = SnapshotFile.write(snapshot, 7, writer -> {
+            for (BookRow row : rows) {
+                writer.write(row);
+            }
+        });
+        List<BookRow> read = new ArrayList<>();
+        long count = SnapshotFile.read(snapshot, read::add);
+
+        assertEquals(1_000, written);
+        assertEquals(1_000, count);
+        assertEquals(rows, read);
+        assertEquals(7, SnapshotFile.readFirstSegment(snapshot));
+        assertFalse(Files.exists(directory.resolve("snapshot-0000000007.bin.tmp")));
+    }
+
+    @Test
+    void write_EmptyTable_ReadsNoRows() throws IOException {
+        Path snapshot = directory.resolve("snapshot-0000000001.bin");
+        SnapshotFile.write(snapshot, 1, writer -> {
+        });
+
+        assertEquals(0, SnapshotFile.read(snapshot, row -> fail("unexpected row " + row)));
+    }
+
+    @Test
+    void read_TruncatedSnapshot_Fails() throws IOException {
+        Path snapshot = directory.resolve("snapshot-0000000001.bin");
+        SnapshotFile.write(snapshot, 1, writer -> {
+            writer.write(ChangeLogTest.row(1, "One"));
+            writer.write(ChangeLogTest.row(2, "Two"));
+        });
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        assertThrows(IOException.class, () -> SnapshotFile.read(snapshot, row -> {
+        }));
+    }
+
+    @Test
+    void readFirstSegment_RejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("snapshot-0000000001.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+
+        assertThrows(IOException.class, () -> SnapshotFile.readFirstSegment(file));
+    }
+}
@@ -0,0 +1,89 @@
+package com.cursordemo.repository;
+
+import com.cursordemo.entity.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the batch loads by ID and by ISBN return one element per
+ * requested key, in request order, with null where no book exists, whether
+ * the books come from the database or are already loaded.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.cursordemo=WARN",
+        "logging.level.org.hibernate.SQL=OFF",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"
+})
+@Transactional
+class BookRepositoryBatchLoadTest {
+
+    // Sample books 1, 3 and 5 from data.sql
+    private static final String GATSBY = "978-0743273565";
+    private static final String NINETEEN_EIGHTY_FOUR = "978-0451524935";
+    private static final String HOBBIT = "978-0547928241";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    void findAllByIdsInOrder_KeepsRequestOrderAndGaps() {
+        List<Book> books = bookRepository.findAllByIdsInOrder(List.of(5L, 999L, 1L, 3L, 1000L));
+
+        assertEquals(List.of(5L, -1L, 1L, 3L, -1L), ids(books));
+    }
+
+    @Test
+    void findAllByIdsInOrder_MixesLoadedAndUnloadedBooks() {
+        Book loaded = bookRepository.findById(3L).orElseThrow();
+
+        List<Book> books = bookRepository.findAllByIdsInOrder(List.of(5L, 3L, 999L, 1L));
+
+        assertEquals(List.of(5L, 3L, -1L, 1L), ids(books));
+        assertSame(loaded, books.get(1));
+    }
+
+    @Test
+    void findAllByIdsInOrder_RepeatsDuplicateIds() {
+        List<Book> books = bookRepository.findAllByIdsInOrder(List.of(1L, 1L));
+
+        assertEquals(List.of(1L, 1L), ids(books));
+        assertSame(books.get(0), books.get(1));
+    }
+
+    @Test
+    void findAllByNaturalIsbnsInOrder_KeepsRequestOrderAndGaps() {
+        List<Book> books = bookRepository.findAllByNaturalIsbnsInOrder(
+                List.of(HOBBIT, "978-0000000000", GATSBY, NINETEEN_EIGHTY_FOUR));
+
+        assertEquals(List.of(5L, -1L, 1L, 3L), ids(books));
+        assertEquals(GATSBY, books.get(2).getIsbn());
+    }
+
+    @Test
+    void findAllByNaturalIsbnsInOrder_AllMissing() {
+        List<Book> books = bookRepository.findAllByNaturalIsbnsInOrder(List.of("978-0000000000", "978-1111111111"));
+
+        assertEquals(2, books.size());
+        assertNull(books.get(0));
+        assertNull(books.get(1));
+    }
+
+    /**
+     * IDs of the books, with -1 for a missing book.
+     */
+    private static List<Long> ids(List<Book> books) {
+        List<Long> ids = new ArrayList<>(books.size());
+        for (Book book : books) {
+            ids.add(book != null ? book.getId() : -1L);
+        }
+        return ids;
+    }
+}
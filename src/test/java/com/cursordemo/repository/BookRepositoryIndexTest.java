@@ -0,0 +1,209 @@
+package com.cursordemo.repository;
+
+import com.cursordemo.entity.Book;
+import com.cursordemo.entity.BookView;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that title and author searches use the lowercase shadow columns.
+ * 
+ * The SQL Hibernate sends for a repository call is recorded and run through
+ * H2's EXPLAIN, whose plan names the index a query reads, or shows a table
+ * scan. Parameters stay unbound, so the plans are the ones H2 prepares
+ * before it knows the search text.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.cursordemo.repository.BookRepositoryIndexTest$SqlRecorder",
+        "logging.level.com.cursordemo=WARN",
+        "logging.level.org.hibernate.SQL=OFF",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"
+})
+class BookRepositoryIndexTest {
+
+    private static final List<String> PREFIXES = List.of("the", "THE G", "a", "George", "%", "zzz");
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void titlePrefixSearch_UsesIndexRangeScan() {
+        String plan = explain(() -> bookRepository.findByTitlePrefix("the", Limit.of(10)));
+
+        assertTrue(plan.contains("IDX_BOOKS_TITLE_LOWER: TITLE_LOWER >= ?"), plan);
+        assertTrue(plan.contains("AND TITLE_LOWER < ?"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void authorPrefixSearch_UsesIndexRangeScan() {
+        String plan = explain(() -> bookRepository.findByAuthorPrefix("orw", Limit.of(10)));
+
+        assertTrue(plan.contains("IDX_BOOKS_AUTHOR_LOWER: AUTHOR_LOWER >= ?"), plan);
+        assertTrue(plan.contains("AND AUTHOR_LOWER < ?"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void containsSearches_CompareShadowColumns() {
+        String titlePlan = explain(() -> bookRepository.findByTitleIgnoreCaseContaining("gatsby"));
+        String authorPlan = explain(() -> bookRepository.findByAuthorIgnoreCaseContaining("orwell"));
+        String eitherPlan = explain(() -> bookRepository.findByTitleOrAuthorContaining("gatsby", "orwell"));
+
+        assertTrue(titlePlan.contains("\"TITLE_LOWER\" LIKE"), titlePlan);
+        assertTrue(authorPlan.contains("\"AUTHOR_LOWER\" LIKE"), authorPlan);
+        assertTrue(eitherPlan.contains("\"TITLE_LOWER\" LIKE") && eitherPlan.contains("\"AUTHOR_LOWER\" LIKE"),
+                eitherPlan);
+        for (String plan : List.of(titlePlan, authorPlan, eitherPlan)) {
+            assertFalse(plan.contains("LOWER(\"TITLE\")") || plan.contains("LOWER(\"AUTHOR\")"), plan);
+        }
+    }
+
+    @Test
+    void prefixSearches_MatchCaseInsensitiveStartsWith() {
+        List<Book> all = bookRepository.findAll();
+        for (String prefix : PREFIXES) {
+            assertEquals(startingWith(all, Book::getTitle, prefix),
+                    ids(bookRepository.findByTitlePrefix(prefix, Limit.unlimited())), "title prefix " + prefix);
+            assertEquals(startingWith(all, Book::getAuthor, prefix),
+                    ids(bookRepository.findByAuthorPrefix(prefix, Limit.unlimited())), "author prefix " + prefix);
+        }
+        assertEquals(2, bookRepository.findByTitlePrefix("the", Limit.of(2)).size());
+    }
+
+    @Test
+    void containsSearch_MatchesWildcardsLiterally() {
+        assertTrue(bookRepository.findByTitleIgnoreCaseContaining("%").isEmpty());
+        assertTrue(bookRepository.findByAuthorIgnoreCaseContaining("_").isEmpty());
+        assertFalse(bookRepository.findByTitleIgnoreCaseContaining("GATSBY").isEmpty());
+    }
+
+    @Test
+    void combinedQuery_UsesPriceAndUpdateIndexes() {
+        String pricePlan = explain(() -> bookRepository.findAll(Specification.allOf(
+                BookSpecifications.authorContains("orwell"),
+                BookSpecifications.priceBetween(new BigDecimal("10.00"), new BigDecimal("20.00")))));
+        String updatedPlan = explain(() -> bookRepository.findAll(
+                BookSpecifications.updatedBetween(LocalDateTime.now().minusDays(1), null)));
+        String isbnPlan = explain(() -> bookRepository.findAll(BookSpecifications.isbnStartsWith("978-04")));
+
+        assertTrue(pricePlan.contains("IDX_BOOKS_PRICE"), pricePlan);
+        assertTrue(pricePlan.contains("\"AUTHOR_LOWER\" LIKE"), pricePlan);
+        assertTrue(updatedPlan.contains("IDX_BOOKS_UPDATED_AT"), updatedPlan);
+        assertTrue(isbnPlan.contains("ISBN >= ?") && isbnPlan.contains("AND ISBN < ?"), isbnPlan);
+        assertFalse(isbnPlan.contains("tableScan"), isbnPlan);
+    }
+
+    @Test
+    void combinedQuery_MatchesAllCriteria() {
+        List<Book> all = bookRepository.findAll();
+        BigDecimal min = new BigDecimal("16.99");
+        BigDecimal max = new BigDecimal("25.99");
+        Predicate<Book> inRange = book -> book.getPrice().compareTo(min) >= 0 && book.getPrice().compareTo(max) <= 0;
+
+        assertEquals(matching(all, inRange.and(book -> book.getTitle().toLowerCase(Locale.ROOT).contains("the"))),
+                ids(bookRepository.findAll(Specification.allOf(BookSpecifications.titleContains("THE"),
+                        BookSpecifications.priceBetween(min, max)), Sort.by("id"))));
+        assertEquals(matching(all, book -> book.getIsbn().startsWith("978-04") && book.getPrice().compareTo(max) <= 0),
+                ids(bookRepository.findAll(Specification.allOf(BookSpecifications.isbnStartsWith("978-04"),
+                        BookSpecifications.priceBetween(null, max)), Sort.by("id"))));
+        assertEquals(matching(all, book -> true),
+                ids(bookRepository.findAll(Specification.allOf(BookSpecifications.titleContains(" "),
+                        BookSpecifications.priceBetween(null, null)), Sort.by("id"))));
+        assertTrue(bookRepository.findAll(BookSpecifications.titleContains("%")).isEmpty());
+    }
+
+    @Test
+    void views_SelectOnlyRequestedColumns() {
+        SqlRecorder.STATEMENTS.clear();
+        List<BookView> views = bookRepository.findViews(BookSpecifications.titleStartsWith("THE"),
+                Sort.by("titleLower", "id"), Limit.of(2), List.of("id", "price"));
+        String sql = SqlRecorder.STATEMENTS.get(SqlRecorder.STATEMENTS.size() - 1).toLowerCase(Locale.ROOT);
+        String select = sql.substring(0, sql.indexOf(" from books "));
+
+        assertTrue(select.contains("price"), sql);
+        assertFalse(select.contains("title") || select.contains("author") || select.contains("isbn"), sql);
+        assertEquals(ids(bookRepository.findByTitlePrefix("the", Limit.of(2))), ids(views));
+        for (BookView view : views) {
+            assertNotNull(view.getPrice());
+            assertNull(view.getTitle());
+            assertNull(view.getUpdatedAt());
+        }
+    }
+
+    @Test
+    void successor_IsSmallestStringAfterPrefix() {
+        assertEquals("ac", BookRepositoryCustomImpl.successor("ab"));
+        assertEquals("b", BookRepositoryCustomImpl.successor("a\uFFFF\uFFFF"));
+        assertNull(BookRepositoryCustomImpl.successor("\uFFFF"));
+        assertNull(BookRepositoryCustomImpl.successor(""));
+    }
+
+    /**
+     * Run a repository call and explain the books query it sent.
+     */
+    private String explain(Supplier<List<Book>> call) {
+        SqlRecorder.STATEMENTS.clear();
+        call.get();
+        String sql = SqlRecorder.STATEMENTS.stream()
+                .filter(statement -> statement.toLowerCase(Locale.ROOT).contains(" from books "))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No books query in " + SqlRecorder.STATEMENTS));
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    private static List<Long> startingWith(List<Book> books, Function<Book, String> field, String prefix) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        return books.stream()
+                .filter(book -> field.apply(book).toLowerCase(Locale.ROOT).startsWith(lowerPrefix))
+                .sorted(Comparator.comparing((Book book) -> field.apply(book).toLowerCase(Locale.ROOT))
+                        .thenComparing(Book::getId))
+                .map(Book::getId)
+                .toList();
+    }
+
+    private static List<Long> matching(List<Book> books, Predicate<Book> criteria) {
+        return books.stream().filter(criteria).map(Book::getId).sorted().toList();
+    }
+
+    private static List<Long> ids(List<? extends BookView> books) {
+        return books.stream().map(BookView::getId).toList();
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares, unchanged.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.cursordemo.repository.memory;
+
+import com.cursordemo.dto.BookRequestDTO;
+import com.cursordemo.dto.BookResponseDTO;
+import com.cursordemo.entity.Book;
+import com.cursordemo.event.BookChangedEvent;
+import com.cursordemo.index.BookIndexManager;
+import com.cursordemo.repository.BookRepository;
+import com.cursordemo.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Consistency tests for InMemoryBookRepository.
+ * 
+ * Every read the in-memory repository serves is run against it and against
+ * the JPA repository, on the sample data and after changes made through the
+ * service, and the results must be identical.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.cursordemo=WARN",
+        "logging.level.org.hibernate.SQL=OFF",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"
+})
+@ActiveProfiles("inmemory")
+class InMemoryBookRepositoryConsistencyTest {
+
+    private static final List<String> TEXT_QUERIES = List.of("the", "ORWELL", "a", "of", "Great Gatsby", "zzz", "",
+            "%", "_he", "gr%t");
+
+    private static final List<BigDecimal[]> PRICE_RANGES = List.of(
+            new BigDecimal[]{new BigDecimal("0.01"), new BigDecimal("9999.99")},
+            new BigDecimal[]{new BigDecimal("10"), new BigDecimal("15.99")},
+            new BigDecimal[]{new BigDecimal("12.99"), new BigDecimal("12.99")},
+            new BigDecimal[]{new BigDecimal("20"), new BigDecimal("10")});
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    @Qualifier("bookRepository")
+    private BookRepository jpaRepository;
+
+    @Autowired
+    private InMemoryBookStore store;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookIndexManager indexManager;
+
+    @Test
+    void primaryRepository_IsInMemory() {
+        assertInstanceOf(InMemoryBookRepository.class, bookRepository);
+        assertTrue(store.isReady());
+        assertFalse(bookRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void sampleData_MatchesJpa() {
+        assertConsistent();
+    }
+
+    @Test
+    void changesThroughService_MatchJpa() {
+        BookResponseDTO created = bookService.createBook(new BookRequestDTO("The Consistency Test", "Test Author",
+                "9780000000017", new BigDecimal("12.9")));
+        List<BookRequestDTO> bulk = List.of(
+                new BookRequestDTO("Bulk One", "Orwell Tribute", "9780000000024", new BigDecimal("15.99")),
+                new BookRequestDTO("Bulk Two", "Another Author", "9780000000031", new BigDecimal("10.00")));
+        bookService.createBooks(bulk);
+        assertConsistent();
+
+        bookService.updateBook(created.getId(), new BookRequestDTO("Renamed Consistency Test", "Test Author",
+                "9780000000048", new BigDecimal("20.50")));
+        assertConsistent();
+        assertTrue(bookRepository.findByIsbn("9780000000017").isEmpty());
+
+        bookService.deleteBook(created.getId());
+        assertConsistent();
+        assertTrue(bookRepository.findById(created.getId()).isEmpty());
+    }
+
+    @Test
+    void changesOutOfOrderAcrossThreads_KeepNewestVersion() throws Exception {
+        long id = 1_000_001L;
+        try {
+            List<BookChangedEvent> saves = new ArrayList<>();
+            for (long version = 0; version < 200; version++) {
+                saves.add(BookChangedEvent.saved(detachedBook(id, version)));
+            }
+            applyConcurrently(saves);
+            assertEquals("Version 199", store.get(id).title());
+
+            // A delete racing older saves wins, and a late save cannot bring the book back
+            List<BookChangedEvent> race = new ArrayList<>(saves);
+            race.add(BookChangedEvent.deleted(id, 199));
+            applyConcurrently(race);
+            assertNull(store.get(id));
+            indexManager.onBookChanged(BookChangedEvent.saved(detachedBook(id, 199)));
+            assertNull(store.get(id));
+            assertConsistent();
+        } finally {
+            indexManager.rebuild();
+        }
+    }
+
+    /**
+     * Apply the events in a shuffled order from several threads at once.
+     */
+    private void applyConcurrently(List<BookChangedEvent> events) throws Exception {
+        List<BookChangedEvent> shuffled = new ArrayList<>(events);
+        Collections.shuffle(shuffled, new Random(events.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (BookChangedEvent event : shuffled) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    indexManager.onBookChanged(event);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Book detachedBook(long id, long version) {
+        Book book = new Book("Version " + version, "Reorder Author", String.format("978%010d", id),
+                new BigDecimal("9.99"));
+        book.setId(id);
+        book.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        book.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(version));
+        book.setVersion(version);
+        return book;
+    }
+
+    private void assertConsistent() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            List<Book> all = sortedById(jpaRepository.findAll());
+            assertSame(all, sortedById(bookRepository.findAll()), "findAll");
+            assertEquals(jpaRepository.count(), bookRepository.count(), "count");
+
+            List<Long> ids = new ArrayList<>();
+            all.forEach(book -> ids.add(book.getId()));
+            ids.addAll(List.of(0L, 99_999L));
+            List<String> isbns = new ArrayList<>();
+            all.forEach(book -> isbns.add(book.getIsbn()));
+            isbns.addAll(List.of("9789999999999", ""));
+
+            for (Long id : ids) {
+                assertSame(jpaRepository.findById(id), bookRepository.findById(id), "findById " + id);
+                assertEquals(jpaRepository.existsById(id), bookRepository.existsById(id), "existsById " + id);
+            }
+            assertSame(sortedById(jpaRepository.findAllById(ids)), sortedById(bookRepository.findAllById(ids)), "findAllById");
+            assertSame(jpaRepository.findAllByIdsInOrder(ids), bookRepository.findAllByIdsInOrder(ids), "findAllByIdsInOrder");
+
+            for (String isbn : isbns) {
+                assertSame(jpaRepository.findByIsbn(isbn), bookRepository.findByIsbn(isbn), "findByIsbn " + isbn);
+                assertSame(jpaRepository.findByNaturalIsbn(isbn), bookRepository.findByNaturalIsbn(isbn),
+                        "findByNaturalIsbn " + isbn);
+                assertEquals(jpaRepository.findIdByNaturalIsbn(isbn), bookRepository.findIdByNaturalIsbn(isbn),
+                        "findIdByNaturalIsbn " + isbn);
+                assertEquals(jpaRepository.existsByIsbn(isbn), bookRepository.existsByIsbn(isbn), "existsByIsbn " + isbn);
+            }
+            assertEquals(jpaRepository.findExistingIsbns(isbns).stream().sorted().toList(),
+                    bookRepository.findExistingIsbns(isbns).stream().sorted().toList(), "findExistingIsbns");
+            assertSame(jpaRepository.findAllByNaturalIsbnsInOrder(isbns), bookRepository.findAllByNaturalIsbnsInOrder(isbns),
+                    "findAllByNaturalIsbnsInOrder");
+
+            for (Long afterId : List.of(0L, 5L, 99_999L)) {
+                for (Limit limit : List.of(Limit.of(3), Limit.unlimited())) {
+                    assertSame(jpaRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit),
+                            bookRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit),
+                            "findByIdGreaterThanOrderByIdAsc " + afterId + " " + limit);
+                }
+            }
+
+            for (String query : TEXT_QUERIES) {
+                assertSame(sortedById(jpaRepository.findByTitleIgnoreCaseContaining(query)),
+                        sortedById(bookRepository.findByTitleIgnoreCaseContaining(query)), "title " + query);
+                assertSame(sortedById(jpaRepository.findByAuthorIgnoreCaseContaining(query)),
+                        sortedById(bookRepository.findByAuthorIgnoreCaseContaining(query)), "author " + query);
+                assertSame(sortedById(jpaRepository.findByTitleOrAuthorContaining(query, "orwell")),
+                        sortedById(bookRepository.findByTitleOrAuthorContaining(query, "orwell")), "titleOrAuthor " + query);
+            }
+
+            for (BigDecimal[] range : PRICE_RANGES) {
+                String label = Arrays.toString(range);
+                assertSame(sortedByPrice(jpaRepository.findByPriceBetween(range[0], range[1])),
+                        bookRepository.findByPriceBetween(range[0], range[1]), "findByPriceBetween " + label);
+                assertSame(sortedByPrice(jpaRepository.findByPriceLessThanEqualOrderByPrice(range[1])),
+                        bookRepository.findByPriceLessThanEqualOrderByPrice(range[1]), "lessThanEqual " + label);
+                assertSame(sortedByPrice(jpaRepository.findByPriceGreaterThanEqualOrderByPrice(range[0])),
+                        bookRepository.findByPriceGreaterThanEqualOrderByPrice(range[0]), "greaterThanEqual " + label);
+                assertEquals(jpaRepository.countByPriceBetween(range[0], range[1]),
+                        bookRepository.countByPriceBetween(range[0], range[1]), "countByPriceBetween " + label);
+            }
+        });
+    }
+
+    /**
+     * Assert that two results hold books with identical values in the same order.
+     */
+    private static void assertSame(Object expected, Object actual, String message) {
+        assertEquals(describe(expected), describe(actual), message);
+    }
+
+    private static Object describe(Object result) {
+        if (result instanceof Optional<?> optional) {
+            return optional.map(InMemoryBookRepositoryConsistencyTest::describe);
+        }
+        if (result instanceof List<?> list) {
+            return list.stream().map(element -> element == null ? "null" : describe(element)).toList();
+        }
+        Book book = (Book) result;
+        return book.getId() + "|" + book.getTitle() + "|" + book.getAuthor() + "|" + book.getIsbn() + "|"
+                + book.getPrice().toPlainString() + "|" + book.getCreatedAt() + "|" + book.getUpdatedAt();
+    }
+
+    private static List<Book> sortedById(List<Book> books) {
+        return sorted(books, Book::getId);
+    }
+
+    /**
+     * The SQL queries order by price only; ties are broken by ID as the store does.
+     */
+    private static List<Book> sortedByPrice(List<Book> books) {
+        return books.stream()
+                .sorted(Comparator.comparing(Book::getPrice).thenComparing(Book::getId))
+                .toList();
+    }
+
+    private static <K extends Comparable<K>> List<Book> sorted(List<Book> books, Function<Book, K> key) {
+        return books.stream().sorted(Comparator.comparing(key)).toList();
+    }
+}
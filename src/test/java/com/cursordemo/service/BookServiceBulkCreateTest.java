@@ -0,0 +1,111 @@
+package com.cursordemo.service;
+
+import com.cursordemo.dto.BookBulkResultDTO;
+import com.cursordemo.dto.BookRequestDTO;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests bulk creation against the database when another transaction commits
+ * one of the requested ISBNs after the existence check: only that book may be
+ * rejected, the others must still be created.
+ * 
+ * The competing row is committed on its own connection just before Hibernate
+ * prepares the first insert into the books table, so the batch reaches the
+ * unique constraint exactly as it would in a real race.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.cursordemo.service.BookServiceBulkCreateTest$BeforeInsert",
+        "logging.level.com.cursordemo=WARN",
+        "logging.level.org.hibernate.SQL=OFF",
+        "logging.level.org.hibernate.engine.jdbc=OFF",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"
+})
+class BookServiceBulkCreateTest {
+
+    private static final String CONTESTED_ISBN = "978-0-13-468599-1";
+    private static final String FREE_ISBN = "978-0-596-52068-7";
+    private static final long CONCURRENT_ID = 900_001L;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        BeforeInsert.action.set(null);
+        for (Long id : jdbcTemplate.queryForList("SELECT id FROM books WHERE isbn IN (?, ?) AND id <> ?",
+                Long.class, CONTESTED_ISBN, FREE_ISBN, CONCURRENT_ID)) {
+            bookService.deleteBook(id);
+        }
+        jdbcTemplate.update("DELETE FROM books WHERE id = ?", CONCURRENT_ID);
+    }
+
+    @Test
+    void createBooks_ConcurrentInsertOfSameIsbn_RejectsOnlyThatBook() {
+        BeforeInsert.action.set(() -> jdbcTemplate.update(
+                "INSERT INTO books (id, title, author, isbn, price, created_at, updated_at) "
+                        + "VALUES (?, 'Effective Java', 'Joshua Bloch', ?, 40.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                CONCURRENT_ID, CONTESTED_ISBN));
+
+        List<BookBulkResultDTO> results = bookService.createBooks(List.of(
+                new BookRequestDTO("Effective Java", "Joshua Bloch", CONTESTED_ISBN, new BigDecimal("45.00")),
+                new BookRequestDTO("Learning Python", "Mark Lutz", FREE_ISBN, new BigDecimal("50.00"))));
+
+        assertNull(BeforeInsert.action.get(), "the concurrent insert did not run");
+        assertEquals(BookBulkResultDTO.Status.CONFLICT, results.get(0).getStatus());
+        assertEquals(0, results.get(0).getIndex());
+        assertEquals(BookBulkResultDTO.Status.CREATED, results.get(1).getStatus());
+        assertEquals(FREE_ISBN, results.get(1).getBook().getIsbn());
+        assertEquals(List.of(CONCURRENT_ID), jdbcTemplate.queryForList("SELECT id FROM books WHERE isbn = ?",
+                Long.class, CONTESTED_ISBN));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books WHERE isbn = ?",
+                Integer.class, FREE_ISBN));
+    }
+
+    @Test
+    void createBooks_WithoutConcurrentInsert_CreatesAll() {
+        List<BookBulkResultDTO> results = bookService.createBooks(List.of(
+                new BookRequestDTO("Effective Java", "Joshua Bloch", CONTESTED_ISBN, new BigDecimal("45.00")),
+                new BookRequestDTO("Learning Python", "Mark Lutz", FREE_ISBN, new BigDecimal("50.00")),
+                new BookRequestDTO("Learning Python", "Mark Lutz", FREE_ISBN, new BigDecimal("50.00"))));
+
+        assertEquals(List.of(BookBulkResultDTO.Status.CREATED, BookBulkResultDTO.Status.CREATED,
+                BookBulkResultDTO.Status.CONFLICT), results.stream().map(BookBulkResultDTO::getStatus).toList());
+    }
+
+    /**
+     * Runs the armed action once, before the books table is first inserted into.
+     */
+    public static class BeforeInsert implements StatementInspector {
+
+        static final AtomicReference<Runnable> action = new AtomicReference<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("insert into books")) {
+                Runnable armed = action.getAndSet(null);
+                if (armed != null) {
+                    // On another thread, so JdbcTemplate does not join the transaction of the insert
+                    CompletableFuture.runAsync(armed).join();
+                }
+            }
+            return sql;
+        }
+    }
+}